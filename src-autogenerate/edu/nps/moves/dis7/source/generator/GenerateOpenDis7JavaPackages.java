@@ -6,10 +6,22 @@
 package edu.nps.moves.dis7.source.generator;
 
 import edu.nps.moves.dis7.source.generator.pdus.GeneratePdusForGivenLanguage;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * GenerateOpenDis7JavaPackages.java created on Jul 17, 2019
  * MOVES Institute, Naval Postgraduate School (NPS), Monterey California USA https://www.nps.edu
+ * <p>
+ * Runs the five generation stages one after another, or, with system property <code>xmlpg.parallel=true</code>,
+ * runs independent stages concurrently and fans out file output within each stage, see {@link GeneratedFiles}.
+ * With <code>xmlpg.incremental=true</code> stages with unchanged inputs are skipped and only changed files are rewritten.
  *
  * @author Don McGregor, Mike Bailey and Don Brutzman
  * @version $Id$
@@ -51,6 +63,113 @@ public class GenerateOpenDis7JavaPackages
   static String entitiesPackage   = "edu.nps.moves.dis7.entities";
   // @formatter:on
 
+    /** One generation stage, with the stages whose output it needs */
+    static class GenerationStage
+    {
+        final String       name;
+        final List<String> prerequisites;
+        final Runnable     task;
+
+        GenerationStage(String name, List<String> prerequisites, Runnable task)
+        {
+            this.name          = name;
+            this.prerequisites = prerequisites;
+            this.task          = task;
+        }
+    }
+
+    /**
+     * Stages of opendis7-java generation in sequential order.  Every stage reads its XML and writes its own package,
+     * so they are independent; the SISO stages share one {@link SisoReference} model, parsed by whichever needs it first.
+     * @return stages, prerequisites listed before dependent stages
+     */
+    static List<GenerationStage> javaStages()
+    {
+        List<GenerationStage> stages = new ArrayList<>();
+        stages.add(new GenerationStage("enumerations", List.of(), () ->
+            edu.nps.moves.dis7.source.generator.enumerations.GenerateEnumerations.main(new String[]{DEFAULT_SISO_XML_FILE, enumOutputPath, enumPackage})));
+        // PDUS and associated objects, legacy classes
+        stages.add(new GenerationStage("pdus", List.of(), () ->
+            edu.nps.moves.dis7.source.generator.pdus.GeneratePdusForGivenLanguage.main(new String[]{DEFAULT_PDU_XML_FILE, "java"})));
+        stages.add(new GenerationStage("jammers", List.of(), () ->
+            edu.nps.moves.dis7.source.generator.entityTypes.GenerateJammers.main(new String[]{DEFAULT_SISO_XML_FILE, jammerOutputPath, jammerPackage})));
+        stages.add(new GenerationStage("object types", List.of(), () ->
+            edu.nps.moves.dis7.source.generator.entityTypes.GenerateObjectTypes.main(new String[]{DEFAULT_SISO_XML_FILE, objectTypeOutputPath, objectTypePackage})));
+        stages.add(new GenerationStage("entity types", List.of(), () ->
+            edu.nps.moves.dis7.source.generator.entityTypes.GenerateEntityTypes.main(new String[]{DEFAULT_SISO_XML_FILE, entitiesOutputPath, entitiesPackage})));
+        return stages;
+    }
+
+    /**
+     * Run stages in list order, or concurrently as soon as their prerequisites are complete.
+     * In either mode a failed stage fails the whole run: in parallel mode the remaining independent stages
+     * are still completed, then the first failure in list order is rethrown.
+     * @param stages stages of interest, prerequisites listed before dependent stages
+     * @param parallel whether to run independent stages concurrently
+     * @throws RuntimeException if any stage fails
+     */
+    static void runStages(List<GenerationStage> stages, boolean parallel)
+    {
+        long startTime = System.nanoTime();
+        if (!parallel)
+        {
+            for (GenerationStage stage : stages)
+                runStage(stage);
+        }
+        else
+        {
+            ExecutorService stageExecutor = Executors.newFixedThreadPool(stages.size());
+            Map<String, CompletableFuture<Void>> completions = new LinkedHashMap<>();
+            Throwable firstFailure = null;
+            try
+            {
+                for (GenerationStage stage : stages)
+                {
+                    List<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                    for (String prerequisite : stage.prerequisites)
+                    {
+                        if (!completions.containsKey(prerequisite))
+                            throw new IllegalArgumentException("stage " + stage.name + " listed before its prerequisite " + prerequisite);
+                        prerequisites.add(completions.get(prerequisite));
+                    }
+                    completions.put(stage.name, CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[0]))
+                                                                 .thenRunAsync(() -> runStage(stage), stageExecutor));
+                }
+                for (Map.Entry<String, CompletableFuture<Void>> completion : completions.entrySet())
+                {
+                    try {
+                        completion.getValue().join();
+                    }
+                    catch (CompletionException ex) { // dependent stages are skipped
+                        System.err.println("*** stage " + completion.getKey() + " failed or skipped: " + ex.getCause());
+                        if (firstFailure == null)
+                            firstFailure = ex.getCause(); // prerequisites are listed first, so this is an original failure
+                    }
+                }
+            }
+            finally
+            {
+                stageExecutor.shutdown();
+            }
+            if (firstFailure instanceof RuntimeException)
+                throw (RuntimeException) firstFailure;
+            if (firstFailure instanceof Error)
+                throw (Error) firstFailure;
+            if (firstFailure != null)
+                throw new RuntimeException("generation stage failed", firstFailure);
+        }
+        System.out.println("------------- " + stages.size() + " stages " + (parallel ? "in parallel " : "") + "complete in " +
+                           (System.nanoTime() - startTime) / 1000000 + " msec -------------");
+    }
+
+    private static void runStage(GenerationStage stage)
+    {
+        System.out.println("------------- Generating " + stage.name + " -------------");
+        long startTime = System.nanoTime();
+        stage.task.run();
+        System.out.println("------------- Generating " + stage.name + " complete in " + (System.nanoTime() - startTime) / 1000000 + " msec -------------");
+    }
+
     /** Command-line or solo invocation to run this object
      * @param args not used
      */
@@ -63,27 +182,10 @@ public class GenerateOpenDis7JavaPackages
         {
             System.out.println("------------- opendis7-java generation commence -------------");
             System.out.println();
-            // ENUMERATIONS
-            System.out.println("------------- Generating enumerations in "+enumPackage+" -------------");
-            edu.nps.moves.dis7.source.generator.enumerations.GenerateEnumerations.main(new String[]{DEFAULT_SISO_XML_FILE, enumOutputPath, enumPackage});
-
-            // PDUS and associated objects, legacy classes
-            System.out.println("------------- Generating pdus in "+pduPackage+" -------------");
-            System.getProperties().setProperty("xmlpg.generatedSourceDir", pduOutputPath); // legacy parameter passing
+            System.getProperties().setProperty("xmlpg.generatedSourceDir", pduOutputPath); // legacy parameter passing, set before any stage starts
             System.getProperties().setProperty("xmlpg.package", pduPackage);
-            edu.nps.moves.dis7.source.generator.pdus.GeneratePdusForGivenLanguage.main(new String[]{DEFAULT_PDU_XML_FILE, "java"});
-
-            // JAMMERS
-            System.out.println("------------- Generating jammers in "+jammerPackage+" -------------");
-            edu.nps.moves.dis7.source.generator.entityTypes.GenerateJammers.main(new String[]{DEFAULT_SISO_XML_FILE, jammerOutputPath, jammerPackage});
-
-            // Object types
-            System.out.println("------------- Generating object types in "+objectTypePackage+" -------------");
-            edu.nps.moves.dis7.source.generator.entityTypes.GenerateObjectTypes.main(new String[]{DEFAULT_SISO_XML_FILE, objectTypeOutputPath, objectTypePackage});
 
-            //ENTITIES
-            System.out.println("------------- Generating entity types in "+entitiesPackage+" -------------");
-            edu.nps.moves.dis7.source.generator.entityTypes.GenerateEntityTypes.main(new String[]{DEFAULT_SISO_XML_FILE, entitiesOutputPath, entitiesPackage});
+            runStages(javaStages(), GeneratedFiles.isParallel());
 
             System.out.println("------------- opendis7-java generation complete -------------");
         }
@@ -0,0 +1,502 @@
+/**
+ * Copyright (c) 2008-2026, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.source.generator;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Output of generated source files for one generation stage.  By default each file is written immediately, as before.
+ * When parallel generation is enabled by system property <code>xmlpg.parallel=true</code>, files are written
+ * concurrently on a shared pool of worker threads, one writer per file, while the stage continues parsing;
+ * {@link #awaitCompletion()} waits for all of them and reports the first failure.  Repeated writes of the same file
+ * are applied in call order, so that the last one wins as in sequential mode.
+ * {@link #forEach(Collection, Action)} fans out independent work items, such as one generated class each, in the same way.
+ * <p>
+ * Worker tasks never wait for other worker tasks, so stages running concurrently may share the pool safely.
+ * <p>
+ * When incremental generation is enabled by system property <code>xmlpg.incremental=true</code>, each stage keeps a
+ * manifest in <code>build/generator-manifests</code> recording a hash of its inputs (XML files, generator classes
+ * and string templates, xmlpg system properties and stage arguments) and the content hash of every file it wrote.
+ * A stage whose inputs are unchanged and whose outputs are all present and unmodified is skipped by {@link #isUpToDate(Collection, String...)}.
+ * Otherwise files are only rewritten when their content differs, so that unchanged files keep their timestamps and
+ * downstream javac, jar and javadoc steps see only real changes, and files recorded by the previous run but no longer
+ * generated are deleted.
+ *
+ * @see GenerateOpenDis7JavaPackages
+ */
+public class GeneratedFiles
+{
+    /** system property enabling parallel generation, default false */
+    public static final String PARALLEL_PROPERTY = "xmlpg.parallel";
+
+    /** system property enabling incremental generation, default false */
+    public static final String INCREMENTAL_PROPERTY = "xmlpg.incremental";
+
+    private static final String MANIFEST_DIRECTORY = "build/generator-manifests";
+    private static final String INPUTS_PREFIX      = "# inputs ";
+
+    /** Work item of {@link GeneratedFiles#forEach(Collection, Action)}
+     * @param <T> type of item */
+    @FunctionalInterface
+    public interface Action<T>
+    {
+        /** Process one item
+         * @param item item of interest
+         * @throws IOException if output fails */
+        void accept(T item) throws IOException;
+    }
+
+    private static ExecutorService workers; // created on first parallel use, daemon threads
+    private static String generatorHash;    // computed on first use
+
+    private final String stageName;
+    private final boolean parallel    = isParallel();
+    private final boolean incremental = isIncremental();
+    private final Map<Path, CompletableFuture<Void>> pending = new HashMap<>();
+    private final Set<Path> written = new HashSet<>(); // guarded by pending
+
+    // incremental mode
+    private final Map<Path, String> outputHashes = new ConcurrentHashMap<>();
+    private final AtomicInteger changedCount   = new AtomicInteger();
+    private final AtomicInteger unchangedCount = new AtomicInteger();
+    private String inputsHash;
+    private boolean upToDate;
+
+    /**
+     * Constructor, parallel and incremental modes are determined by system properties {@link #PARALLEL_PROPERTY}
+     * and {@link #INCREMENTAL_PROPERTY}
+     * @param stageName name of generation stage, unique among stages, used to name its manifest
+     */
+    public GeneratedFiles(String stageName)
+    {
+        this.stageName = stageName;
+    }
+
+    /**
+     * Whether parallel generation is enabled
+     * @return value of system property {@link #PARALLEL_PROPERTY}
+     */
+    public static boolean isParallel()
+    {
+        return Boolean.getBoolean(PARALLEL_PROPERTY);
+    }
+
+    /**
+     * Whether incremental generation is enabled
+     * @return value of system property {@link #INCREMENTAL_PROPERTY}
+     */
+    public static boolean isIncremental()
+    {
+        return Boolean.getBoolean(INCREMENTAL_PROPERTY);
+    }
+
+    private static synchronized ExecutorService getWorkers()
+    {
+        if (workers == null)
+        {
+            AtomicInteger threadNumber = new AtomicInteger();
+            workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+                Thread thread = new Thread(runnable, "generator-worker-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return workers;
+    }
+
+    /**
+     * In incremental mode, check whether this stage can be skipped: its inputs hash matches the manifest of the
+     * previous run and every file recorded there still exists unmodified.  Call before generating; if the result is true,
+     * call {@link #awaitCompletion()} and generate nothing further.  Always false when not in incremental mode.
+     * @param inputFiles files read by this stage, typically XML
+     * @param parameters stage arguments affecting output, such as output directory and package name
+     * @return whether generated files are up to date
+     * @throws IOException if an input file cannot be read
+     */
+    public boolean isUpToDate(Collection<File> inputFiles, String... parameters) throws IOException
+    {
+        if (!incremental)
+            return false;
+        MessageDigest digest = newDigest();
+        digest.update(getGeneratorHash().getBytes(StandardCharsets.UTF_8));
+        for (File inputFile : inputFiles)
+        {
+            digest.update(inputFile.getPath().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(inputFile.toPath()));
+        }
+        for (String parameter : parameters)
+            digest.update(("\n" + parameter).getBytes(StandardCharsets.UTF_8));
+        TreeMap<String, String> properties = new TreeMap<>(); // generator options, excluding those that do not affect output
+        for (String name : System.getProperties().stringPropertyNames())
+        {
+            if (name.startsWith("xmlpg.") && !name.equals(PARALLEL_PROPERTY) && !name.equals(INCREMENTAL_PROPERTY))
+                properties.put(name, System.getProperty(name));
+        }
+        digest.update(properties.toString().getBytes(StandardCharsets.UTF_8));
+        inputsHash = toHex(digest.digest());
+
+        Manifest previous = readManifest();
+        upToDate = (previous != null) && inputsHash.equals(previous.inputsHash) && outputsUnchanged(previous);
+        if (upToDate)
+            System.out.println(stageName + " generated files are up to date, " + previous.outputHashes.size() + " files unchanged");
+        return upToDate;
+    }
+
+    /** whether every file recorded in a manifest still exists with the recorded contents, not edited since */
+    private static boolean outputsUnchanged(Manifest manifest) throws IOException
+    {
+        for (Map.Entry<Path, String> entry : manifest.outputHashes.entrySet())
+        {
+            if (!Files.isRegularFile(entry.getKey()) ||
+                !entry.getValue().equals(toHex(newDigest().digest(Files.readAllBytes(entry.getKey())))))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Write contents of a generated file in UTF-8, replacing any prior file.
+     * In parallel mode the file is written later by a worker thread, and failures are reported by {@link #awaitCompletion()}.
+     * In incremental mode a file with identical contents is left untouched.
+     * @param target file of interest, parent directory must exist
+     * @param contents complete file contents
+     * @throws IOException if writing fails, sequential mode only
+     */
+    public void write(File target, String contents) throws IOException
+    {
+        write(target.toPath(), () -> contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write contents of a generated binary file, such as a resource, in the same way as {@link #write(File, String)}
+     * @param target file of interest, parent directory must exist
+     * @param contents complete file contents, not modified afterwards
+     * @throws IOException if writing fails, sequential mode only
+     */
+    public void write(File target, byte[] contents) throws IOException
+    {
+        write(target.toPath(), () -> contents);
+    }
+
+    private void write(Path path, Supplier<byte[]> contents) throws IOException
+    {
+        synchronized (pending)
+        {
+            written.add(path.toAbsolutePath().normalize());
+        }
+        if (!parallel)
+        {
+            writeIfChanged(path, contents.get());
+            return;
+        }
+        Runnable task = () -> {
+            try {
+                writeIfChanged(path, contents.get()); // encoded by the worker
+            }
+            catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        };
+        synchronized (pending)
+        {
+            CompletableFuture<Void> prior = pending.get(path);
+            pending.put(path, (prior == null) ? CompletableFuture.runAsync(task, getWorkers())
+                                              : prior.handle((result, ex) -> null).thenRunAsync(task, getWorkers()));
+        }
+    }
+
+    private void writeIfChanged(Path path, byte[] bytes) throws IOException
+    {
+        if (!incremental)
+        {
+            Files.write(path, bytes);
+            return;
+        }
+        outputHashes.put(path.toAbsolutePath().normalize(), toHex(newDigest().digest(bytes)));
+        if (Files.isRegularFile(path) && (Files.size(path) == bytes.length) && Arrays.equals(Files.readAllBytes(path), bytes))
+        {
+            unchangedCount.incrementAndGet();
+            return;
+        }
+        Files.write(path, bytes);
+        changedCount.incrementAndGet();
+    }
+
+    /**
+     * Writer collecting the contents of a generated file, which is passed to {@link #write(File, String)} when the
+     * writer is closed.  Errors are reported on close as UncheckedIOException.
+     * @param target file of interest, parent directory must exist
+     * @return writer for file contents, must be closed
+     */
+    public PrintWriter newPrintWriter(File target)
+    {
+        StringWriter contents = new StringWriter();
+        return new PrintWriter(contents)
+        {
+            private boolean closed;
+
+            @Override
+            public void close()
+            {
+                super.close();
+                if (closed)
+                    return;
+                closed = true;
+                try {
+                    GeneratedFiles.this.write(target, contents.toString());
+                }
+                catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        };
+    }
+
+    /**
+     * Whether a file was written by this stage.  Outside incremental mode, files left by earlier runs count as well,
+     * as before; in incremental mode they are expected and only files written during this run count.
+     * @param target file of interest
+     * @return whether file exists as generated output
+     */
+    public boolean exists(File target)
+    {
+        synchronized (pending)
+        {
+            if (written.contains(target.toPath().toAbsolutePath().normalize()))
+                return true;
+        }
+        return !incremental && target.exists();
+    }
+
+    /**
+     * Wait until every file passed to {@link #write(File, String)} has been written.
+     * In incremental mode, then delete files generated by the previous run but not by this one, and save the manifest;
+     * call once at the end of the stage.
+     * @throws IOException first failure, if any
+     */
+    public void awaitCompletion() throws IOException
+    {
+        List<Future<?>> futures;
+        synchronized (pending)
+        {
+            futures = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        await(futures);
+        if (incremental && !upToDate)
+            updateManifest();
+    }
+
+    private void updateManifest() throws IOException
+    {
+        Manifest previous = readManifest();
+        int deletedCount = 0;
+        if (previous != null)
+        {
+            for (Path orphan : previous.outputHashes.keySet())
+            {
+                if (!outputHashes.containsKey(orphan) && Files.deleteIfExists(orphan))
+                {
+                    System.out.println(stageName + " deleted " + orphan);
+                    deletedCount++;
+                }
+            }
+        }
+        Path manifestFile = getManifestFile();
+        Files.createDirectories(manifestFile.getParent());
+        Path currentDirectory = Paths.get("").toAbsolutePath();
+        try (BufferedWriter writer = Files.newBufferedWriter(manifestFile, StandardCharsets.UTF_8)) {
+            writer.write("# " + stageName + " generated files, see " + GeneratedFiles.class.getName());
+            writer.newLine();
+            if (inputsHash != null)
+            {
+                writer.write(INPUTS_PREFIX + inputsHash);
+                writer.newLine();
+            }
+            for (Map.Entry<String, String> entry : new TreeMap<>(outputHashes.entrySet().stream()
+                     .collect(Collectors.toMap(e -> currentDirectory.relativize(e.getKey()).toString(), Map.Entry::getValue))).entrySet())
+            {
+                writer.write(entry.getValue() + "  " + entry.getKey()); // same layout as sha256sum
+                writer.newLine();
+            }
+        }
+        System.out.println(stageName + " incremental generation: " + changedCount + " files written, " +
+                           unchangedCount + " unchanged, " + deletedCount + " deleted");
+    }
+
+    /** Contents of a manifest file */
+    private static class Manifest
+    {
+        String inputsHash;
+        final Map<Path, String> outputHashes = new HashMap<>();
+    }
+
+    private Path getManifestFile()
+    {
+        return Paths.get(MANIFEST_DIRECTORY, stageName.replaceAll("\\W", "_") + ".sha256");
+    }
+
+    private Manifest readManifest() throws IOException
+    {
+        Path manifestFile = getManifestFile();
+        if (!Files.isRegularFile(manifestFile))
+            return null;
+        Manifest manifest = new Manifest();
+        try (BufferedReader reader = Files.newBufferedReader(manifestFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                if (line.startsWith(INPUTS_PREFIX))
+                    manifest.inputsHash = line.substring(INPUTS_PREFIX.length());
+                else if (!line.startsWith("#") && (line.indexOf("  ") > 0))
+                    manifest.outputHashes.put(Paths.get(line.substring(line.indexOf("  ") + 2)).toAbsolutePath().normalize(),
+                                              line.substring(0, line.indexOf("  ")));
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Hash of the generator itself, covering compiled generator classes together with string templates and
+     * properties, which the build copies alongside them, or else the archive containing them
+     */
+    private static synchronized String getGeneratorHash() throws IOException
+    {
+        if (generatorHash != null)
+            return generatorHash;
+        MessageDigest digest = newDigest();
+        URL location = GeneratedFiles.class.getResource(GeneratedFiles.class.getSimpleName() + ".class");
+        try {
+            Path root;
+            if ("file".equals(location.getProtocol()))
+                 root = Paths.get(location.toURI()).getParent();
+            else root = Paths.get(GeneratedFiles.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+            }
+            for (Path file : files)
+            {
+                digest.update(root.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+        }
+        catch (URISyntaxException | RuntimeException ex) {
+            throw new IOException("unable to locate generator classes for incremental generation", ex);
+        }
+        generatorHash = toHex(digest.digest());
+        return generatorHash;
+    }
+
+    /**
+     * Apply an action to each item, concurrently on the worker pool in parallel mode, otherwise in iteration order.
+     * Returns once every item is processed.  Items must be independent of each other, and any state shared by the
+     * action must be read-only or thread safe.
+     * @param <T> type of item
+     * @param items items of interest
+     * @param action work for one item
+     * @throws IOException first failure, if any
+     */
+    public static <T> void forEach(Collection<T> items, Action<T> action) throws IOException
+    {
+        if (!isParallel())
+        {
+            for (T item : items)
+                action.accept(item);
+            return;
+        }
+        List<Future<?>> futures = new ArrayList<>(items.size());
+        for (T item : items)
+            futures.add(getWorkers().submit(() -> {
+                action.accept(item);
+                return null;
+            }));
+        await(futures);
+    }
+
+    private static void await(List<Future<?>> futures) throws IOException
+    {
+        IOException failure = null;
+        for (Future<?> future : futures) // wait for all, even after a failure, so that no task outlives its stage
+        {
+            try {
+                future.get();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("interrupted while waiting for generated files", ex);
+            }
+            catch (ExecutionException ex) {
+                if (failure == null)
+                    failure = toIOException(ex.getCause());
+            }
+        }
+        if (failure != null)
+            throw failure;
+    }
+
+    private static IOException toIOException(Throwable cause)
+    {
+        if (cause instanceof java.util.concurrent.CompletionException)
+            cause = cause.getCause();
+        if (cause instanceof IOException)
+            return (IOException) cause;
+        if (cause instanceof UncheckedIOException)
+            return ((UncheckedIOException) cause).getCause();
+        return new IOException(cause);
+    }
+
+    private static MessageDigest newDigest()
+    {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex); // every Java platform provides SHA-256
+        }
+    }
+
+    private static String toHex(byte[] hash)
+    {
+        StringBuilder hex = new StringBuilder(hash.length * 2);
+        for (byte b : hash)
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        return hex.toString();
+    }
+}
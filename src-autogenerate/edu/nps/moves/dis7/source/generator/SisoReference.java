@@ -0,0 +1,391 @@
+/**
+ * Copyright (c) 2008-2026, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.source.generator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * In-memory model of the SISO-REF-010 enumerations reference, parsed once and shared by the enumeration, jammer,
+ * object type and entity type generators.  The model is the element tree of the XML document with its attributes,
+ * which is all that the generators read, indexed by element name (enum, bitfield, dict, cet, cot, jammer_technique
+ * and so on) and by uid.  Generators either query it directly or {@link #replay(DefaultHandler) replay} it into
+ * their existing SAX handlers.
+ * <p>
+ * Parsing the full reference takes several seconds, so {@link #load(String)} keeps each model in memory for the
+ * remainder of the run and also saves it as a compact binary snapshot, named by the SHA-256 hash of the XML file,
+ * in directory <code>build/siso-cache</code> (system property <code>xmlpg.sisoCache</code>).  Later runs, and
+ * generator stages forked as separate processes, read the snapshot instead of parsing the XML again.  Any change
+ * to the XML file changes its hash, so stale snapshots are never used.
+ *
+ * @see <a href="https://www.sisostandards.org/page/ReferenceDocuments" target="_blank">SISO-REF-010 Reference for Enumerations for Simulation Interoperability</a>
+ */
+public class SisoReference
+{
+    /** system property for the snapshot directory, default build/siso-cache */
+    public static final String CACHE_DIRECTORY_PROPERTY = "xmlpg.sisoCache";
+
+    private static final String DEFAULT_CACHE_DIRECTORY = "build/siso-cache";
+    private static final int    SNAPSHOT_MAGIC   = 0x5349534F; // "SISO"
+    private static final int    SNAPSHOT_VERSION = 1;
+
+    /** models loaded during this run, keyed by XML file hash */
+    private static final Map<String, SisoReference> loaded = new HashMap<>();
+
+    /** One XML element with its attributes and child elements, character content is not retained */
+    public static final class Element
+    {
+        private final String        name;
+        private final String[]      attributes; // name, value pairs in document order
+        private final List<Element> children = new ArrayList<>();
+
+        Element(String name, String[] attributes)
+        {
+            this.name       = name;
+            this.attributes = attributes;
+        }
+
+        /** @return element name */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Attribute value by name
+         * @param attributeName name of interest
+         * @return attribute value, or null if not present
+         */
+        public String getAttribute(String attributeName)
+        {
+            for (int i = 0; i < attributes.length; i += 2)
+            {
+                if (attributes[i].equals(attributeName))
+                    return attributes[i + 1];
+            }
+            return null;
+        }
+
+        /** @return child elements in document order, unmodifiable */
+        public List<Element> getChildren()
+        {
+            return Collections.unmodifiableList(children);
+        }
+
+        /**
+         * Descendant elements with a given name, in document order
+         * @param elementName name of interest
+         * @return matching descendants, not including this element
+         */
+        public List<Element> getDescendants(String elementName)
+        {
+            List<Element> result = new ArrayList<>();
+            collect(this, elementName, result);
+            return result;
+        }
+
+        private static void collect(Element parent, String elementName, List<Element> result)
+        {
+            for (Element child : parent.children)
+            {
+                if (child.name.equals(elementName))
+                    result.add(child);
+                collect(child, elementName, result);
+            }
+        }
+    }
+
+    private final String xmlHash;
+    private final Element root;
+    private final Map<String, List<Element>> elementsByName = new HashMap<>();
+    private final Map<String, Element>       elementsByUid  = new HashMap<>();
+
+    private SisoReference(String xmlHash, Element root)
+    {
+        this.xmlHash = xmlHash;
+        this.root    = root;
+        index(root);
+    }
+
+    private void index(Element element)
+    {
+        elementsByName.computeIfAbsent(element.name, key -> new ArrayList<>()).add(element);
+        switch (element.name) {
+            case "enum":
+            case "bitfield":
+            case "dict":
+                String uid = element.getAttribute("uid");
+                if (uid != null)
+                    elementsByUid.putIfAbsent(uid, element);
+                break;
+            default:
+        }
+        for (Element child : element.children)
+            index(child);
+    }
+
+    /**
+     * Provide the model of a SISO-REF-010 XML file, from memory or snapshot if already parsed, otherwise by parsing it.
+     * Safe to call concurrently, each file is parsed at most once per run.
+     * @param xmlFile path of SISO-REF-010.xml
+     * @return shared model, read only
+     * @throws IOException if the file cannot be read
+     * @throws SAXException if the file is not well-formed XML
+     * @throws ParserConfigurationException if no SAX parser is available
+     */
+    public static synchronized SisoReference load(String xmlFile) throws IOException, SAXException, ParserConfigurationException
+    {
+        Path xmlPath = Paths.get(xmlFile);
+        String hash  = sha256(xmlPath);
+        SisoReference reference = loaded.get(hash);
+        if (reference != null)
+            return reference;
+
+        Path snapshot = Paths.get(System.getProperty(CACHE_DIRECTORY_PROPERTY, DEFAULT_CACHE_DIRECTORY), hash + ".bin");
+        long startTime = System.currentTimeMillis();
+        if (Files.isReadable(snapshot))
+        {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+                reference = new SisoReference(hash, readSnapshot(in));
+                System.out.println("SisoReference read snapshot " + snapshot + " in " + (System.currentTimeMillis() - startTime) + " msec");
+            }
+            catch (IOException | RuntimeException ex) { // damaged snapshot, parse instead
+                System.out.flush();
+                System.err.println("SisoReference ignoring unreadable snapshot " + snapshot + ", " + ex.getMessage());
+            }
+        }
+        if (reference == null)
+        {
+            reference = new SisoReference(hash, parse(xmlPath.toFile()));
+            System.out.println("SisoReference parsed " + xmlFile + " in " + (System.currentTimeMillis() - startTime) + " msec");
+            writeSnapshot(reference.root, snapshot);
+        }
+        loaded.put(hash, reference);
+        return reference;
+    }
+
+    /** @return SHA-256 hash of the XML file, in hexadecimal */
+    public String getXmlHash()
+    {
+        return xmlHash;
+    }
+
+    /** @return document element */
+    public Element getRoot()
+    {
+        return root;
+    }
+
+    /**
+     * All elements with a given name, in document order, for example "enum", "cet" or "jammer_technique"
+     * @param elementName name of interest
+     * @return matching elements, unmodifiable
+     */
+    public List<Element> getElements(String elementName)
+    {
+        return Collections.unmodifiableList(elementsByName.getOrDefault(elementName, List.of()));
+    }
+
+    /**
+     * Enumeration, bit field or dictionary by SISO uid
+     * @param uid uid of interest
+     * @return first enum, bitfield or dict element with that uid, or null if none
+     */
+    public Element getElementByUid(String uid)
+    {
+        return elementsByUid.get(uid);
+    }
+
+    /**
+     * Deliver the document to a SAX handler, as if parsing the XML file.  Only element start and end events
+     * are delivered, since no generator reads character content.
+     * @param handler SAX handler of interest
+     * @throws SAXException if thrown by the handler
+     */
+    public void replay(DefaultHandler handler) throws SAXException
+    {
+        handler.startDocument();
+        replay(root, handler);
+        handler.endDocument();
+    }
+
+    private static void replay(Element element, DefaultHandler handler) throws SAXException
+    {
+        AttributesImpl attributes = new AttributesImpl();
+        for (int i = 0; i < element.attributes.length; i += 2)
+            attributes.addAttribute("", element.attributes[i], element.attributes[i], "CDATA", element.attributes[i + 1]);
+        handler.startElement("", element.name, element.name, attributes);
+        for (Element child : element.children)
+            replay(child, handler);
+        handler.endElement("", element.name, element.name);
+    }
+
+    private static Element parse(File xmlFile) throws IOException, SAXException, ParserConfigurationException
+    {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setValidating(false);
+        factory.setNamespaceAware(true);
+        factory.setXIncludeAware(true);
+
+        Map<String, String> strings = new HashMap<>(); // repeated names and values share one instance
+        List<Element> open = new ArrayList<>();
+        Element[] document = new Element[1];
+        factory.newSAXParser().parse(xmlFile, new DefaultHandler()
+        {
+            @Override
+            public void startElement(String uri, String localName, String qName, Attributes attributes)
+            {
+                String[] pairs = new String[attributes.getLength() * 2];
+                for (int i = 0; i < attributes.getLength(); i++)
+                {
+                    pairs[2 * i]     = strings.computeIfAbsent(attributes.getQName(i), key -> key);
+                    pairs[2 * i + 1] = strings.computeIfAbsent(attributes.getValue(i), key -> key);
+                }
+                Element element = new Element(strings.computeIfAbsent(qName, key -> key), pairs);
+                if (open.isEmpty())
+                     document[0] = element;
+                else open.get(open.size() - 1).children.add(element);
+                open.add(element);
+            }
+
+            @Override
+            public void endElement(String uri, String localName, String qName)
+            {
+                open.remove(open.size() - 1);
+            }
+        });
+        return document[0];
+    }
+
+    /*
+     * Snapshot layout: magic, version, string table (count, then UTF-8 length and bytes of each), then the element
+     * tree in document order, each element as name index, attribute count, name and value indices, child count.
+     */
+    private static void writeSnapshot(Element root, Path snapshot)
+    {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        collectStrings(root, stringIndex, strings);
+        try {
+            Path directory = snapshot.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, "siso", ".tmp"); // concurrent processes may write the same snapshot
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(strings.size());
+                for (String string : strings)
+                {
+                    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                }
+                writeElement(out, root, stringIndex);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException ex) {
+            System.out.flush();
+            System.err.println("SisoReference unable to save snapshot " + snapshot + ", " + ex.getMessage()); // next run parses again
+        }
+    }
+
+    private static void collectStrings(Element element, Map<String, Integer> stringIndex, List<String> strings)
+    {
+        addString(element.name, stringIndex, strings);
+        for (String string : element.attributes)
+            addString(string, stringIndex, strings);
+        for (Element child : element.children)
+            collectStrings(child, stringIndex, strings);
+    }
+
+    private static void addString(String string, Map<String, Integer> stringIndex, List<String> strings)
+    {
+        if (stringIndex.putIfAbsent(string, strings.size()) == null)
+            strings.add(string);
+    }
+
+    private static void writeElement(DataOutputStream out, Element element, Map<String, Integer> stringIndex) throws IOException
+    {
+        out.writeInt(stringIndex.get(element.name));
+        out.writeInt(element.attributes.length / 2);
+        for (String string : element.attributes)
+            out.writeInt(stringIndex.get(string));
+        out.writeInt(element.children.size());
+        for (Element child : element.children)
+            writeElement(out, child, stringIndex);
+    }
+
+    private static Element readSnapshot(DataInputStream in) throws IOException
+    {
+        if ((in.readInt() != SNAPSHOT_MAGIC) || (in.readInt() != SNAPSHOT_VERSION))
+            throw new IOException("unrecognized snapshot format");
+        String[] strings = new String[in.readInt()];
+        for (int i = 0; i < strings.length; i++)
+        {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return readElement(in, strings);
+    }
+
+    private static Element readElement(DataInputStream in, String[] strings) throws IOException
+    {
+        String name = strings[in.readInt()];
+        String[] attributes = new String[in.readInt() * 2];
+        for (int i = 0; i < attributes.length; i++)
+            attributes[i] = strings[in.readInt()];
+        Element element = new Element(name, attributes);
+        int childCount = in.readInt();
+        for (int i = 0; i < childCount; i++)
+            element.children.add(readElement(in, strings));
+        return element;
+    }
+
+    private static String sha256(Path file) throws IOException
+    {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[64 * 1024];
+            try (InputStream in = Files.newInputStream(file)) {
+                int count;
+                while ((count = in.read(buffer)) > 0)
+                    digest.update(buffer, 0, count);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest())
+                hex.append(String.format("%02x", b));
+            return hex.toString();
+        }
+        catch (NoSuchAlgorithmException ex) {
+            throw new IOException(ex); // every Java platform provides SHA-256
+        }
+    }
+}
@@ -5,20 +5,27 @@
 package edu.nps.moves.dis7.source.generator.entityTypes;
 
 import edu.nps.moves.dis7.source.generator.enumerations.GenerateEnumerations;
-import java.io.BufferedWriter;
+import edu.nps.moves.dis7.source.generator.GeneratedFiles;
+import edu.nps.moves.dis7.source.generator.SisoReference;
+import edu.nps.moves.dis7.source.generator.enumerations.GenerateEnumerations.EnumerationConstant;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -41,10 +48,38 @@ public class GenerateEntityTypes
     private static String         sisoXmlFile = edu.nps.moves.dis7.source.generator.GenerateOpenDis7JavaPackages.DEFAULT_SISO_XML_FILE;
     private static String       sisoSpecificationTitleDate = "";
 
-    private BufferedWriter uid2ClassWriter = null;
+    /** writes generated class files, concurrently in parallel mode */
+    private final GeneratedFiles generatedFiles = new GeneratedFiles("entityTypes");
+
+    private StringBuilder uid2ClassBuilder = null;
+
+    /** system property selecting entity type output: <code>classes</code> (default) or <code>catalog</code>, the catalog is always written */
+    public static final String OUTPUT_PROPERTY = "xmlpg.entityTypes";
+
+    /** binary resource listing all entity types, read by generated class EntityTypeCatalog */
+    public static final String CATALOG_RESOURCE_NAME = "EntityTypeCatalog.bin";
+
+    private static final int CATALOG_MAGIC   = 0x44495345; // "DISE"
+    private static final int CATALOG_VERSION = 1;
+
+    private final boolean writeEntityClasses;
+    private final List<CatalogEntry> catalogEntries = new ArrayList<>();
+    private final Set<File> entityClassFiles = new HashSet<>(); // names taken, whether or not classes are written
+
+    /** One entity of the catalog */
+    private static class CatalogEntry
+    {
+      long   type;
+      int    uid;
+      String name;
+      String pkg;
+      String description;
+    }
 
     String entitytypecommonTemplate;
     String       uidfactoryTemplate;
+    String uidfactorycatalogTemplate;
+    String entitytypecatalogTemplate;
     String          licenseTemplate;
 
     class TypeClassData
@@ -66,6 +101,8 @@ public class GenerateEntityTypes
       private String entityDomainValue;
     //private String domainPrettyName;
       private String entityUid;
+      private long   entityType;        // packed, for catalog
+      private String entityDescription; // for catalog
     }
     
     private String        packageInfoPath;
@@ -91,6 +128,16 @@ public class GenerateEntityTypes
         System.out.println ("          packageName=" + GenerateEntityTypes.packageName);
         System.out.println ("  outputDirectoryPath=" + outputDirectoryPath);
         
+        String output = System.getProperty(OUTPUT_PROPERTY, "classes").trim().toLowerCase();
+        switch (output)
+        {
+            case "classes": writeEntityClasses = true;  break;
+            case "catalog": writeEntityClasses = false; break;
+            default:
+                throw new IllegalArgumentException(OUTPUT_PROPERTY + "=" + output + " is not one of classes or catalog");
+        }
+        System.out.println ("   entity type output=" + output);
+        
         outputDirectory  = new File(outputDirectoryPath);
         outputDirectory.mkdirs();
 //      FileUtils.cleanDirectory(outputDirectory); // do NOT clean directory, results can co-exist with other classes
@@ -99,10 +146,7 @@ public class GenerateEntityTypes
         packageInfoPath = outputDirectoryPath + "/" + "package-info.java";
         packageInfoFile = new File(packageInfoPath);
         
-        FileWriter packageInfoFileWriter;
         try {
-            packageInfoFile.createNewFile();
-            packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
             packageInfoBuilder = new StringBuilder();
             packageInfoBuilder.append("/**\n");
             packageInfoBuilder.append(" * The <code>entities</code>  packages provide a large number of autogenerated utility classes for world entities of interest.");
@@ -123,9 +167,7 @@ public class GenerateEntityTypes
             packageInfoBuilder.append("\n");
             packageInfoBuilder.append("package edu.nps.moves.dis7.entities;\n");
 
-            packageInfoFileWriter.write(packageInfoBuilder.toString());
-            packageInfoFileWriter.flush();
-            packageInfoFileWriter.close();
+            generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
             System.out.println("Created " + packageInfoPath);
         }
         catch (IOException ex) {
@@ -137,132 +179,73 @@ public class GenerateEntityTypes
         }
   }
 
-  Method methodPlatformDomainFromIntMethod;
-  Method methodPlatformDomainNameMethod;
-  Method methodPlatformDomainDescriptionMethod;
-  
-  Method countryFromIntMethod;
-  Method countryNameMethod;
-  Method countryDescriptionMethod;
-  
-  Method kindFromIntMethod;
-  Method kindNameMethod;
-  Method kindDescriptionMethod;
-
-  Method munitionDomainFromIntMethod;
-  Method munitionDomainNameMethod;
-  Method munitionDomainDescriptionMethod;
-  
-  Method supplyDomainFromIntMethod;
-  Method supplyDomainNameMethod;
-  Method supplyDomainDescriptionMethod;
-
-  // Don't put imports in code for this, needs to have enumerations built first; do it this way
-  // Update, this might now be unnecessary with the re-structuring of the projects
-  private void buildKindDomainCountryInstances()
-  {
-    Method[] ma;
-    try {
-      ma = getEnumMethods("edu.nps.moves.dis7.enumerations.PlatformDomain");
-      methodPlatformDomainFromIntMethod     = ma[FORVALUE];
-      methodPlatformDomainNameMethod        = ma[NAME];
-      methodPlatformDomainDescriptionMethod = ma[DESCRIPTION];
-
-      ma = getEnumMethods("edu.nps.moves.dis7.enumerations.Country");
-      countryFromIntMethod     = ma[FORVALUE];
-      countryNameMethod        = ma[NAME];
-      countryDescriptionMethod = ma[DESCRIPTION];
-
-      ma = getEnumMethods("edu.nps.moves.dis7.enumerations.EntityKind");
-      kindFromIntMethod     = ma[FORVALUE];
-      kindNameMethod        = ma[NAME];
-      kindDescriptionMethod = ma[DESCRIPTION];
-
-      ma = getEnumMethods("edu.nps.moves.dis7.enumerations.MunitionDomain");
-      munitionDomainFromIntMethod     = ma[FORVALUE];
-      munitionDomainNameMethod        = ma[NAME];
-      munitionDomainDescriptionMethod = ma[DESCRIPTION];
-
-      ma = getEnumMethods("edu.nps.moves.dis7.enumerations.SupplyDomain");
-      supplyDomainFromIntMethod     = ma[FORVALUE];
-      supplyDomainNameMethod        = ma[NAME];
-      supplyDomainDescriptionMethod = ma[DESCRIPTION];
-    }
-    catch (Exception ex) {
-      throw new RuntimeException(ex.getClass().getName() + ": " + ex.getLocalizedMessage());
-    }
-  }
-  private static final int FORVALUE = 0;
-  private static final int NAME = 1;
-  private static final int DESCRIPTION = 2;
-
-  private Method[] getEnumMethods(String className) throws Exception
+  /** SISO uids of enumerations used for entity type names and packages */
+  private static final String ENTITY_KIND_UID     = "7";
+  private static final String PLATFORM_DOMAIN_UID = "8";
+  private static final String MUNITION_DOMAIN_UID = "14";
+  private static final String COUNTRY_UID         = "29";
+  private static final String SUPPLY_DOMAIN_UID   = "600";
+
+  Map<Integer, EnumerationConstant> platformDomains;
+  Map<Integer, EnumerationConstant> countries;
+  Map<Integer, EnumerationConstant> kinds;
+  Map<Integer, EnumerationConstant> munitionDomains;
+  Map<Integer, EnumerationConstant> supplyDomains;
+
+  // Enumeration names and descriptions come from the shared SISO model, matching the generated enumeration classes
+  // without needing to compile and load them first
+  private void buildKindDomainCountryInstances(SisoReference reference) throws IOException
   {
-    Method[] ma = new Method[3];
-
-    Class<?> cls = Class.forName(className);
-    ma[FORVALUE] = cls.getDeclaredMethod("getEnumForValue", int.class);
-    ma[NAME] = cls.getMethod("name", (Class[]) null);
-    ma[DESCRIPTION] = cls.getDeclaredMethod("getDescription", (Class[]) null);
-
-    return ma;
+      platformDomains = GenerateEnumerations.getEnumerationConstants(reference, PLATFORM_DOMAIN_UID);
+      countries       = GenerateEnumerations.getEnumerationConstants(reference, COUNTRY_UID);
+      kinds           = GenerateEnumerations.getEnumerationConstants(reference, ENTITY_KIND_UID);
+      munitionDomains = GenerateEnumerations.getEnumerationConstants(reference, MUNITION_DOMAIN_UID);
+      supplyDomains   = GenerateEnumerations.getEnumerationConstants(reference, SUPPLY_DOMAIN_UID);
   }
 
-  String getDescription(Method enumGetter, Method descriptionGetter, int i) throws Exception
+  String getDescription(Map<Integer, EnumerationConstant> constants, int i)
   {
-      String result = "";
-      if ((enumGetter == null) || (descriptionGetter == null))
-          return result;
-      try 
-      {
-        Object enumObj = getEnum(enumGetter, i);
-        result = (String) descriptionGetter.invoke(enumObj, (Object[]) null);
-      }
-      catch (Exception e)
+      EnumerationConstant constant = constants.get(i);
+      if (constant == null)
       {
-          System.err.println (this.getClass().getName() + ".getDescription() exception:" + e);
+          System.err.println (this.getClass().getName() + ".getDescription() no enumeration constant for value " + i);
+          return "";
       }
-      return result;
+      return constant.getDescription();
   }
 
-  String getName(Method enumGetter, Method nameGetter, int i) throws Exception
+  String getName(Map<Integer, EnumerationConstant> constants, int i) throws Exception
   {
-      if (enumGetter == null)
-          return ""; // TODO fix
-    Object enumObj = getEnum(enumGetter, i);
-    return (String) nameGetter.invoke(enumObj, (Object[]) null);
+      EnumerationConstant constant = constants.get(i);
+      if (constant == null)
+          throw new IllegalArgumentException("no enumeration constant for value " + i);
+      return constant.getName();
   }
 
-  Object getEnum(Method enumGetter, int i) throws Exception
+  private void run() throws SAXException, IOException, ParserConfigurationException
   {
-    if (enumGetter == null)
+    if (generatedFiles.isUpToDate(List.of(new File(sisoXmlFile)), outputDirectoryPath, packageName)) // incremental mode only
     {
-        System.err.println ("NPE: getEnum (enumGetter == null, i=" + i + ")");
-        return null;
+        generatedFiles.awaitCompletion();
+        return;
     }
-    return enumGetter.invoke(null, i);
-  }
-
-  private void run() throws SAXException, IOException, ParserConfigurationException
-  {
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    factory.setValidating(false);
-    factory.setNamespaceAware(true);
-    factory.setXIncludeAware(true);
+    SisoReference reference = SisoReference.load(sisoXmlFile); // parsed once, shared with other generators
 
     loadTemplates();
-    buildKindDomainCountryInstances(); // TODO questionable invocation, now working...
+    buildKindDomainCountryInstances(reference);
     
     System.out.println("Generating entities:");
     MyHandler handler = new MyHandler();
-    factory.newSAXParser().parse(new File(sisoXmlFile), handler);
+    reference.replay(handler);
     
-    if(uid2ClassWriter != null) 
-    {
-       uid2ClassWriter.flush();
-       uid2ClassWriter.close();
-    }
+    if(uid2ClassBuilder != null) 
+       generatedFiles.write(new File(outputDirectory,"uid2EntityClass.properties"), uid2ClassBuilder.toString());
+    // catalog is written with or without entity classes, it provides reverse lookup from on-wire entity type
+    saveFile(outputDirectory, "EntityTypeCatalog.java", entitytypecatalogTemplate);
+    generatedFiles.write(new File(outputDirectory, CATALOG_RESOURCE_NAME), buildCatalog());
+    System.out.println (CATALOG_RESOURCE_NAME + " lists " + catalogEntries.size() + " entity types");
     saveUidFactory();
+    generatedFiles.awaitCompletion();
     System.out.println (GenerateEntityTypes.class.getName() + " complete."); // TODO  + handler.enums.size() + " enums created.");
   }
 
@@ -272,6 +255,8 @@ public class GenerateEntityTypes
       licenseTemplate          = loadOneTemplate("../pdus/dis7javalicense.txt");
       entitytypecommonTemplate = loadOneTemplate("entitytypecommon.txt");
       uidfactoryTemplate       = loadOneTemplate("uidfactory.txt");
+      uidfactorycatalogTemplate = loadOneTemplate("uidfactorycatalog.txt");
+      entitytypecatalogTemplate = loadOneTemplate("entitytypecatalog.txt");
     }
     catch (Exception ex) {
       throw new RuntimeException(ex);
@@ -285,7 +270,63 @@ public class GenerateEntityTypes
   
   private void saveUidFactory()
   {
-    saveFile(outputDirectory, "EntityTypeFactory.java",uidfactoryTemplate);
+    // without entity classes, the factory takes entity types from the catalog
+    saveFile(outputDirectory, "EntityTypeFactory.java", writeEntityClasses ? uidfactoryTemplate : uidfactorycatalogTemplate);
+  }
+
+  /**
+   * Binary catalog of all entity types, read by EntityTypeCatalog: header, string table,
+   * then one column per field in order of packed type, followed by entry indexes in order of uid and of name
+   */
+  private byte[] buildCatalog() throws IOException
+  {
+    catalogEntries.sort(Comparator.comparingLong((CatalogEntry entry) -> entry.type).thenComparingInt(entry -> entry.uid));
+    int size = catalogEntries.size();
+    Map<String, Integer> stringIndexes = new LinkedHashMap<>(); // each name, package and description stored once
+    int[][] columns = new int[3][size];
+    for (int i = 0; i < size; i++)
+    {
+      CatalogEntry entry = catalogEntries.get(i);
+      columns[0][i] = stringIndexes.computeIfAbsent(entry.name,        key -> stringIndexes.size());
+      columns[1][i] = stringIndexes.computeIfAbsent(entry.pkg,         key -> stringIndexes.size());
+      columns[2][i] = stringIndexes.computeIfAbsent(entry.description, key -> stringIndexes.size());
+    }
+    Integer[] uidOrder  = new Integer[size];
+    Integer[] nameOrder = new Integer[size];
+    for (int i = 0; i < size; i++)
+      uidOrder[i] = nameOrder[i] = i;
+    Arrays.sort(uidOrder,  Comparator.comparingInt(i -> catalogEntries.get(i).uid));
+    Arrays.sort(nameOrder, Comparator.comparing((Integer i) -> catalogEntries.get(i).name).thenComparing(i -> catalogEntries.get(i).pkg));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeInt(CATALOG_MAGIC);
+      out.writeInt(CATALOG_VERSION);
+      writeCatalogString(out, sisoSpecificationTitleDate);
+      out.writeInt(stringIndexes.size());
+      for (String value : stringIndexes.keySet())
+        writeCatalogString(out, value);
+      out.writeInt(size);
+      for (CatalogEntry entry : catalogEntries)
+        out.writeLong(entry.type);
+      for (CatalogEntry entry : catalogEntries)
+        out.writeInt(entry.uid);
+      for (int[] column : columns)
+        for (int value : column)
+          out.writeInt(value);
+      for (Integer i : uidOrder)
+        out.writeInt(i);
+      for (Integer i : nameOrder)
+        out.writeInt(i);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static void writeCatalogString(DataOutputStream out, String value) throws IOException
+  {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(utf8.length);
+    out.write(utf8);
   }
   
   class DescriptionElem
@@ -556,26 +597,22 @@ public class GenerateEntityTypes
     
     private void addToPropertiesFile(String pkg, String className, String uid)
     {
-      try {
-        if(uid2ClassWriter == null)
-          buildUid2ClassWriter();
-        uid2ClassWriter.write(uid+"="+pkg+"."+className);
-        uid2ClassWriter.newLine();
-      }
-      catch(IOException ex) {
-        throw new RuntimeException (ex);
-      }
-    }
-    
-    private void buildUid2ClassWriter() throws IOException
-    {
-      File f = new File(outputDirectory,"uid2EntityClass.properties");
-      f.createNewFile();
-      uid2ClassWriter = new BufferedWriter(new FileWriter(f));
+      if(uid2ClassBuilder == null)
+        uid2ClassBuilder = new StringBuilder();
+      uid2ClassBuilder.append(uid).append("=").append(pkg).append(".").append(className).append(System.lineSeparator());
     }
     
     private void saveEntityFile(TypeClassData data, String uid)
     {
+        CatalogEntry entry = new CatalogEntry();
+        entry.type        = data.entityType;
+        entry.uid         = Integer.parseInt(uid);
+        entry.name        = data.className;
+        entry.pkg         = data.pkg;
+        entry.description = data.entityDescription;
+        catalogEntries.add(entry);
+        if (!writeEntityClasses)
+            return;
         data.sb.append("    }\n");
         data.sb.append("    /** Create a new instance of this final (unmodifiable) class\n");
         data.sb.append("      * @return copy of class for use as data */\n");
@@ -590,12 +627,9 @@ public class GenerateEntityTypes
         packageInfoPath = data.directory + "/" + "package-info.java";
         File   packageInfoFile = new File(packageInfoPath);
       
-        if (!packageInfoFile.exists()) // write package-info.java during first time through
+        if (!generatedFiles.exists(packageInfoFile)) // write package-info.java during first time through
         {
-            FileWriter packageInfoFileWriter;
             try {
-                packageInfoFile.createNewFile();
-                packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
                 packageInfoBuilder = new StringBuilder();
                 packageInfoBuilder.append("/**\n");
                 if (!data.countryValue.isEmpty())
@@ -627,9 +661,7 @@ public class GenerateEntityTypes
                 packageInfoBuilder.append("\n");
                 packageInfoBuilder.append("package ").append(data.pkg).append(";\n");
 
-                packageInfoFileWriter.write(packageInfoBuilder.toString());
-                packageInfoFileWriter.flush();
-                packageInfoFileWriter.close();
+                generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
                 System.out.println("Created " + packageInfoPath);
             }
             catch (IOException ex) {
@@ -721,11 +753,12 @@ public class GenerateEntityTypes
     {
       TypeClassData data = d;
       if (data == null) {
-        data = buildEntityCommon(currentCategory.toString(), fixName(currentCategory),currentCategory.uid);
+        data = buildEntityCommon(currentCategory.description, fixName(currentCategory),currentCategory.uid);
       }
       appendStatement(currentCategory, "Category", data.sb);
 
       if (d == null) {
+        setCatalogFields(data, currentCategory, null, null, null);
         saveEntityFile(data,currentCategory.uid);
       }
     }
@@ -741,42 +774,69 @@ public class GenerateEntityTypes
           
       TypeClassData data = d;
       if (data == null) {
-        data = buildEntityCommon(currentSubCategory.toString(), fixName(currentSubCategory), currentSubCategory.uid);
+        data = buildEntityCommon(currentSubCategory.description, fixName(currentSubCategory), currentSubCategory.uid);
       }
       appendStatement(currentCategory,    "Category",    data.sb);
       appendStatement(currentSubCategory, "SubCategory", data.sb);
 
-      if (d == null)
+      if (d == null) {
+        setCatalogFields(data, currentCategory, currentSubCategory, null, null);
         saveEntityFile(data,currentSubCategory.uid);
+      }
     }
 
     private void writeSpecificFile(TypeClassData d)
     {
       TypeClassData data = d;
       if (data == null) {
-        data = buildEntityCommon(currentSpecific.toString(), fixName(currentSpecific),currentSpecific.uid);
+        data = buildEntityCommon(currentSpecific.description, fixName(currentSpecific),currentSpecific.uid);
       }
       appendStatement(currentCategory,    "Category",    data.sb);
       appendStatement(currentSubCategory, "SubCategory", data.sb);
       appendStatement(currentSpecific,    "Specific",    data.sb);
 
-      if (d == null)
+      if (d == null) {
+        setCatalogFields(data, currentCategory, currentSubCategory, currentSpecific, null);
         saveEntityFile(data,currentSpecific.uid);
+      }
     }
 
     private void writeExtraFile(TypeClassData d)
     {
       TypeClassData data = d;
       if (data == null) {
-        data = buildEntityCommon(currentExtra.toString(), fixName(currentExtra),currentExtra.uid);
+        data = buildEntityCommon(currentExtra.description, fixName(currentExtra),currentExtra.uid);
       }
       appendStatement(currentCategory,    "Category",    data.sb);
       appendStatement(currentSubCategory, "SubCategory", data.sb);
       appendStatement(currentSpecific,    "Specific",    data.sb);
       appendStatement(currentExtra,       "Extra",       data.sb);
 
-      if (d == null)
+      if (d == null) {
+        setCatalogFields(data, currentCategory, currentSubCategory, currentSpecific, currentExtra);
         saveEntityFile(data,currentExtra.uid);
+      }
+    }
+
+    /** packed entity type and description of deepest element, matching the setters of the entity class */
+    private void setCatalogFields(TypeClassData data, DescriptionElem category, DescriptionElem subCategory, DescriptionElem specific, DescriptionElem extra)
+    {
+      data.entityType = ((long)(Integer.parseInt(currentEntity.kind)    & 0xFF)   << 56) |
+                        ((long)(Integer.parseInt(currentEntity.domain)  & 0xFF)   << 48) |
+                        ((long)(Integer.parseInt(currentEntity.country) & 0xFFFF) << 32) |
+                        ((long)catalogValue(category)    << 24) |
+                        ((long)catalogValue(subCategory) << 16) |
+                        ((long)catalogValue(specific)    <<  8) |
+                         (long)catalogValue(extra);
+      DescriptionElem deepest = (extra != null) ? extra : (specific != null) ? specific : (subCategory != null) ? subCategory : category;
+      data.entityDescription = ((deepest == null) || (deepest.description == null)) ? "" : deepest.description;
+    }
+
+    private int catalogValue(DescriptionElem elem)
+    {
+      if ((elem == null) || (elem.value == null) || elem.value.isEmpty())
+        return 0;
+      return Integer.parseInt(elem.value.trim()) & 0xFF;
     }
 
     private TypeClassData buildEntityCommon(String fullName, String fixedName, String uid)
@@ -792,24 +852,27 @@ public class GenerateEntityTypes
         
         buildPackagePath(currentEntity, dataPacket);
         dataPacket.directory = new File(outputDirectory, dataPacket.sb.toString());
-        dataPacket.directory.mkdirs(); // ensure that directory exists
+        if (writeEntityClasses)
+            dataPacket.directory.mkdirs(); // ensure that directory exists
 
         // Protect against duplicate class names
         int i=1;
-        while(new File(dataPacket.directory,fixedName+".java").exists()){
+        while (entityClassFiles.contains(new File(dataPacket.directory,fixedName+".java")) ||
+               (writeEntityClasses && generatedFiles.exists(new File(dataPacket.directory,fixedName+".java")))){
           fixedName = fixedName+ i++;
         }
+        entityClassFiles.add(new File(dataPacket.directory,fixedName+".java"));
 //        System.err.println("fixedName.java=" + fixedName + ".java"); // debug trace
 
         String packagePath = packageName + "." + pathToPackage(dataPacket.sb.toString());
         int    countryInteger  = Integer.parseInt(currentEntity.country);
-        String countryName     = getName(countryFromIntMethod, countryNameMethod, countryInteger);
+        String countryName     = getName(countries, countryInteger);
 
         int entityDomainInteger = Integer.parseInt(currentEntity.domain);
         int entityKindInteger   = Integer.parseInt(currentEntity.kind);
 
-        String entityKindName        = getName(kindFromIntMethod, kindNameMethod, entityKindInteger);
-        String entityKindDescription = legalJavaDoc(getDescription(kindFromIntMethod, kindDescriptionMethod, entityKindInteger));
+        String entityKindName        = getName(kinds, entityKindInteger);
+        String entityKindDescription = legalJavaDoc(getDescription(kinds, entityKindInteger));
         
         String entityDomainName;
         String entityDomainDescription;
@@ -818,12 +881,12 @@ public class GenerateEntityTypes
           case "MUNITION":
             entityDomainName = "MunitionDomain";
             entityDomainDescription = "Munition Domain";
-            entityDomainValue = getName(munitionDomainFromIntMethod, munitionDomainNameMethod, entityDomainInteger);
+            entityDomainValue = getName(munitionDomains, entityDomainInteger);
             break;
           case "SUPPLY":
             entityDomainName = "SupplyDomain";
             entityDomainDescription = "Supply Domain";
-            entityDomainValue = getName(supplyDomainFromIntMethod, supplyDomainNameMethod, entityDomainInteger);
+            entityDomainValue = getName(supplyDomains, entityDomainInteger);
             break;
           case "OTHER":
           case "PLATFORM":
@@ -836,7 +899,7 @@ public class GenerateEntityTypes
           default:
             entityDomainName = "PlatformDomain";
             entityDomainDescription = "Platform Domain";
-            entityDomainValue = getName(methodPlatformDomainFromIntMethod, methodPlatformDomainNameMethod, entityDomainInteger);
+            entityDomainValue = getName(platformDomains, entityDomainInteger);
             break;
         }
 
@@ -856,7 +919,8 @@ public class GenerateEntityTypes
 
         dataPacket.sb.setLength(0);
 
-        appendCommonStatements(dataPacket);
+        if (writeEntityClasses) // class source is not needed for catalog
+            appendCommonStatements(dataPacket);
         return dataPacket;
       }
       catch (Exception ex) {
@@ -867,14 +931,8 @@ public class GenerateEntityTypes
 
   private void saveFile(File parentDir, String name, String contents)
   {
-    // save file
-    File target = new File(parentDir, name);
     try {
-      target.createNewFile();
-      try (FileWriter fw = new FileWriter(target, StandardCharsets.UTF_8)) {
-        fw.write(contents);
-        fw.flush();
-      }
+      generatedFiles.write(new File(parentDir, name), contents); // concurrently in parallel mode
     }
     catch (IOException ex) {
       throw new RuntimeException("Error saving " + name + ": " + ex.getLocalizedMessage(), ex);
@@ -963,7 +1021,7 @@ public class GenerateEntityTypes
 //         System.err.println("buildPackagePath data.sb 1: empty string");
 //    else System.err.println("buildPackagePath data.sb 1: " + data.sb.toString());
     
-    String countryDescription = GenerateEntityTypes.this.getDescription(countryFromIntMethod, countryDescriptionMethod, Integer.parseInt(ent.country));
+    String countryDescription = GenerateEntityTypes.this.getDescription(countries, Integer.parseInt(ent.country));
     if (countryDescription.isEmpty())
     {
         System.err.println(this.getClass().getName() + ".buildPackagePath() failure, no country description");
@@ -975,7 +1033,7 @@ public class GenerateEntityTypes
     data.sb.append("/");
 //    System.err.println("buildPackagePathdata.sb 2: " + data.sb.toString());
 
-    String kindname = getName(kindFromIntMethod, kindNameMethod, Integer.parseInt(ent.kind));
+    String kindname = getName(kinds, Integer.parseInt(ent.kind));
     kindname = buidKindOrDomainPackagePart(kindname);
     data.sb.append(buidKindOrDomainPackagePart(kindname));
     data.sb.append("/");
@@ -986,13 +1044,13 @@ public class GenerateEntityTypes
 
     switch (kindnamelc) {
       case "munition":
-        domainname = getName(munitionDomainFromIntMethod, munitionDomainNameMethod, Integer.parseInt(ent.domain));
+        domainname = getName(munitionDomains, Integer.parseInt(ent.domain));
         break;
       case "supply":
-        domainname = getName(supplyDomainFromIntMethod, supplyDomainNameMethod, Integer.parseInt(ent.domain));
+        domainname = getName(supplyDomains, Integer.parseInt(ent.domain));
         break;
       default:
-        domainname = getName(methodPlatformDomainFromIntMethod, methodPlatformDomainNameMethod, Integer.parseInt(ent.domain));
+        domainname = getName(platformDomains, Integer.parseInt(ent.domain));
         break;
     }
 
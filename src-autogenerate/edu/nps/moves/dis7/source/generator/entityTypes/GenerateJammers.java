@@ -5,15 +5,14 @@
 
 package edu.nps.moves.dis7.source.generator.entityTypes;
 
+import edu.nps.moves.dis7.source.generator.GeneratedFiles;
+import edu.nps.moves.dis7.source.generator.SisoReference;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -38,6 +37,9 @@ public class GenerateJammers
     private static String         sisoXmlFile = edu.nps.moves.dis7.source.generator.GenerateOpenDis7JavaPackages.DEFAULT_SISO_XML_FILE;
     private static String       sisoSpecificationTitleDate = "";
 
+    /** writes generated class files, concurrently in parallel mode */
+    private final GeneratedFiles generatedFiles = new GeneratedFiles("jammers");
+
     String jammertechniqueTemplate;
     String         licenseTemplate;
 
@@ -84,10 +86,7 @@ public class GenerateJammers
         packageInfoPath = outputDirectoryPath + "/" + "package-info.java";
         packageInfoFile = new File(packageInfoPath);
         
-        FileWriter packageInfoFileWriter;
         try {
-            packageInfoFile.createNewFile();
-            packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
             packageInfoBuilder = new StringBuilder();
             packageInfoBuilder.append("/**\n");
             packageInfoBuilder.append(" * Jammers type infrastructure classes for ").append(sisoSpecificationTitleDate).append(" enumerations.\n");
@@ -108,9 +107,7 @@ public class GenerateJammers
             packageInfoBuilder.append("\n");
             packageInfoBuilder.append("package edu.nps.moves.dis7.jammers;\n");
 
-            packageInfoFileWriter.write(packageInfoBuilder.toString());
-            packageInfoFileWriter.flush();
-            packageInfoFileWriter.close();
+            generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
             System.out.println("Created " + packageInfoPath);
         }
         catch (IOException ex) {
@@ -124,16 +121,19 @@ public class GenerateJammers
 
   private void run() throws SAXException, IOException, ParserConfigurationException
   {
-    SAXParserFactory factory = SAXParserFactory.newInstance();
-    factory.setValidating(false);
-    factory.setNamespaceAware(true);
-    factory.setXIncludeAware(true);
+    if (generatedFiles.isUpToDate(List.of(new File(sisoXmlFile)), outputDirectoryPath, packageName)) // incremental mode only
+    {
+        generatedFiles.awaitCompletion();
+        return;
+    }
+    SisoReference reference = SisoReference.load(sisoXmlFile); // parsed once, shared with other generators
 
     loadTemplates();
 
     //System.out.println("Generating jammers: ");
     MyHandler handler = new MyHandler();
-    factory.newSAXParser().parse(new File(sisoXmlFile), handler);
+    reference.replay(handler);
+    generatedFiles.awaitCompletion();
     System.out.println (GenerateJammers.class.getName() + " complete."); // TODO  + handler.enums.size() + " enums created.");
   }
 
@@ -318,12 +318,9 @@ public class GenerateJammers
         packageInfoPath = data.directory + "/" + "package-info.java";
         packageInfoFile = new File(packageInfoPath);
 
-        if (!packageInfoFile.exists()) // write package-info.java during first time through
+        if (!generatedFiles.exists(packageInfoFile)) // write package-info.java during first time through
         {
-            FileWriter packageInfoFileWriter;
             try {
-                packageInfoFile.createNewFile();
-                packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
                 packageInfoBuilder = new StringBuilder();
                 packageInfoBuilder.append("/**\n");
                 if (!data.countryNamePretty.isEmpty())
@@ -353,9 +350,7 @@ public class GenerateJammers
                 packageInfoBuilder.append("\n");
                 packageInfoBuilder.append("package ").append(data.pkg).append(";\n");
 
-                packageInfoFileWriter.write(packageInfoBuilder.toString());
-                packageInfoFileWriter.flush();
-                packageInfoFileWriter.close();
+                generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
                 System.out.println("Created " + packageInfoPath);
             }
             catch (IOException ex) {
@@ -450,7 +445,7 @@ public class GenerateJammers
 
         // Protect against duplicate class names
         int i = 1;
-        while (new File(data.directory, fixedName + ".java").exists()) {
+        while (generatedFiles.exists(new File(data.directory, fixedName + ".java"))) {
           fixedName = fixedName + i++;
         }
 
@@ -470,14 +465,8 @@ public class GenerateJammers
 
   private void saveFile(File parentDir, String name, String contents)
   {
-    // save file
-    File target = new File(parentDir, name);
     try {
-      target.createNewFile();
-      try (FileWriter fw = new FileWriter(target, StandardCharsets.UTF_8)) {
-        fw.write(contents);
-        fw.flush();
-      }
+      generatedFiles.write(new File(parentDir, name), contents); // concurrently in parallel mode
     }
     catch (IOException ex) {
       throw new RuntimeException("Error saving " + name + ": " + ex.getLocalizedMessage(), ex);
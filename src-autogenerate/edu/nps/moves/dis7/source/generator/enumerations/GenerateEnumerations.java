@@ -4,21 +4,21 @@
  */
 package edu.nps.moves.dis7.source.generator.enumerations;
 
+import edu.nps.moves.dis7.source.generator.GeneratedFiles;
+import edu.nps.moves.dis7.source.generator.SisoReference;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
@@ -46,6 +46,9 @@ public class GenerateEnumerations
     private Set<String> uidDoNotGenerate;
     private Map<String,String> uid2ExtraInterface;
 
+    /** writes enumeration class files, concurrently in parallel mode */
+    private final GeneratedFiles generatedFiles = new GeneratedFiles("enumerations");
+
     private String disenumpart1Template;
     private String disenumpart1withfootnoteTemplate;
     private String disenumcommentTemplate;
@@ -63,6 +66,7 @@ public class GenerateEnumerations
     private String disbitset15Template;
     private String disbitset16Template;
     private String disbitset2Template;
+    private String disbitset3Template;
     private String disbitsetcommentxrefTemplate;
     private String disbitsetcommentTemplate;
     private String licenseTemplate;
@@ -70,7 +74,7 @@ public class GenerateEnumerations
     private static String       sisoSpecificationTitleDate = "";
 
     // https://stackoverflow.com/questions/11883043/does-an-enum-class-containing-20001-enum-constants-hit-any-limit
-    final int MAX_ENUMERATIONS = 2000;
+    static final int MAX_ENUMERATIONS = 2000;
 
     private int additionalEnumClassesCreated = 0;
     
@@ -104,10 +108,7 @@ public class GenerateEnumerations
         packageInfoPath = outputDirectoryPath + "/" + "package-info.java";
         packageInfoFile = new File(packageInfoPath);
         
-        FileWriter packageInfoFileWriter;
         try {
-            packageInfoFile.createNewFile();
-            packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
             packageInfoBuilder = new StringBuilder();
             packageInfoBuilder.append("/**\n");
             packageInfoBuilder.append(" * Enumeration type infrastructure classes for ").append(sisoSpecificationTitleDate).append(" enumerations supporting <a href=\"https://github.com/open-dis/open-dis7-java\" target=\"open-dis7-java\">open-dis7-java</a> library.\n");
@@ -126,9 +127,7 @@ public class GenerateEnumerations
             packageInfoBuilder.append("\n");
             packageInfoBuilder.append("package edu.nps.moves.dis7.enumerations;\n");
 
-            packageInfoFileWriter.write(packageInfoBuilder.toString());
-            packageInfoFileWriter.flush();
-            packageInfoFileWriter.close();
+            generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
             System.out.println("Created " + packageInfoPath);
         }
         catch (IOException ex) {
@@ -142,6 +141,11 @@ public class GenerateEnumerations
 
     private void run() throws SAXException, IOException, ParserConfigurationException
     {
+        if (generatedFiles.isUpToDate(List.of(new File(sisoXmlFile)), outputDirectoryPath, packageName)) // incremental mode only
+        {
+            generatedFiles.awaitCompletion();
+            return;
+        }
         // Manual:
         uid2ClassName = new Properties();
         uid2ClassName.load(getClass().getResourceAsStream("Uid2ClassName.properties"));
@@ -180,17 +184,14 @@ public class GenerateEnumerations
             System.out.println(ent.getKey() + " " + ent.getValue());
         }
          */
-        File xmlFile = new File(sisoXmlFile);
-        SAXParserFactory factory = SAXParserFactory.newInstance();
-        factory.setValidating(false);
-        factory.setNamespaceAware(true);
-        factory.setXIncludeAware(true);
+        SisoReference reference = SisoReference.load(sisoXmlFile); // parsed once, shared with other generators
         System.out.println("Begin uid preprocess...");
-        factory.newSAXParser().parse(xmlFile,new UidCollector());
+        reference.replay(new UidCollector());
 
         System.out.println("Begin enumeration generation...");
         MyHandler handler = new MyHandler();
-        factory.newSAXParser().parse(xmlFile, handler); // apparently can't reuse xmlFile
+        reference.replay(handler);
+        generatedFiles.awaitCompletion();
 
         System.out.println (GenerateEnumerations.class.getName() + " complete, " + (handler.enums.size() + additionalEnumClassesCreated) + " enum classes created.");
     }
@@ -259,6 +260,7 @@ public class GenerateEnumerations
             disbitset15Template                = loadOneTemplate("disbitset15.txt");
             disbitset16Template                = loadOneTemplate("disbitset16.txt");
             disbitset2Template                 = loadOneTemplate("disbitset2.txt");
+            disbitset3Template                 = loadOneTemplate("disbitset3.txt");
             disbitsetcommentxrefTemplate       = loadOneTemplate("disbitsetcommentxref.txt");
             disbitsetcommentTemplate           = loadOneTemplate("disbitsetcomment.txt");
             licenseTemplate                    = loadOneTemplate("../pdus/dis7javalicense.txt");
@@ -409,17 +411,7 @@ public class GenerateEnumerations
                 case "meta":
                     if (currentEnum == null)
                         break;
-                    if ((currentEnumRow.description == null) || currentEnumRow.description.isEmpty())
-                    {
-                        String   key = attributes.getValue("key");
-                        String value = attributes.getValue("value");
-                        if (key != null)
-                            currentEnumRow.description = key.toUpperCase() + "_";
-                        if (value != null)
-                            currentEnumRow.description += value;
-                        if (currentEnumRow.description != null)
-                            currentEnumRow.description = normalizeDescription(currentEnumRow.description);
-                    }
+                    currentEnumRow.description = metaDescription(currentEnumRow.description, attributes.getValue("key"), attributes.getValue("value"));
                     break;
 
                 case "enumrow":
@@ -619,13 +611,8 @@ public class GenerateEnumerations
             // save file
             File targetFile = new File(outputDirectory, classNameCorrected + ".java");
             targetFile.getParentFile().mkdirs();
-            FileWriter targetFileWriter;
             try {
-                targetFile.createNewFile();
-                targetFileWriter = new FileWriter(targetFile, StandardCharsets.UTF_8);
-                targetFileWriter.write(sb.toString());
-                targetFileWriter.flush();
-                targetFileWriter.close();
+                generatedFiles.write(targetFile, sb.toString());
             }
             catch (IOException ex) {
                 System.out.flush();
@@ -670,6 +657,9 @@ public class GenerateEnumerations
                 System.out.println ("*** Enumerations class " + packageName + classNameCorrected + " has " + el.elems.size() +
                     ", possibly too large, limiting size to " + MAX_ENUMERATIONS);
             }
+            StringBuilder accessors = new StringBuilder();
+            Set<String> accessorNames = new HashSet<>(BITFIELD_RESERVED_ACCESSOR_NAMES);
+            String bitfieldClassName = classNameCorrected; // effectively final for lambda
             el.elems.forEach((row) -> {
                 String xrefName = null;
                 if (row.xrefclassuid != null)
@@ -678,36 +668,38 @@ public class GenerateEnumerations
                 if  (Integer.parseInt(row.length) == 1)
                      bitsType = "boolean";
                 else bitsType = "length=" + row.length;
+                String constantName = createEnumName(row.name);
                 if (xrefName != null) {
                     sb.append(String.format(disbitsetcommentxrefTemplate, 
                         "bit position " + row.bitposition + ", " + bitsType,
                         htmlize((row.description==null?"":normalizeDescription(row.description)+", ")),xrefName));
                     sb.append(String.format(disbitset16Template, 
-                        createEnumName(row.name), row.bitposition, row.length, xrefName));
+                        constantName, row.bitposition, row.length, xrefName));
                 }
                 else {
                     if(row.description != null)
                         sb.append(String.format(disbitsetcommentTemplate,
                             "bit position " + row.bitposition + ", " + bitsType, 
                             (htmlize(normalizeDescription(row.description)))));
-                    sb.append(String.format(disbitset15Template, createEnumName(row.name), row.bitposition, row.length));
+                    sb.append(String.format(disbitset15Template, constantName, row.bitposition, row.length));
                 }
+                // shift and mask accessor per Bits constant, unless name collides with an inherited method
+                String accessorName = bitfieldAccessorName(constantName);
+                if (accessorNames.add(accessorName))
+                    accessors.append(String.format(disbitset3Template,
+                        constantName, accessorName, row.bitposition, row.length, bitfieldClassName));
             });
             if (!el.elems.isEmpty())
                 sb.setLength(sb.length() - 2);
             sb.append(";\n");
+            sb.append(accessors);
 
             sb.append(String.format(disbitset2Template, classNameCorrected, el.size, classNameCorrected, classNameCorrected, classNameCorrected, classNameCorrected, classNameCorrected));
 
             // save file
             File targetFile = new File(outputDirectory, classNameCorrected + ".java");
-            FileWriter targetFileWriter;
             try {
-                targetFile.createNewFile();
-                targetFileWriter = new FileWriter(targetFile, StandardCharsets.UTF_8);
-                targetFileWriter.write(sb.toString());
-                targetFileWriter.flush();
-                targetFileWriter.close();
+                generatedFiles.write(targetFile, sb.toString());
             }
             catch (IOException ex) {
                 System.out.flush();
@@ -822,13 +814,7 @@ public class GenerateEnumerations
                 }
                 // continue with original or reduced list
                 el.elems.forEach((row) -> {                    
-                    // Check for aliases
-                    if(aliases != null && aliases.getProperty(row.value)!=null)
-                      writeOneEnum(sb,row,aliases.getProperty(row.value));
-                    else {
-                      String enumName = createEnumName(normalizeDescription(row.description));
-                      writeOneEnum(sb, row, enumName);
-                    }
+                    writeOneEnum(sb, row, enumConstantName(row)); // checks for aliases
                   /*  if(row.xrefclassuid != null)
                         xrefName=uidClassNames.get(row.xrefclassuid);
                     
@@ -870,7 +856,7 @@ public class GenerateEnumerations
             if (el.size == null)
                 el.size = "8";
 
-            sb.append(String.format(disenumpart25Template, classNameCorrected, el.size, classNameCorrected, classNameCorrected, classNameCorrected, classNameCorrected));
+            sb.append(String.format(disenumpart25Template, classNameCorrected, el.size, classNameCorrected, classNameCorrected, classNameCorrected));
 
             // footer section
             // Many enums come in with smaller bit widths or in-between bitwidths;  Leave handling the odd balls up to the user 
@@ -885,13 +871,8 @@ public class GenerateEnumerations
 
             // save file
             File targetFile = new File(outputDirectory, classNameCorrected + ".java");
-            FileWriter targetFileWriter;
             try {
-                targetFile.createNewFile();
-                targetFileWriter = new FileWriter(targetFile, StandardCharsets.UTF_8);
-                targetFileWriter.write(sb.toString());
-                targetFileWriter.flush();
-                targetFileWriter.close();
+                generatedFiles.write(targetFile, sb.toString());
             }
             catch (IOException ex) {
                 System.out.flush();
@@ -907,18 +888,12 @@ public class GenerateEnumerations
             {
 //            additionalRowElements.elems.forEach((row) -> {
 
-                // Check for aliases
-                if(aliases != null && aliases.getProperty(row.value)!=null)
-                  writeOneEnum(additionalRowStringBuilder,row,aliases.getProperty(row.value));
-                else {
-                  String enumName = createEnumName(normalizeDescription(row.description));
-                  writeOneEnum(additionalRowStringBuilder, row, enumName);
-                }
+                writeOneEnum(additionalRowStringBuilder, row, enumConstantName(row)); // checks for aliases
             } /* ); */
             additionalRowStringBuilder.setLength(additionalRowStringBuilder.length() - 2);
             additionalRowStringBuilder.append("; /*here*/\n");
 
-            additionalRowStringBuilder.append(String.format(disenumpart25Template, classNameCorrected, el.size, classNameCorrected, classNameCorrected, classNameCorrected, classNameCorrected));
+            additionalRowStringBuilder.append(String.format(disenumpart25Template, classNameCorrected, el.size, classNameCorrected, classNameCorrected, classNameCorrected));
 
             // footer section
             // Many enums come in with smaller bit widths or in-between bitwidths;  Leave handling the odd balls up to the user
@@ -934,11 +909,7 @@ public class GenerateEnumerations
             // save file
             targetFile = new File(outputDirectory, classNameCorrected + ".java"); // already appended ADDITIONAL_ENUMERATION_FILE_SUFFIX
             try {
-                targetFile.createNewFile();
-                targetFileWriter = new FileWriter(targetFile, StandardCharsets.UTF_8);
-                targetFileWriter.write(additionalRowStringBuilder.toString());
-                targetFileWriter.flush();
-                targetFileWriter.close();
+                generatedFiles.write(targetFile, additionalRowStringBuilder.toString());
                 System.out.flush();
                 System.err.println ("*** Created additional-enumerations file, "
                                     + "classNameCorrected=" + classNameCorrected
@@ -963,6 +934,17 @@ public class GenerateEnumerations
     }
         
         
+      /**
+       * Constant name for one enumeration row, as computed by {@link GenerateEnumerations#enumConstantName(String, String, boolean, Properties, Set)}
+       * @param row enumeration row of interest
+       * @return constant name, registered in enumNames
+       */
+      private String enumConstantName(EnumRowElem row)
+      {
+        boolean hasXref = (row.xrefclassuid != null) && (uidClassNames.get(row.xrefclassuid) != null);
+        return GenerateEnumerations.enumConstantName(row.value, row.description, hasXref, aliases, enumNames);
+      }
+
       private void writeOneEnum(StringBuilder sb, EnumRowElem row, String enumName)
       {
         String xrefName = null;
@@ -972,51 +954,38 @@ public class GenerateEnumerations
         if (xrefName == null) {
           sb.append(String.format(disenumfootnotecommentTemplate, htmlize(normalizeDescription(row.description)) + (row.footnote == null ? "" : ", " + htmlize(normalizeDescription(row.footnote)))));
           sb.append(String.format(disenumpart2Template, 
-                    normalizeToken(enumName.replaceAll("%","_PERCENT")), // fix enumeration name
+                    enumName,
                     row.value, 
                     normalizeDescription(row.description)));
         }
         else {
           sb.append(String.format(disenumcommentTemplate, xrefName));
-          sb.append(String.format(disenumpart21Template, createEnumName(normalizeDescription(row.description)), row.value, normalizeDescription(row.description), xrefName));
+          sb.append(String.format(disenumpart21Template, enumName, row.value, normalizeDescription(row.description), xrefName));
         }
       }
-        /**
-         * Naming conventions for enumeration names
-         * @param s enumeration string from XML data file
-         * @return normalized name
-         */
+
         private String createEnumName(String s)
         {
-            String r = s.toUpperCase();
-            // Convert any of these chars to underbar (u2013 is a hyphen observed in source XML):
-            r = r.replaceAll("[\\h-/,\";:\\u2013]", "_");
-
-            // Remove any of these chars (u2019 is an apostrophe observed in source XML):
-            r = r.replaceAll("[()}{}'.#&\\u2019]", "");
-
-            // Special case the plus character:
-            r = r.replace("+", "PLUS");
-
-            // Collapse all contiguous underbars:
-            r = r.replaceAll("_{2,}", "_");
-
-            // If there's nothing there, put in something:
-            if (r.isEmpty() || r.equals("_"))
-                r = "undef";
+            return GenerateEnumerations.createEnumName(s, enumNames);
+        }
 
-            // Java identifier can't start with digit
-            if (Character.isDigit(r.charAt(0)))
-                r = "_" + r; // originally "$"
+        /** Methods inherited by generated bit field classes, which per-field accessors must not override */
+        private static final Set<String> BITFIELD_RESERVED_ACCESSOR_NAMES = Set.of("Class", "MarshalledSize", "BitValue");
 
-            // Handle multiply defined entries in the XML by appending a digit:
-            String origR = r;
-            int count = 2;
-            while (enumNames.contains(r)) {
-                r = origR + "_" + Integer.toString(count++);
+        /**
+         * Convert a bit field constant name to an accessor name suffix, for example PAINT_SCHEME becomes PaintScheme
+         * @param constantName upper-case constant name
+         * @return accessor name suffix
+         */
+        private String bitfieldAccessorName(String constantName)
+        {
+            StringBuilder sb = new StringBuilder();
+            for (String part : constantName.split("_"))
+            {
+                if (!part.isEmpty())
+                    sb.append(firstCharUpper(part));
             }
-            enumNames.add(r);
-            return r;
+            return sb.toString();
         }
 
         private String firstCharUpper(String s)
@@ -1057,6 +1026,163 @@ public class GenerateEnumerations
         }
     }
 
+    /**
+     * Naming conventions for enumeration names
+     * @param s enumeration string from XML data file
+     * @param enumNames names already used in this enumeration, updated with the result
+     * @return normalized name
+     */
+    private static String createEnumName(String s, Set<String> enumNames)
+    {
+        String r = s.toUpperCase();
+        // Convert any of these chars to underbar (u2013 is a hyphen observed in source XML):
+        r = r.replaceAll("[\\h-/,\";:\\u2013]", "_");
+
+        // Remove any of these chars (u2019 is an apostrophe observed in source XML):
+        r = r.replaceAll("[()}{}'.#&\\u2019]", "");
+
+        // Special case the plus character:
+        r = r.replace("+", "PLUS");
+
+        // Collapse all contiguous underbars:
+        r = r.replaceAll("_{2,}", "_");
+
+        // If there's nothing there, put in something:
+        if (r.isEmpty() || r.equals("_"))
+            r = "undef";
+
+        // Java identifier can't start with digit
+        if (Character.isDigit(r.charAt(0)))
+            r = "_" + r; // originally "$"
+
+        // Handle multiply defined entries in the XML by appending a digit:
+        String origR = r;
+        int count = 2;
+        while (enumNames.contains(r)) {
+            r = origR + "_" + Integer.toString(count++);
+        }
+        enumNames.add(r);
+        return r;
+    }
+
+    /**
+     * Constant name for one enumeration row, shared by generated enumeration classes and by other generators referring
+     * to them.  Calls must be made in row order with the same enumNames set, since duplicate names get numeric suffixes.
+     * @param value row value
+     * @param description normalized row description
+     * @param hasXref whether the row refers to another generated enumeration class
+     * @param aliases constant names by value replacing descriptions, or null
+     * @param enumNames names already used in this enumeration, updated with the result
+     * @return constant name
+     */
+    private static String enumConstantName(String value, String description, boolean hasXref, Properties aliases, Set<String> enumNames)
+    {
+        String enumName;
+        if ((aliases != null) && (aliases.getProperty(value) != null))
+             enumName = aliases.getProperty(value);
+        else enumName = createEnumName(normalizeDescription(description), enumNames);
+        if (hasXref)
+            return createEnumName(normalizeDescription(description), enumNames); // xref rows are always named by description
+        return normalizeToken(enumName.replaceAll("%","_PERCENT")); // fix enumeration name
+    }
+
+    /** Constant of a generated enumeration class, as provided by {@link #getEnumerationConstants(SisoReference, String)} */
+    public static final class EnumerationConstant
+    {
+        private final String name;
+        private final String description;
+
+        EnumerationConstant(String name, String description)
+        {
+            this.name        = name;
+            this.description = description;
+        }
+
+        /** @return constant name, matching name() of the generated enumeration */
+        public String getName()
+        {
+            return name;
+        }
+
+        /** @return description, matching getDescription() of the generated enumeration */
+        public String getDescription()
+        {
+            return description;
+        }
+    }
+
+    /**
+     * Constants of one generated enumeration class by value, computed from the SISO reference exactly as when generating
+     * that class, so that other generators can use enumeration names without compiling and loading the generated classes.
+     * As with getEnumForValue() of the generated class, the first constant of a repeated value wins and rows moved to an
+     * additional class are not included.
+     * @param reference shared SISO-REF-010 model
+     * @param uid SISO uid of the enumeration
+     * @return constants by value in row order, empty if no such enumeration
+     * @throws IOException if alias properties cannot be loaded
+     */
+    public static Map<Integer, EnumerationConstant> getEnumerationConstants(SisoReference reference, String uid) throws IOException
+    {
+        Properties uid4aliases = new Properties();
+        uid4aliases.load(GenerateEnumerations.class.getResourceAsStream("uid4aliases.properties"));
+
+        SisoReference.Element enumeration = null;
+        Properties aliases = null;
+        for (SisoReference.Element element : reference.getElements("enum"))
+        {
+            if ("4".equals(element.getAttribute("uid")))
+                aliases = uid4aliases; // as in MyHandler, uid 4 aliases remain in effect for subsequent enumerations
+            if (uid.equals(element.getAttribute("uid")))
+            {
+                enumeration = element;
+                break;
+            }
+        }
+        Map<Integer, EnumerationConstant> constants = new LinkedHashMap<>();
+        if (enumeration == null)
+            return constants;
+
+        Set<String> enumNames = new HashSet<>();
+        List<SisoReference.Element> rows = enumeration.getDescendants("enumrow");
+        for (SisoReference.Element row : rows.subList(0, Math.min(rows.size(), MAX_ENUMERATIONS)))
+        {
+            String description = row.getAttribute("description");
+            if (description != null)
+                description = normalizeDescription(description);
+            for (SisoReference.Element meta : row.getDescendants("meta"))
+                description = metaDescription(description, meta.getAttribute("key"), meta.getAttribute("value"));
+            String value = row.getAttribute("value");
+            if (value.equals("2147483648"))
+                value = "2147483647";
+            String xref = row.getAttribute("xref");
+            boolean hasXref = (xref != null) && (reference.getElementByUid(xref) != null);
+
+            String name = enumConstantName(value, description, hasXref, aliases, enumNames);
+            constants.putIfAbsent(Integer.valueOf(value), new EnumerationConstant(name, normalizeDescription(description)));
+        }
+        return constants;
+    }
+
+    /**
+     * Row description from meta element key and value, used when an enumeration row has no description
+     * @param description current row description, possibly null or empty
+     * @param key meta key attribute, possibly null
+     * @param value meta value attribute, possibly null
+     * @return revised description
+     */
+    private static String metaDescription(String description, String key, String value)
+    {
+        if ((description != null) && !description.isEmpty())
+            return description;
+        if (key != null)
+            description = key.toUpperCase() + "_";
+        if (value != null)
+            description += value;
+        if (description != null)
+            description = normalizeDescription(description);
+        return description;
+    }
+
     /** Command-line or solo invocation to run this object
      * @param args three configuration arguments, if defaults not used
      */
@@ -4,6 +4,7 @@
  */
 package edu.nps.moves.dis7.source.generator.pdus;
 
+import edu.nps.moves.dis7.source.generator.GeneratedFiles;
 import edu.nps.moves.dis7.source.generator.pdus.GeneratedClassAttribute.ClassAttributeType;
 import java.io.*;
 import java.util.*;
@@ -52,12 +53,14 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
     /** String constant */ public static final String NAME = "name";
     /** String constant */ public static final String CLASSREF = "classref";
     /** String constant */ public static final String COUNTFIELDNAME = "countfieldname";
+    /** String constant */ public static final String BITCOUNTFIELDNAME = "bitcountfieldname";
     /** String constant */ public static final String TYPE = "type";
     /** String constant */ public static final String DEFAULTVALUE = "defaultvalue";
     /** String constant */ public static final String PRIMITIVE = "primitive";
     /** String constant */ public static final String PRIMITIVELIST = "primitivelist";
     /** String constant */ public static final String OBJECTLIST = "objectlist";
     /** String constant */ public static final String LENGTH = "length";
+    /** String constant */ public static final String SIZE = "size";
     /** String constant */ public static final String FIXEDLENGTH = "fixedlength";
     /** String constant */ public static final String COULDBESTRING = "couldbestring";
     /** String constant */ public static final String TRUE = "true";
@@ -155,6 +158,21 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
      */
     public GeneratePdusForGivenLanguage(String xmlDescriptionFileName, String languageToGenerate)
     {       
+        GeneratedFiles javaGeneratedFiles = new GeneratedFiles("pdus");
+        try {
+            // description file includes its sibling XML files, any of which may change
+            File[] xmlFiles = new File(xmlDescriptionFileName).getAbsoluteFile().getParentFile().listFiles((dir, name) -> name.endsWith(".xml"));
+            if (languageToGenerate.equalsIgnoreCase(JAVA) && (xmlFiles != null) &&
+                javaGeneratedFiles.isUpToDate(new TreeSet<>(Arrays.asList(xmlFiles)), xmlDescriptionFileName, languageToGenerate)) // incremental mode only
+            {
+                javaGeneratedFiles.awaitCompletion();
+                return;
+            }
+        }
+        catch (IOException e) {
+            System.out.println(e);
+        }
+
         try {
             DefaultHandler handler = new MyHandler();
 
@@ -179,7 +197,7 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
         switch (languageToGenerate.toLowerCase()) {
             case JAVA:
                 // System.out.println("putting java files in " + javaDirectory);
-                JavaGenerator javaGenerator = new JavaGenerator(generatedClassNames, javaProperties);
+                JavaGenerator javaGenerator = new JavaGenerator(generatedClassNames, javaProperties, javaGeneratedFiles);
                 javaGenerator.writeClasses();
                 break;
 
@@ -736,6 +754,8 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
                 currentClassAttribute.setAttributeKind(GeneratedClassAttribute.ClassAttributeType.SISO_BITFIELD);
                 currentClassAttribute.setUnderlyingTypeIsPrimitive(false);
             }
+            else
+                currentClassAttribute.setUnderlyingTypeIsBitfield(true);
 
             for (int idx = 0; idx < attributes.getLength(); idx++) {
                 String nm = attributes.getQName(idx);
@@ -750,6 +770,9 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
                     case DEFAULTVALUE:
                         currentClassAttribute.setDefaultValue(attributes.getValue(idx));
                         break;
+                    case SIZE: // bit width of bitfield
+                        currentClassAttribute.setEnumMarshalSize(attributes.getValue(idx));
+                        break;
                 }
             }
         }
@@ -870,6 +893,11 @@ public class GeneratePdusForGivenLanguage  // TODO rename? perhaps GeneratePdusB
                     backReferenceCountField(attributes, currentGeneratedClass.getClassAttributes(), idx, currentClassAttribute.getAttributeKind());
                     break;
 
+                case BITCOUNTFIELDNAME: // count field holds length in bits, e.g. VariableDatum
+                    currentClassAttribute.setCountFieldName(attributes.getValue(idx));
+                    currentClassAttribute.setCountFieldIsBitCount(true);
+                    break;
+
                 default:
                     currentClassAttribute.setListLength(0); //Apr8
                     break;
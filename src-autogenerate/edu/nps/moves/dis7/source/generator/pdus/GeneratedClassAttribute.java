@@ -78,6 +78,9 @@ public class GeneratedClassAttribute // TODO consider refactor renaming as Gener
      * to unmarshal. This is the name of the field that contains that count.
      */
     protected String countFieldName;
+
+    /** Whether the count field holds a number of bits (bitCountFieldName) rather than a number of list elements */
+    protected boolean countFieldIsBitCount = false;
     
     /** 
      * Which of list or array is it
@@ -110,6 +113,9 @@ public class GeneratedClassAttribute // TODO consider refactor renaming as Gener
      * consists of primitives
      */    
     protected boolean underlyingTypeIsEnum = false;
+
+    /** If this is a list of some sort, this is true if the list consists of SISO bitfields */
+    protected boolean underlyingTypeIsBitfield = false;
     
     
     /** Some fields, such as Marking, could have arrays that are treated a C strings. At least on the set
@@ -290,6 +296,24 @@ public class GeneratedClassAttribute // TODO consider refactor renaming as Gener
         countFieldName = pFieldName;
     }
     
+    /**
+     * set whether count field holds a number of bits rather than a number of list elements
+     * @param flag whether count field holds a number of bits
+     */
+    public void setCountFieldIsBitCount(boolean flag)
+    {
+        countFieldIsBitCount = flag;
+    }
+
+    /**
+     * whether count field holds a number of bits rather than a number of list elements
+     * @return whether count field holds a number of bits
+     */
+    public boolean getCountFieldIsBitCount()
+    {
+        return countFieldIsBitCount;
+    }
+    
     /** 
      * Returns true if 1) this is a list,  either fixed or variable, and 2) contains a class
      * @return whether list contains a class
@@ -356,6 +380,24 @@ public class GeneratedClassAttribute // TODO consider refactor renaming as Gener
         return underlyingTypeIsEnum;
     }
     
+   /**
+     * sets true if the underlying type of a list is a SISO bitfield
+     * @param newValue of interest
+     */
+    public void setUnderlyingTypeIsBitfield(boolean newValue)
+    {
+        underlyingTypeIsBitfield = newValue;
+    }
+    
+    /**
+     * returns true if this is a list and the underlying type is a SISO bitfield
+     * @return value of interest
+     */
+    public boolean getUnderlyingTypeIsBitfield()
+    {
+        return underlyingTypeIsBitfield;
+    }
+    
     /**
      * whether attribute could be string
      * @return whether attribute could be string
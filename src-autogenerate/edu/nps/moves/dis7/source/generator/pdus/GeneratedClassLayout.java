@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.source.generator.pdus;
+
+import edu.nps.moves.dis7.source.generator.pdus.GeneratedClassAttribute.ClassAttributeType;
+import java.util.*;
+
+/**
+ * Serialized (wire) layout of one generated class, computed from the XML model.
+ * All serialized attributes of the class and its superclasses are listed in marshalling order.
+ * Each field records whether its byte offset from the start of the record is fixed, and whether its size is fixed,
+ * so that generated code can use constants where possible and walk variable-length data only where necessary.
+ * Sizes of SISO enumerations are not part of the DIS XML, so they are expressed symbolically
+ * through the static getEnumMarshalledSize() method of each generated enumeration,
+ * and sizes of fixed-size records through the FIXED_SIZE constant of each generated class.
+ */
+public class GeneratedClassLayout
+{
+    /** Classes removed from the XML model by GeneratePdusForGivenLanguage and hand-written elsewhere,
+     *  each marshalled as a single unsigned byte */
+    public static final Set<String> EXTERNAL_BYTE_RECORDS = Set.of("Domain", "PduStatus");
+
+    /** One serialized attribute in wire order */
+    public static class Field
+    {
+        /** attribute of interest */
+        GeneratedClassAttribute attribute;
+        /** class declaring the attribute, possibly a superclass */
+        GeneratedClass declaringClass;
+        /** whether offset from start of record is known without reading the record */
+        boolean fixedOffset;
+        /** Java expression for field size in bytes, null if size varies */
+        String sizeExpression;
+        /** Java expression for list element size in bytes, null if not a list or if element size varies */
+        String elementSizeExpression;
+        /** whether this attribute is one of the external single-byte records */
+        boolean externalByteRecord = false;
+        /** whether list count field holds a number of bits rather than a number of elements */
+        boolean countInBits = false;
+        /** unique name within layout, equal to attribute name unless a superclass attribute has the same name */
+        String name;
+        /** upper-case prefix for generated constants */
+        String constantPrefix;
+
+        /** @return attribute of interest */
+        public GeneratedClassAttribute getAttribute()      { return attribute; }
+        /** @return class declaring the attribute */
+        public GeneratedClass getDeclaringClass()          { return declaringClass; }
+        /** @return whether offset from start of record is fixed */
+        public boolean isFixedOffset()                     { return fixedOffset; }
+        /** @return whether size is fixed */
+        public boolean isFixedSize()                       { return sizeExpression != null; }
+        /** @return Java expression for size in bytes, null if size varies */
+        public String getSizeExpression()                  { return sizeExpression; }
+        /** @return Java expression for list element size in bytes, null if element size varies */
+        public String getElementSizeExpression()           { return elementSizeExpression; }
+        /** @return whether attribute is an external single-byte record */
+        public boolean isExternalByteRecord()              { return externalByteRecord; }
+        /** @return whether list count field holds a number of bits */
+        public boolean isCountInBits()                     { return countInBits; }
+        /** @return unique name within layout, for example padding2 when a superclass also declares padding */
+        public String getName()                            { return name; }
+        /** @return upper-case prefix for generated constants, for example ENTITY_ID */
+        public String getConstantPrefix()                  { return constantPrefix; }
+    }
+
+    private final GeneratedClass generatedClass;
+    private final List<Field> fields = new ArrayList<>();
+    private boolean fixedSize = true;
+    private boolean pduDescendant = false;
+    private String unresolvedType = null;
+
+    private GeneratedClassLayout(GeneratedClass generatedClass)
+    {
+        this.generatedClass = generatedClass;
+    }
+
+    /** @return class of interest */
+    public GeneratedClass getGeneratedClass()
+    {
+        return generatedClass;
+    }
+
+    /** @return serialized attributes of class and superclasses in wire order */
+    public List<Field> getFields()
+    {
+        return fields;
+    }
+
+    /** @return whether every instance of this class marshals to the same number of bytes */
+    public boolean isFixedSize()
+    {
+        return fixedSize;
+    }
+
+    /** @return whether this class inherits from Pdu, so that the record starts with a PDU header */
+    public boolean isPduDescendant()
+    {
+        return pduDescendant;
+    }
+
+    /** @return whether all attribute types could be resolved, so that the layout is complete */
+    public boolean isResolved()
+    {
+        return unresolvedType == null;
+    }
+
+    /** @return name of first type that could not be resolved, or null */
+    public String getUnresolvedType()
+    {
+        return unresolvedType;
+    }
+
+    /**
+     * Compute layouts of all classes, skipping aliases
+     * @param classDescriptions all generated classes, key = name
+     * @param primitiveSizes size in bytes of each XML primitive type
+     * @return layouts, key = class name
+     */
+    public static Map<String, GeneratedClassLayout> computeLayouts(Map<String, GeneratedClass> classDescriptions, Map<String, Integer> primitiveSizes)
+    {
+        Map<String, GeneratedClassLayout> layouts = new TreeMap<>();
+        for (GeneratedClass aClass : classDescriptions.values())
+        {
+            if (aClass.getAliasFor() == null)
+                computeLayout(aClass.getName(), classDescriptions, primitiveSizes, layouts);
+        }
+        return layouts;
+    }
+
+    private static GeneratedClassLayout computeLayout(String className, Map<String, GeneratedClass> classDescriptions,
+                                                      Map<String, Integer> primitiveSizes, Map<String, GeneratedClassLayout> layouts)
+    {
+        GeneratedClassLayout layout = layouts.get(className);
+        if (layout != null)
+            return layout;
+
+        GeneratedClass aClass = classDescriptions.get(className);
+        layout = new GeneratedClassLayout(aClass);
+        layouts.put(className, layout);
+
+        // superclass attributes come first on the wire
+        Deque<GeneratedClass> hierarchy = new ArrayDeque<>();
+        for (GeneratedClass currentClass = aClass; currentClass != null; currentClass = classDescriptions.get(currentClass.getParentClass()))
+        {
+            hierarchy.push(currentClass);
+            if (currentClass.getName().equals("Pdu"))
+                layout.pduDescendant = true;
+        }
+        boolean fixedOffset = true;
+        Set<String> names = new HashSet<>();
+        for (GeneratedClass currentClass : hierarchy)
+        {
+            for (GeneratedClassAttribute anAttribute : currentClass.getClassAttributes())
+            {
+                if (!anAttribute.shouldSerialize || (anAttribute.getAttributeKind() == ClassAttributeType.STATIC_IVAR))
+                    continue;
+                if (anAttribute.getName().startsWith("iFFPduLayer")) // optional trailing layers, see IFFPdu checkWhichLayersNeedsUnmarshaling()
+                {
+                    layout.fixedSize = false;
+                    fixedOffset = false;
+                    continue;
+                }
+
+                Field field = new Field();
+                field.attribute      = anAttribute;
+                field.declaringClass = currentClass;
+                field.fixedOffset    = fixedOffset;
+                field.name           = anAttribute.getName();
+                for (int suffix = 2; !names.add(field.name); suffix++)
+                    field.name = anAttribute.getName() + suffix;
+                field.constantPrefix = constantName(field.name);
+                layout.resolveSize(field, classDescriptions, primitiveSizes, layouts);
+                layout.fields.add(field);
+
+                if (!field.isFixedSize())
+                {
+                    layout.fixedSize = false;
+                    fixedOffset = false;
+                }
+            }
+        }
+        return layout;
+    }
+
+    private void resolveSize(Field field, Map<String, GeneratedClass> classDescriptions,
+                             Map<String, Integer> primitiveSizes, Map<String, GeneratedClassLayout> layouts)
+    {
+        GeneratedClassAttribute anAttribute = field.attribute;
+        String type = anAttribute.getType();
+        switch (anAttribute.getAttributeKind())
+        {
+            case PRIMITIVE:
+                field.sizeExpression = String.valueOf(primitiveSizes.get(type));
+                break;
+
+            case SISO_ENUM:
+                field.sizeExpression = enumSizeExpression(type);
+                break;
+
+            case SISO_BITFIELD:
+                field.sizeExpression = String.valueOf(Integer.parseInt(anAttribute.getEnumMarshalSize()) / 8);
+                break;
+
+            case CLASSREF:
+                if (EXTERNAL_BYTE_RECORDS.contains(type))
+                {
+                    field.externalByteRecord = true;
+                    field.sizeExpression = "1";
+                }
+                else field.sizeExpression = recordSizeExpression(type, classDescriptions, primitiveSizes, layouts);
+                break;
+
+            case PRIMITIVE_LIST:
+                field.elementSizeExpression = String.valueOf(primitiveSizes.get(type));
+                field.countInBits = anAttribute.getCountFieldIsBitCount();
+                if (anAttribute.getCountFieldName() == null)
+                    field.sizeExpression = String.valueOf(anAttribute.getListLength() * primitiveSizes.get(type));
+                break;
+
+            case OBJECT_LIST:
+                if (anAttribute.getUnderlyingTypeIsEnum())
+                    field.elementSizeExpression = enumSizeExpression(type);
+                else if (anAttribute.getUnderlyingTypeIsBitfield())
+                    field.elementSizeExpression = String.valueOf(Integer.parseInt(anAttribute.getEnumMarshalSize()) / 8);
+                else
+                    field.elementSizeExpression = recordSizeExpression(type, classDescriptions, primitiveSizes, layouts);
+                break;
+
+            case PADTO16:
+            case PADTO32:
+            case PADTO64:
+                break; // depends on position within PDU
+        }
+    }
+
+    private static String enumSizeExpression(String enumType)
+    {
+        return enumType + ".getEnumMarshalledSize()";
+    }
+
+    /** @return size expression of a fixed-size record, null if record size varies or type is unknown */
+    private String recordSizeExpression(String type, Map<String, GeneratedClass> classDescriptions,
+                                        Map<String, Integer> primitiveSizes, Map<String, GeneratedClassLayout> layouts)
+    {
+        if (!classDescriptions.containsKey(type))
+        {
+            if (unresolvedType == null)
+                unresolvedType = type;
+            return null;
+        }
+        GeneratedClassLayout recordLayout = computeLayout(type, classDescriptions, primitiveSizes, layouts);
+        if (!recordLayout.isResolved() && (unresolvedType == null))
+            unresolvedType = recordLayout.getUnresolvedType();
+        return recordLayout.isFixedSize() ? type + ".FIXED_SIZE" : null;
+    }
+
+    /**
+     * Convert an attribute name to an upper-case constant name, for example entityID becomes ENTITY_ID
+     * @param name attribute name
+     * @return constant name
+     */
+    public static String constantName(String name)
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int idx = 0; idx < name.length(); idx++)
+        {
+            char ch = name.charAt(idx);
+            if ((idx > 0) && Character.isUpperCase(ch))
+            {
+                char previous = name.charAt(idx - 1);
+                boolean nextIsLower = (idx + 1 < name.length()) && Character.isLowerCase(name.charAt(idx + 1));
+                if (Character.isLowerCase(previous) || Character.isDigit(previous) || (Character.isUpperCase(previous) && nextIsLower))
+                    sb.append('_');
+            }
+            sb.append(Character.toUpperCase(ch));
+        }
+        return sb.toString();
+    }
+}
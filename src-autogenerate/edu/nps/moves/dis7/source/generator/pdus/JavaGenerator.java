@@ -4,16 +4,17 @@
  */
 package edu.nps.moves.dis7.source.generator.pdus;
 
+import edu.nps.moves.dis7.source.generator.GeneratedFiles;
 import edu.nps.moves.dis7.source.generator.pdus.GeneratedClassAttribute.ClassAttributeType;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.Writer;
-import java.nio.charset.StandardCharsets;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * This class autogenerates Java source code from XML PDU definitions, specifically 
@@ -52,20 +53,54 @@ public class JavaGenerator extends AbstractGenerator
      */
     Properties primitiveSizes = new Properties();
     Map<String,Integer> primitiveSizesMap = new HashMap<>();
-    
+
+    /**
+     * Whether generated accessor, marshal and utility methods are declared synchronized (default true).
+     * Set system property xmlpg.synchronized=false to produce lock-free classes intended for
+     * thread-confined use, see README "Thread safety of generated PDUs".
+     */
+    private boolean generateSynchronizedMethods = true;
+
+    /**
+     * Method modifier emitted ahead of the return type, either "synchronized " or empty
+     */
+    private String synchronizedModifier = "synchronized ";
+
+    /**
+     * Whether SISO enumeration attributes are held as raw wire values and resolved to enumerations only on access (default false).
+     * Set system property xmlpg.lazyEnums=true to avoid enumeration lookup during unmarshal and to preserve undefined values,
+     * see README "Lazy enumeration resolution".
+     */
+    private boolean generateLazyEnums = false;
+
     /**
      * A property list that contains java-specific code generation information, such as package names, imports, etc.
      */
 //    Properties javaProperties;
 
+    /** writes generated class files, skipping unchanged files in incremental mode */
+    private final GeneratedFiles generatedFiles;
+
     /**
      * Constructor
      * @param pClassDescriptions String map of generated classes
      * @param pJavaProperties language properties
      */
     public JavaGenerator(Map<String, GeneratedClass> pClassDescriptions, Properties pJavaProperties)
+    {
+        this(pClassDescriptions, pJavaProperties, new GeneratedFiles("pdus"));
+    }
+
+    /**
+     * Constructor
+     * @param pClassDescriptions String map of generated classes
+     * @param pJavaProperties language properties
+     * @param pGeneratedFiles output of generated files for this stage
+     */
+    public JavaGenerator(Map<String, GeneratedClass> pClassDescriptions, Properties pJavaProperties, GeneratedFiles pGeneratedFiles)
     {
         super(pClassDescriptions, pJavaProperties);
+        generatedFiles = pGeneratedFiles;
 
         try {
             Properties systemProperties = System.getProperties();
@@ -84,9 +119,20 @@ public class JavaGenerator extends AbstractGenerator
             if (clPackage != null)
                 pJavaProperties.setProperty("package", clPackage);
 
+            String clSynchronized = systemProperties.getProperty("xmlpg.synchronized");
+            if (clSynchronized != null)
+                generateSynchronizedMethods = Boolean.parseBoolean(clSynchronized.trim());
+            synchronizedModifier = generateSynchronizedMethods ? "synchronized " : "";
+
+            String clLazyEnums = systemProperties.getProperty("xmlpg.lazyEnums");
+            if (clLazyEnums != null)
+                generateLazyEnums = Boolean.parseBoolean(clLazyEnums.trim());
+
             super.setGeneratedSourceDirectoryName(clDirectory);
 
             System.out.println("Source code directory set to " + clDirectory);
+            System.out.println("Synchronized methods in generated classes: " + generateSynchronizedMethods);
+            System.out.println("Lazy enumeration resolution in generated classes: " + generateLazyEnums);
         }
         catch (Exception e) {
             System.err.println("Required property not set. Modify the XML file to include the missing property");
@@ -162,6 +208,12 @@ public class JavaGenerator extends AbstractGenerator
         primitiveSizesMap.put("float64", 8); 
     }
     
+    /** serialized layouts of all classes, computed on first use, key = class name */
+    private Map<String, GeneratedClassLayout> layouts;
+
+    /** whether each class gets VarHandle byte array marshalling, computed on first use, key = class name */
+    private final Map<String, Boolean> offsetCodecs = new ConcurrentHashMap<>();
+
     private String        packageInfoPath;
     private File          packageInfoFile;
     private StringBuilder packageInfoBuilder;
@@ -172,17 +224,18 @@ public class JavaGenerator extends AbstractGenerator
     @Override
     public void writeClasses()
     {
-        int classCount = 0;
+        AtomicInteger classCount = new AtomicInteger();
         
         readTemplates();  // get the license
         
-        createGeneratedSourceDirectory(true); // boolean: whether to clean out prior files, if any exist in that directory
+        createGeneratedSourceDirectory(!GeneratedFiles.isIncremental()); // boolean: whether to clean out prior files, if any exist in that directory; incremental mode deletes orphans instead
 
-        Iterator classDescriptionsIterator = classDescriptions.values().iterator();
+        // compute shared layouts and codec choices up front, so that classes are written independently of each other
+        for (GeneratedClass aClass : classDescriptions.values())
+            hasOffsetCodec(aClass);
 
-        while (classDescriptionsIterator.hasNext()) {
+        forEachInParallelMode(classDescriptions.values(), aClass -> {
             try {
-                GeneratedClass aClass     = (GeneratedClass) classDescriptionsIterator.next();
                 String         aClassName = aClass.getName();
 //                String  pduSubpackageName = "pdus";
 
@@ -208,29 +261,28 @@ public class JavaGenerator extends AbstractGenerator
                 // Create the new, empty file, and create printwriter object for output to it
                 File outputFile = new File(aClassFullPath);
                 outputFile.getParentFile().mkdirs();
-                outputFile.createNewFile();
-                PrintWriter pw = new PrintWriter(outputFile, StandardCharsets.UTF_8.name());
+                PrintWriter pw = generatedFiles.newPrintWriter(outputFile);
 
                 // print the source code of the class to the file
                 // System.out.println("trying to make class "+name);
                 this.writeClass(pw, aClass);
-                classCount++;
+                classCount.incrementAndGet();
             }
-            catch (IOException e) {
+            catch (UncheckedIOException e) {
                 e.printStackTrace(System.err);
                 System.err.println("error creating source code " + e);
             }
+        });
 
-        } // End while
-        
-        packageInfoPath = getGeneratedSourceDirectoryName() + "/edu/nps/moves/dis7/pdus/" + "package-info.java";
+        int viewCount = writeViewClasses();
+        int layoutCount = writeLayoutClasses();
+        writePduVisitor();
+
+        packageInfoPath =getGeneratedSourceDirectoryName() + "/edu/nps/moves/dis7/pdus/" + "package-info.java";
         packageInfoFile = new File(packageInfoPath);
         
-        Writer packageInfoFileWriter;
         try 
         {
-            packageInfoFile.createNewFile();
-            packageInfoFileWriter = new FileWriter(packageInfoFile, StandardCharsets.UTF_8);
             packageInfoBuilder = new StringBuilder();
             packageInfoBuilder.append("/**\n");
             packageInfoBuilder.append(" * IEEE DIS Protocol Data Unit (PDU) packet definition classes.\n");
@@ -251,9 +303,7 @@ public class JavaGenerator extends AbstractGenerator
             packageInfoBuilder.append("\n");
             packageInfoBuilder.append("package edu.nps.moves.dis7.pdus;\n");
 
-            packageInfoFileWriter.write(packageInfoBuilder.toString());
-            packageInfoFileWriter.flush();
-            packageInfoFileWriter.close();
+            generatedFiles.write(packageInfoFile, packageInfoBuilder.toString());
             System.out.println("Created " + packageInfoPath);
         }
         catch (IOException ex) {
@@ -263,8 +313,14 @@ public class JavaGenerator extends AbstractGenerator
             );
             ex.printStackTrace(System.err);
         }
+        try {
+            generatedFiles.awaitCompletion();
+        }
+        catch (IOException ex) { // fail the stage, rather than report completion with files missing
+            throw new UncheckedIOException("error completing generated source code", ex);
+        }
         
-        System.out.println (JavaGenerator.class.getName() + " complete, " + classCount + " classes written.");
+        System.out.println (JavaGenerator.class.getName() + " complete, " + classCount + " classes, " + viewCount + " view classes and " + layoutCount + " layout classes written.");
 
     } // End write classes
 
@@ -309,379 +365,11 @@ public class JavaGenerator extends AbstractGenerator
 "   ");
             }
             
+            writeLayoutConstants(pw, aClass);
+
             if (aClass.getName().equals("Pdu")) // abstract superclass methods for instances
             {
-                String textBlock = """ 
-
-    //  =================
-                                     
-    /** Whether this instance is a Reliable Pdu with guaranteed delivery
-    * @return whether reliable */
-    public boolean isReliablePdu ()
-    {
-      return getClass().getName().endsWith("RPdu") ||      // primary class
-             getClass().getName().endsWith("ReliablePdu"); //   alias class
-    }
-    //  =================
-                                       
-    /** Whether this instance has a DistributedEmissionsRegenerationFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isDistributedEmissionsRegenerationFamilyPdu() { return getClass().getName().equals(DistributedEmissionsRegenerationFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has an EntityInformationInteractionFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isEntityInformationInteractionFamilyPdu() { return getClass().getName().equals(EntityInformationInteractionFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has an EntityManagementFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isEntityManagementFamilyPdu() { return getClass().getName().equals(EntityManagementFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has an InformationOperationsFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isInformationOperationsFamilyPdu() { return getClass().getName().equals(InformationOperationsFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a LogisticsFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isLogisticsFamilyPdu() { return getClass().getName().equals(LogisticsFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a MinefieldFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isMinefieldFamilyPdu() { return getClass().getName().equals(MinefieldFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a RadioCommunicationsFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isRadioCommunicationsFamilyPdu() { return getClass().getName().equals(RadioCommunicationsFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a SimulationManagementFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isSimulationManagementFamilyPdu() { return getClass().getName().equals(SimulationManagementFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a SimulationManagementWithReliabilityFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isSimulationManagementWithReliabilityFamilyPdu() { return getClass().getName().equals(SimulationManagementWithReliabilityFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a SyntheticEnvironmentFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isSyntheticEnvironmentFamilyPdu() { return getClass().getName().equals(SyntheticEnvironmentFamilyPdu.FAMILY_NAME); }
-
-    /** Whether this instance has a WarfareFamilyPdu superclass
-      * @return whether this supertype is inherited */
-    public boolean isWarfareFamilyPdu() { return getClass().getName().equals(WarfareFamilyPdu.FAMILY_NAME); }
-
-    //  =================
-                                   
-    /** Whether this instance is an AcknowledgeRPdu
-    * @return whether this type of Pdu */
-  public boolean isAcknowledgeRPdu() { return getClass().getName().equals(AcknowledgeRPdu.NAME) ||
-                                              getClass().getName().equals(AcknowledgeReliablePdu.NAME); }
-
-    /** Whether this instance is an ActionRequestPdu
-    * @return whether this type of Pdu */
-  public boolean isActionRequestPdu() { return getClass().getName().equals(ActionRequestPdu.NAME); }
-  
-    /** Whether this instance is an ActionRequestRPdu
-    * @return whether this type of Pdu */
-  public boolean isActionRequestRPdu() { return getClass().getName().equals(ActionRequestRPdu.NAME) ||
-                                                getClass().getName().equals(ActionRequestReliablePdu.NAME); }
-  
-    /** Whether this instance is an ActionResponsePdu
-    * @return whether this type of Pdu */
-  public boolean isActionResponsePdu() { return getClass().getName().equals(ActionResponsePdu.NAME); }
-  
-    /** Whether this instance is an ActionResponseRPdu
-    * @return whether this type of Pdu */
-  public boolean isActionResponseRPdu() { return getClass().getName().equals(ActionResponseRPdu.NAME) ||
-                                                 getClass().getName().equals(ActionResponseReliablePdu.NAME); }
-  
-    /** Whether this instance is an AggregateStatePdu
-    * @return whether this type of Pdu */
-  public boolean isAggregateStatePdu() { return getClass().getName().equals(AggregateStatePdu.NAME); }
-  
-    /** Whether this instance is an AppearancePdu
-    * @return whether this type of Pdu */
-  public boolean isAppearancePdu() { return getClass().getName().equals(AppearancePdu.NAME); }
-  
-    /** Whether this instance is an ArealObjectStatePdu
-    * @return whether this type of Pdu */
-  public boolean isArealObjectStatePdu() { return getClass().getName().equals(ArealObjectStatePdu.NAME); }
-  
-    /** Whether this instance is an ArticulatedPartsPdu
-    * @return whether this type of Pdu */
-  public boolean isArticulatedPartsPdu() { return getClass().getName().equals(ArticulatedPartsPdu.NAME); }
-  
-    /** Whether this instance is an AttributePdu
-    * @return whether this type of Pdu */
-  public boolean isAttributePdu() { return getClass().getName().equals(AttributePdu.NAME); }
-  
-    /** Whether this instance is an CollisionElasticPdu
-    * @return whether this type of Pdu */
-  public boolean isCollisionElasticPdu() { return getClass().getName().equals(CollisionElasticPdu.NAME); }
-  
-    /** Whether this instance is an CollisionPdu
-    * @return whether this type of Pdu */
-  public boolean isCollisionPdu() { return getClass().getName().equals(CollisionPdu.NAME); }
-  
-    /** Whether this instance is an CommentPdu
-    * @return whether this type of Pdu */
-  public boolean isCommentPdu() { return getClass().getName().equals(CommentPdu.NAME); }
-  
-    /** Whether this instance is an CommentRPdu
-    * @return whether this type of Pdu */
-  public boolean isCommentRPdu() { return getClass().getName().equals(CommentRPdu.NAME) ||
-                                          getClass().getName().equals(CommentReliablePdu.NAME); }
-  
-    /** Whether this instance is an CreateEntityPdu
-    * @return whether this type of Pdu */
-  public boolean isCreateEntityPdu() { return getClass().getName().equals(CreateEntityPdu.NAME); }
-  
-    /** Whether this instance is an CreateEntityRPdu
-    * @return whether this type of Pdu */
-  public boolean isCreateEntityRPdu() { return getClass().getName().equals(CreateEntityRPdu.NAME) ||
-                                               getClass().getName().equals(CreateEntityReliablePdu.NAME); }
-  
-    /** Whether this instance is an DataPdu
-    * @return whether this type of Pdu */
-  public boolean isDataPdu() { return getClass().getName().equals(DataPdu.NAME); }
-  
-    /** Whether this instance is an DataQueryPdu
-    * @return whether this type of Pdu */
-  public boolean isDataQueryPdu() { return getClass().getName().equals(DataQueryPdu.NAME); }
-  
-    /** Whether this instance is an DataQueryRPdu
-    * @return whether this type of Pdu */
-  public boolean isDataQueryRPdu() { return getClass().getName().equals(DataQueryRPdu.NAME) ||
-                                            getClass().getName().equals(DataQueryReliablePdu.NAME); }
-  
-    /** Whether this instance is an DataRPdu
-    * @return whether this type of Pdu */
-  public boolean isDataRPdu() { return getClass().getName().equals(DataRPdu.NAME) ||
-                                       getClass().getName().equals(DataReliablePdu.NAME); }
-  
-    /** Whether this instance is an DesignatorPdu
-    * @return whether this type of Pdu */
-  public boolean isDesignatorPdu() { return getClass().getName().equals(DesignatorPdu.NAME); }
-  
-    /** Whether this instance is an DetonationPdu
-    * @return whether this type of Pdu */
-  public boolean isDetonationPdu() { return getClass().getName().equals(DetonationPdu.NAME); }
-  
-    /** Whether this instance is an DirectedEnergyFirePdu
-    * @return whether this type of Pdu */
-  public boolean isDirectedEnergyFirePdu() { return getClass().getName().equals(DirectedEnergyFirePdu.NAME); }
-  
-    /** Whether this instance is an ElectromagneticEmissionPdu
-    * @return whether this type of Pdu */
-  public boolean isElectromagneticEmissionPdu() { return getClass().getName().equals(ElectromagneticEmissionPdu.NAME); }
-  
-    /** Whether this instance is an EntityDamageStatusPdu
-    * @return whether this type of Pdu */
-  public boolean isEntityDamageStatusPdu() { return getClass().getName().equals(EntityDamageStatusPdu.NAME); }
-  
-    /** Whether this instance is an EntityStatePdu
-    * @return whether this type of Pdu */
-  public boolean isEntityStatePdu() { return getClass().getName().equals(EntityStatePdu.NAME); }
-  
-    /** Whether this instance is an EntityStateUpdatePdu
-    * @return whether this type of Pdu */
-  public boolean isEntityStateUpdatePdu() { return getClass().getName().equals(EntityStateUpdatePdu.NAME); }
-  
-    /** Whether this instance is an EnvironmentalProcessPdu
-    * @return whether this type of Pdu */
-  public boolean isEnvironmentalProcessPdu() { return getClass().getName().equals(EnvironmentalProcessPdu.NAME); }
-  
-    /** Whether this instance is an EventReportPdu
-    * @return whether this type of Pdu */
-  public boolean isEventReportPdu() { return getClass().getName().equals(EventReportPdu.NAME); }
-  
-    /** Whether this instance is an EventReportRPdu
-    * @return whether this type of Pdu */
-  public boolean isEventReportRPdu() { return getClass().getName().equals(EventReportRPdu.NAME) ||
-                                              getClass().getName().equals(EventReportReliablePdu.NAME); }
-  
-    /** Whether this instance is an FirePdu
-    * @return whether this type of Pdu */
-  public boolean isFirePdu() { return getClass().getName().equals(FirePdu.NAME); }
-  
-    /** Whether this instance is an GriddedDataPdu
-    * @return whether this type of Pdu */
-  public boolean isGriddedDataPdu() { return getClass().getName().equals(GriddedDataPdu.NAME); }
-  
-    /** Whether this instance is an IFFPdu
-    * @return whether this type of Pdu */
-  public boolean isIFFPdu() { return getClass().getName().equals(IFFPdu.NAME) ||
-                                     getClass().getName().equals(IdentificationFriendOrFoePdu.NAME); }
-  
-    /** Whether this instance is an InformationOperationsActionPdu
-    * @return whether this type of Pdu */
-  public boolean isInformationOperationsActionPdu() { return getClass().getName().equals(InformationOperationsActionPdu.NAME); }
-  
-    /** Whether this instance is an InformationOperationsReportPdu
-    * @return whether this type of Pdu */
-  public boolean isInformationOperationsReportPdu() { return getClass().getName().equals(InformationOperationsReportPdu.NAME); }
-  
-    /** Whether this instance is an IntercomControlPdu
-    * @return whether this type of Pdu */
-  public boolean isIntercomControlPdu() { return getClass().getName().equals(IntercomControlPdu.NAME); }
-  
-    /** Whether this instance is an IntercomSignalPdu
-    * @return whether this type of Pdu */
-  public boolean isIntercomSignalPdu() { return getClass().getName().equals(IntercomSignalPdu.NAME); }
-  
-    /** Whether this instance is an IsGroupOfPdu
-    * @return whether this type of Pdu */
-  public boolean isIsGroupOfPdu() { return getClass().getName().equals(IsGroupOfPdu.NAME); }
-  
-    /** Whether this instance is an IsPartOfPdu
-    * @return whether this type of Pdu */
-  public boolean isIsPartOfPdu() { return getClass().getName().equals(IsPartOfPdu.NAME); }
-  
-    /** Whether this instance is an LEDetonationPdu
-    * @return whether this type of Pdu */
-  public boolean isLEDetonationPdu() { return getClass().getName().equals(LEDetonationPdu.NAME); }
-  
-    /** Whether this instance is an LEFirePdu
-    * @return whether this type of Pdu */
-  public boolean isLEFirePdu() { return getClass().getName().equals(LEFirePdu.NAME); }
-  
-    /** Whether this instance is an LinearObjectStatePdu
-    * @return whether this type of Pdu */
-  public boolean isLinearObjectStatePdu() { return getClass().getName().equals(LinearObjectStatePdu.NAME); }
-  
-    /** Whether this instance is an LiveEntityDetonationPdu
-    * @return whether this type of Pdu */
-  public boolean isLiveEntityDetonationPdu() { return getClass().getName().equals(LiveEntityDetonationPdu.NAME); }
-  
-    /** Whether this instance is an LiveEntityFirePdu
-    * @return whether this type of Pdu */
-  public boolean isLiveEntityFirePdu() { return getClass().getName().equals(LiveEntityFirePdu.NAME); }
-  
-    /** Whether this instance is an MinefieldDataPdu
-    * @return whether this type of Pdu */
-  public boolean isMinefieldDataPdu() { return getClass().getName().equals(MinefieldDataPdu.NAME); }
-  
-    /** Whether this instance is an MinefieldQueryPdu
-    * @return whether this type of Pdu */
-  public boolean isMinefieldQueryPdu() { return getClass().getName().equals(MinefieldQueryPdu.NAME); }
-  
-    /** Whether this instance is an MinefieldResponseNACKPdu
-    * @return whether this type of Pdu */
-  public boolean isMinefieldResponseNACKPdu() { return getClass().getName().equals(MinefieldResponseNACKPdu.NAME); }
-  
-    /** Whether this instance is an MinefieldStatePdu
-    * @return whether this type of Pdu */
-  public boolean isMinefieldStatePdu() { return getClass().getName().equals(MinefieldStatePdu.NAME); }
-  
-    /** Whether this instance is an PointObjectStatePdu
-    * @return whether this type of Pdu */
-  public boolean isPointObjectStatePdu() { return getClass().getName().equals(PointObjectStatePdu.NAME); }
-  
-    /** Whether this instance is an ReceiverPdu
-    * @return whether this type of Pdu */
-  public boolean isReceiverPdu() { return getClass().getName().equals(ReceiverPdu.NAME); }
-  
-    /** Whether this instance is an RecordQueryRPdu
-    * @return whether this type of Pdu */
-  public boolean isRecordQueryRPdu() { return getClass().getName().equals(RecordQueryRPdu.NAME) ||
-                                              getClass().getName().equals(RecordQueryReliablePdu.NAME); }
-  
-    /** Whether this instance is an RecordRPdu
-    * @return whether this type of Pdu */
-  public boolean isRecordRPdu() { return getClass().getName().equals(RecordRPdu.NAME) ||
-                                         getClass().getName().equals(RecordReliablePdu.NAME); }
-  
-    /** Whether this instance is an RemoveEntityPdu
-    * @return whether this type of Pdu */
-  public boolean isRemoveEntityPdu() { return getClass().getName().equals(RemoveEntityPdu.NAME); }
-  
-    /** Whether this instance is an RemoveEntityRPdu
-    * @return whether this type of Pdu */
-  public boolean isRemoveEntityRPdu() { return getClass().getName().equals(RemoveEntityRPdu.NAME) ||
-                                               getClass().getName().equals(RemoveEntityReliablePdu.NAME); }
-  
-    /** Whether this instance is an RepairCompletePdu
-    * @return whether this type of Pdu */
-  public boolean isRepairCompletePdu() { return getClass().getName().equals(RepairCompletePdu.NAME); }
-  
-    /** Whether this instance is an RepairResponsePdu
-    * @return whether this type of Pdu */
-  public boolean isRepairResponsePdu() { return getClass().getName().equals(RepairResponsePdu.NAME); }
-  
-    /** Whether this instance is an ResupplyCancelPdu
-    * @return whether this type of Pdu */
-  public boolean isResupplyCancelPdu() { return getClass().getName().equals(ResupplyCancelPdu.NAME); }
-  
-    /** Whether this instance is an ResupplyOfferPdu
-    * @return whether this type of Pdu */
-  public boolean isResupplyOfferPdu() { return getClass().getName().equals(ResupplyOfferPdu.NAME); }
-  
-    /** Whether this instance is an ResupplyReceivedPdu
-    * @return whether this type of Pdu */
-  public boolean isResupplyReceivedPdu() { return getClass().getName().equals(ResupplyReceivedPdu.NAME); }
-  
-    /** Whether this instance is an SEESPdu
-    * @return whether this type of Pdu */
-  public boolean isSEESPdu() { return getClass().getName().equals(SEESPdu.NAME) ||
-                                      getClass().getName().equals(ServiceRequestPdu.NAME); }
-  
-    /** Whether this instance is an SetDataPdu
-    * @return whether this type of Pdu */
-  public boolean isSetDataPdu() { return getClass().getName().equals(SetDataPdu.NAME); }
-  
-    /** Whether this instance is an SetDataRPdu
-    * @return whether this type of Pdu */
-  public boolean isSetDataRPdu() { return getClass().getName().equals(SetDataRPdu.NAME) ||
-                                          getClass().getName().equals(SetDataReliablePdu.NAME); }
-  
-    /** Whether this instance is an SetRecordRPdu
-    * @return whether this type of Pdu */
-  public boolean isSetRecordRPdu() { return getClass().getName().equals(SetRecordRPdu.NAME) ||
-                                            getClass().getName().equals(SetRecordReliablePdu.NAME); }
-  
-    /** Whether this instance is an SignalPdu
-    * @return whether this type of Pdu */
-  public boolean isSignalPdu() { return getClass().getName().equals(SignalPdu.NAME); }
-  
-    /** Whether this instance is an StartResumePdu
-    * @return whether this type of Pdu */
-  public boolean isStartResumePdu() { return getClass().getName().equals(StartResumePdu.NAME); }
-  
-    /** Whether this instance is an StartResumeRPdu
-    * @return whether this type of Pdu */
-  public boolean isStartResumeRPdu() { return getClass().getName().equals(StartResumeRPdu.NAME) ||
-                                              getClass().getName().equals(StartResumeReliablePdu.NAME); }
-  
-    /** Whether this instance is an StopFreezePdu
-    * @return whether this type of Pdu */
-  public boolean isStopFreezePdu() { return getClass().getName().equals(StopFreezePdu.NAME); }
-  
-    /** Whether this instance is an StopFreezeRPdu
-    * @return whether this type of Pdu */
-  public boolean isStopFreezeRPdu() { return getClass().getName().equals(StopFreezeRPdu.NAME) ||
-                                             getClass().getName().equals(StopFreezeReliablePdu.NAME); }
-  
-    /** Whether this instance is an SupplementalEmissionEntityStatePdu
-    * @return whether this type of Pdu */
-  public boolean isSupplementalEmissionEntityStatePdu() { return getClass().getName().equals(SupplementalEmissionEntityStatePdu.NAME); }
-  
-    /** Whether this instance is an TSPIPdu
-    * @return whether this type of Pdu */
-  public boolean isTSPIPdu() { return getClass().getName().equals(TSPIPdu.NAME) ||
-                                      getClass().getName().equals(TimeSpacePositionInformationPdu.NAME); }
-  
-    /** Whether this instance is an TransferOwnershipPdu
-    * @return whether this type of Pdu */
-  public boolean isTransferOwnershipPdu() { return getClass().getName().equals(TransferOwnershipPdu.NAME); }
-  
-  /** Whether this instance is an TransmitterPdu
-    * @return whether this type of Pdu */
-  public boolean isTransmitterPdu() { return getClass().getName().equals(TransmitterPdu.NAME); }
-  
-  /** Whether this instance is an UnderwaterAcousticPdu
-    * @return whether this type of Pdu */
-  public boolean isUnderwaterAcousticPdu() { return getClass().getName().equals(UnderwaterAcousticPdu.NAME); }
-
-""";
-                pw.print(textBlock);
+                writePduTypePredicates(pw);
             }
             pw.flush();
             writeIvars(pw, aClass);
@@ -692,6 +380,10 @@ public class JavaGenerator extends AbstractGenerator
             }
             writeConstructor(pw, aClass);
             pw.flush();
+            writeCopyConstructor(pw, aClass);
+            pw.flush();
+            writeResetMethod(pw, aClass);
+            pw.flush();
             writeCopyMethods(pw, aClass);
             pw.flush();
             writeGetMarshalledSizeMethod(pw, aClass);
@@ -708,11 +400,21 @@ public class JavaGenerator extends AbstractGenerator
             pw.flush();
             writeUnmarshallMethodWithByteBuffer(pw, aClass);
             pw.flush();
+            writeMarshalMethodWithByteArray(pw, aClass);
+            pw.flush();
+            writeUnmarshallMethodWithByteArray(pw, aClass);
+            pw.flush();
+            writeMarshalMethodWithByteBufferOffset(pw, aClass);
+            pw.flush();
+            writeUnmarshallMethodWithByteBufferOffset(pw, aClass);
+            pw.flush();
 
             if (aClass.getName().equals("Pdu")) {
                 writeMarshalMethodToByteArray(pw, aClass);
             }
             pw.flush();
+            writeAcceptMethod(pw, aClass);
+            pw.flush();
 
             //this.writeXmlMarshallMethod(pw, aClass);
             writeEqualityMethod(pw, aClass);
@@ -738,7 +440,693 @@ public class JavaGenerator extends AbstractGenerator
             pw.flush();
         }
     }
-    
+    
+    /**
+     * Serialized layouts of all classes, computed once from the XML model
+     * @return layouts, key = class name
+     */
+    private Map<String, GeneratedClassLayout> getLayouts()
+    {
+        if (layouts == null)
+            layouts = GeneratedClassLayout.computeLayouts(classDescriptions, primitiveSizesMap);
+        return layouts;
+    }
+
+    /**
+     * Layout of a class whose serialized size is known at generation time
+     * @param aClass class of interest
+     * @return complete layout of fixed size, otherwise null
+     */
+    private GeneratedClassLayout getFixedSizeLayout(GeneratedClass aClass)
+    {
+        GeneratedClassLayout layout = getLayouts().get(aClass.getName());
+        if ((layout == null) || !layout.isResolved() || !layout.isFixedSize())
+            return null;
+        return layout;
+    }
+
+    /**
+     * Layout entry of an attribute declared by a class
+     * @param aClass class declaring the attribute
+     * @param anAttribute attribute of interest
+     * @return field, or null if the attribute is not part of the layout
+     */
+    private GeneratedClassLayout.Field getLayoutField(GeneratedClass aClass, GeneratedClassAttribute anAttribute)
+    {
+        GeneratedClassLayout layout = getLayouts().get(aClass.getName());
+        if ((layout == null) || !layout.isResolved())
+            return null;
+        for (GeneratedClassLayout.Field field : layout.getFields())
+        {
+            if (field.getAttribute() == anAttribute)
+                return field;
+        }
+        return null;
+    }
+
+    /**
+     * Write static layout constants computed from the XML model: the byte offset of each attribute declared by this class
+     * that lies at a fixed position, the size of each such attribute with a fixed size, and FIXED_SIZE when every instance
+     * marshals to the same number of bytes.
+     * A variable-size subclass of a fixed-size class sets FIXED_SIZE to -1, rather than inheriting the superclass value.
+     * These are the only offset tables generated, view and layout classes refer to them, see {@link #layoutConstant}.
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     */
+    private void writeLayoutConstants(PrintWriter pw, GeneratedClass aClass)
+    {
+        GeneratedClassLayout layout = getLayouts().get(aClass.getName());
+        if ((layout == null) || !layout.isResolved())
+            return;
+        boolean hasParent = !aClass.getParentClass().equalsIgnoreCase("root");
+
+        pw.println("   // serialized layout, autogenerated by JavaGenerator.writeLayoutConstants()");
+        GeneratedClassLayout.Field previous = null;
+        for (GeneratedClassLayout.Field field : layout.getFields())
+        {
+            if ((field.getDeclaringClass() == aClass) && field.isFixedOffset())
+            {
+                String offset;
+                if (previous == null)
+                    offset = "0";
+                else if (previous.getDeclaringClass() != aClass)
+                    offset = aClass.getParentClass() + ".FIXED_SIZE";
+                else
+                    offset = previous.getConstantPrefix() + "_OFFSET + " + previous.getConstantPrefix() + "_SIZE";
+                pw.println("   /** byte offset of {@link #" + field.getAttribute().getName() + "} from start of serialized " + aClass.getName() + " */");
+                pw.println("   public static final int " + field.getConstantPrefix() + "_OFFSET = " + offset + ";");
+            }
+            if ((field.getDeclaringClass() == aClass) && field.isFixedSize())
+            {
+                pw.println("   /** size in bytes of {@link #" + field.getAttribute().getName() + "} */");
+                pw.println("   public static final int " + field.getConstantPrefix() + "_SIZE = " + field.getSizeExpression() + ";");
+            }
+            previous = field;
+        }
+        if (layout.isFixedSize())
+        {
+            String size;
+            if (previous == null)
+                size = "0";
+            else if (previous.getDeclaringClass() != aClass)
+                size = aClass.getParentClass() + ".FIXED_SIZE";
+            else
+                size = previous.getConstantPrefix() + "_OFFSET + " + previous.getConstantPrefix() + "_SIZE";
+            pw.println("   /** size in bytes of every serialized " + aClass.getName() + " */");
+            pw.println("   public static final int FIXED_SIZE = " + size + ";");
+        }
+        else if (hasParent && (getFixedSizeLayout(classDescriptions.get(aClass.getParentClass())) != null))
+        {
+            pw.println("   /** not applicable, since serialized size of " + aClass.getName() + " varies: see {@link #getMarshalledSize()} */");
+            pw.println("   public static final int FIXED_SIZE = -1;");
+        }
+        pw.println();
+    }
+
+    /**
+     * Generate read-only flyweight view classes, named by appending View to each class name, for example EntityStatePduView.
+     * Views read fields in place from a ByteBuffer at offsets derived from the XML layout, see {@link GeneratedClassLayout}.
+     * @return number of view classes written
+     */
+    private int writeViewClasses()
+    {
+        AtomicInteger viewCount = new AtomicInteger();
+        forEachInParallelMode(getLayouts().values(), layout -> {
+            GeneratedClass aClass = layout.getGeneratedClass();
+            if (aClass.getName().endsWith("FamilyPdu"))
+                return; // nothing beyond PDU header, use PduView
+            if (!layout.isResolved())
+            {
+                System.err.println("*** no view class for " + aClass.getName() + ", unknown type " + layout.getUnresolvedType());
+                return;
+            }
+            String viewPackageName = languageProperties.getProperty("package");
+            String viewFullPath = getGeneratedSourceDirectoryName() + "/" +
+                                  ((viewPackageName != null) ? viewPackageName.replace(".", "/") + "/" : "") +
+                                  aClass.getName() + "View.java";
+            try
+            {
+                File outputFile = new File(viewFullPath);
+                outputFile.getParentFile().mkdirs();
+                PrintWriter pw = generatedFiles.newPrintWriter(outputFile);
+                writeViewClass(pw, aClass, layout);
+                viewCount.incrementAndGet();
+            }
+            catch (UncheckedIOException e) {
+                e.printStackTrace(System.err);
+                System.err.println("error creating view source code " + e);
+            }
+        });
+        return viewCount.get();
+    }
+
+    /**
+     * Generate one flyweight view class.
+     * Fields at fixed offsets are read at the OFFSET constants of the declaring class, fields following variable-length data
+     * (lists, padding, variable-size records) get private methods computing their offset when read.
+     * Record lists are exposed as cursors: a view positioned at the first element, advanced by next().
+     */
+    private void writeViewClass(PrintWriter pw, GeneratedClass aClass, GeneratedClassLayout layout)
+    {
+        String viewName = aClass.getName() + "View";
+        List<GeneratedClassLayout.Field> fields = layout.getFields();
+        try (pw) {
+            writeLicense(pw, aClass);
+            String packageName = languageProperties.getProperty("package");
+            if (packageName != null)
+                pw.println("package " + packageName + ";");
+            pw.println();
+            pw.println("import java.nio.ByteBuffer;");
+            pw.println("import java.util.Objects;");
+            pw.println("import edu.nps.moves.dis7.enumerations.*;");
+            pw.println();
+            pw.println("/**");
+            pw.println(" * Read-only flyweight view of a serialized {@link " + aClass.getName() + "}, reading fields in place without creating objects.");
+            if (aClass.getClassComments() != null)
+                pw.println(" * " + aClass.getClassComments());
+            pw.println(" * <p>Autogenerated by JavaGenerator.writeViewClass() from the same XML layout as " + aClass.getName() + ".</p>");
+            pw.println(" * @see DisRecordView");
+            pw.println(" */");
+            pw.println("public final class " + viewName + " extends DisRecordView");
+            pw.println("{");
+
+            GeneratedClassLayout.Field last = fields.isEmpty() ? null : fields.get(fields.size() - 1);
+
+            // reusable views for walking variable-size records
+            for (GeneratedClassLayout.Field field : fields)
+            {
+                if (viewFieldNeedsScratch(field))
+                    pw.println("   private " + field.getAttribute().getType() + "View " + field.getName() + "Scratch;");
+            }
+
+            pw.println("   /** Constructor creates an unpositioned view, wrap before use */");
+            pw.println("   public " + viewName + "()");
+            pw.println("   {");
+            pw.println("   }");
+            pw.println();
+            pw.println("   @Override");
+            pw.println("   public " + viewName + " wrap(ByteBuffer newBuffer, int newOffset)");
+            pw.println("   {");
+            pw.println("       super.wrap(newBuffer, newOffset, newOffset);");
+            pw.println("       return this;");
+            pw.println("   }");
+            pw.println();
+            pw.println("   @Override");
+            pw.println("   public " + viewName + " wrap(ByteBuffer newBuffer, int newOffset, int newOrigin)");
+            pw.println("   {");
+            pw.println("       super.wrap(newBuffer, newOffset, newOrigin);");
+            pw.println("       return this;");
+            pw.println("   }");
+            pw.println();
+            pw.println("   /** Advance this view to the record immediately following, such as the next element of a record list");
+            pw.println("     * @return this view */");
+            pw.println("   public " + viewName + " next()");
+            pw.println("   {");
+            pw.println("       return wrap(buffer, offset + getMarshalledSize(), origin);");
+            pw.println("   }");
+            pw.println();
+            pw.println("   @Override");
+            pw.println("   public int getMarshalledSize()");
+            pw.println("   {");
+            if (layout.isPduDescendant())
+                pw.println("       return Short.toUnsignedInt(getLength()); // PDU header length field");
+            else if (layout.isFixedSize())
+                pw.println("       return " + aClass.getName() + ".FIXED_SIZE;");
+            else
+                pw.println("       return " + viewEndExpression(last) + ";");
+            pw.println("   }");
+
+            for (GeneratedClassLayout.Field field : fields)
+                writeViewFieldMethods(pw, layout, field, previousViewField(fields, field));
+
+            pw.println("} // end of " + viewName);
+            pw.flush();
+        }
+    }
+
+    private GeneratedClassLayout.Field previousViewField(List<GeneratedClassLayout.Field> fields, GeneratedClassLayout.Field field)
+    {
+        int index = fields.indexOf(field);
+        return (index > 0) ? fields.get(index - 1) : null;
+    }
+
+    private boolean viewFieldNeedsScratch(GeneratedClassLayout.Field field)
+    {
+        ClassAttributeType kind = field.getAttribute().getAttributeKind();
+        return (kind == ClassAttributeType.CLASSREF && !field.isFixedSize()) ||
+               (kind == ClassAttributeType.OBJECT_LIST && (field.getElementSizeExpression() == null));
+    }
+
+    /** @return qualified name of a layout constant of field, as written by {@link #writeLayoutConstants} in its declaring class */
+    private String layoutConstant(GeneratedClassLayout.Field field, String suffix)
+    {
+        return field.getDeclaringClass().getName() + "." + field.getConstantPrefix() + suffix;
+    }
+
+    /** @return expression for offset of field relative to start of record */
+    private String viewOffsetReference(GeneratedClassLayout.Field field)
+    {
+        return field.isFixedOffset() ? layoutConstant(field, "_OFFSET") : "offsetOf" + initialCapital(field.getName()) + "()";
+    }
+
+    /** @return expression for size of field */
+    private String viewSizeReference(GeneratedClassLayout.Field field)
+    {
+        return field.isFixedSize() ? layoutConstant(field, "_SIZE") : "sizeOf" + initialCapital(field.getName()) + "()";
+    }
+
+    /** @return expression for offset of first byte after field */
+    private String viewEndExpression(GeneratedClassLayout.Field field)
+    {
+        return viewOffsetReference(field) + " + " + viewSizeReference(field);
+    }
+
+    /** @return expression reading the count field of a list, as a number of elements */
+    private String viewCountExpression(GeneratedClassLayout layout, GeneratedClassLayout.Field listField)
+    {
+        String countFieldName = listField.getAttribute().getCountFieldName();
+        GeneratedClassLayout.Field countField = null;
+        for (GeneratedClassLayout.Field field : layout.getFields())
+        {
+            if (field == listField)
+                break;
+            if (field.getAttribute().getName().equals(countFieldName))
+                countField = field; // nearest preceding declaration
+        }
+        if (countField == null)
+        {
+            System.err.println("*** view of " + layout.getGeneratedClass().getName() + " cannot find count field " + countFieldName);
+            return "0";
+        }
+        String read;
+        if (primitiveSizesMap.get(countField.getAttribute().getType()) == 8)
+             read = "(int) buffer.getLong(offset + " + viewOffsetReference(countField) + ")";
+        else read = "unsignedValue(offset + " + viewOffsetReference(countField) + ", " + viewSizeReference(countField) + ")";
+        return listField.isCountInBits() ? "(" + read + " + 7) / 8" : read;
+    }
+
+    private void writeViewFieldMethods(PrintWriter pw, GeneratedClassLayout layout, GeneratedClassLayout.Field field, GeneratedClassLayout.Field previous)
+    {
+        GeneratedClassAttribute anAttribute = field.getAttribute();
+        String name     = field.getName();
+        String capped   = initialCapital(name);
+        String type     = anAttribute.getType();
+        String position = "offset + " + viewOffsetReference(field);
+        String link     = "{@link " + field.getDeclaringClass().getName() + "#" + anAttribute.getName() + "}";
+
+        if (!field.isFixedOffset())
+        {
+            pw.println();
+            pw.println("   private int offsetOf" + capped + "()");
+            pw.println("   {");
+            pw.println("       return " + viewEndExpression(previous) + ";");
+            pw.println("   }");
+        }
+        if (!field.isFixedSize())
+        {
+            pw.println();
+            pw.println("   private int sizeOf" + capped + "()");
+            pw.println("   {");
+            switch (anAttribute.getAttributeKind())
+            {
+                case CLASSREF:
+                    pw.println("       if (" + name + "Scratch == null)");
+                    pw.println("           " + name + "Scratch = new " + type + "View();");
+                    pw.println("       return " + name + "Scratch.wrap(buffer, " + position + ", origin).getMarshalledSize();");
+                    break;
+                case PRIMITIVE_LIST:
+                    pw.println("       return get" + capped + "Count() * " + field.getElementSizeExpression() + ";");
+                    break;
+                case OBJECT_LIST:
+                    if (field.getElementSizeExpression() != null)
+                        pw.println("       return get" + capped + "Count() * (" + field.getElementSizeExpression() + ");");
+                    else
+                    {
+                        pw.println("       if (" + name + "Scratch == null)");
+                        pw.println("           " + name + "Scratch = new " + type + "View();");
+                        pw.println("       int start = " + position + ";");
+                        pw.println("       int end   = start;");
+                        pw.println("       for (int idx = 0, count = get" + capped + "Count(); idx < count; idx++)");
+                        pw.println("           end += " + name + "Scratch.wrap(buffer, end, origin).getMarshalledSize();");
+                        pw.println("       return end - start;");
+                    }
+                    break;
+                case PADTO16:
+                    pw.println("       return padding(" + position + " - origin, 2);");
+                    break;
+                case PADTO32:
+                    pw.println("       return padding(" + position + " - origin, 4);");
+                    break;
+                case PADTO64:
+                    pw.println("       return padding(" + position + " - origin, 8);");
+                    break;
+                default:
+                    break;
+            }
+            pw.println("   }");
+        }
+        if (anAttribute.isHidden())
+            return;
+
+        switch (anAttribute.getAttributeKind())
+        {
+            case PRIMITIVE:
+                String javaType = types.getProperty(type);
+                pw.println();
+                pw.println("   /** Getter for " + link);
+                pw.println("     * @return value of interest */");
+                pw.println("   public " + javaType + " get" + capped + "()");
+                pw.println("   {");
+                pw.println("       return buffer.get" + (javaType.equals("byte") ? "" : initialCapital(javaType)) + "(" + position + ");");
+                pw.println("   }");
+                break;
+
+            case SISO_ENUM:
+                pw.println();
+                pw.println("   /** Getter for " + link);
+                pw.println("     * @return enumeration of interest, or null if value is not defined for this enumeration */");
+                pw.println("   public " + type + " get" + capped + "()");
+                pw.println("   {");
+                pw.println("       return " + type + ".getEnumForValue(get" + capped + "Value());");
+                pw.println("   }");
+                writeViewValueGetter(pw, link, capped, position, viewSizeReference(field));
+                break;
+
+            case SISO_BITFIELD:
+                writeViewValueGetter(pw, link, capped, position, viewSizeReference(field));
+                break;
+
+            case CLASSREF:
+                if (field.isExternalByteRecord())
+                {
+                    writeViewValueGetter(pw, link, capped, position, viewSizeReference(field));
+                    break;
+                }
+                pw.println();
+                pw.println("   /** Getter for " + link + ", positioning a reusable view without allocation");
+                pw.println("     * @param view view to reposition");
+                pw.println("     * @return same view positioned at this field */");
+                pw.println("   public " + type + "View get" + capped + "(" + type + "View view)");
+                pw.println("   {");
+                pw.println("       return view.wrap(buffer, " + position + ", origin);");
+                pw.println("   }");
+                pw.println();
+                pw.println("   /** Getter for " + link);
+                pw.println("     * @return new view positioned at this field */");
+                pw.println("   public " + type + "View get" + capped + "()");
+                pw.println("   {");
+                pw.println("       return get" + capped + "(new " + type + "View());");
+                pw.println("   }");
+                break;
+
+            case PRIMITIVE_LIST:
+                String elementType = types.getProperty(type);
+                pw.println();
+                pw.println("   /** Number of elements in " + link);
+                pw.println("     * @return number of elements */");
+                pw.println("   public int get" + capped + "Count()");
+                pw.println("   {");
+                if (anAttribute.getCountFieldName() == null)
+                    pw.println("       return " + anAttribute.getListLength() + ";");
+                else
+                    pw.println("       return " + viewCountExpression(layout, field) + ";");
+                pw.println("   }");
+                pw.println();
+                pw.println("   /** Getter for one element of " + link);
+                pw.println("     * @param index element index");
+                pw.println("     * @return value of interest */");
+                pw.println("   public " + elementType + " get" + capped + "(int index)");
+                pw.println("   {");
+                pw.println("       Objects.checkIndex(index, get" + capped + "Count());");
+                pw.println("       return buffer.get" + (elementType.equals("byte") ? "" : initialCapital(elementType)) +
+                           "(" + position + " + index * " + field.getElementSizeExpression() + ");");
+                pw.println("   }");
+                break;
+
+            case OBJECT_LIST:
+                pw.println();
+                pw.println("   /** Number of elements in " + link);
+                pw.println("     * @return number of elements */");
+                pw.println("   public int get" + capped + "Count()");
+                pw.println("   {");
+                pw.println("       return " + viewCountExpression(layout, field) + ";");
+                pw.println("   }");
+                if (anAttribute.getUnderlyingTypeIsEnum() || anAttribute.getUnderlyingTypeIsBitfield())
+                {
+                    String elementPosition = position + " + index * (" + field.getElementSizeExpression() + ")";
+                    if (anAttribute.getUnderlyingTypeIsEnum())
+                    {
+                        pw.println();
+                        pw.println("   /** Getter for one element of " + link);
+                        pw.println("     * @param index element index");
+                        pw.println("     * @return enumeration of interest, or null if value is not defined for this enumeration */");
+                        pw.println("   public " + type + " get" + capped + "(int index)");
+                        pw.println("   {");
+                        pw.println("       return " + type + ".getEnumForValue(get" + capped + "Value(index));");
+                        pw.println("   }");
+                    }
+                    pw.println();
+                    pw.println("   /** Getter for raw value of one element of " + link);
+                    pw.println("     * @param index element index");
+                    pw.println("     * @return unsigned numeric value */");
+                    pw.println("   public int get" + capped + "Value(int index)");
+                    pw.println("   {");
+                    pw.println("       Objects.checkIndex(index, get" + capped + "Count());");
+                    pw.println("       return unsignedValue(" + elementPosition + ", " + field.getElementSizeExpression() + ");");
+                    pw.println("   }");
+                    break;
+                }
+                pw.println();
+                pw.println("   /** Cursor over " + link + ", positioning a reusable view at the first element.");
+                pw.println("     * Advance with next(), at most get" + capped + "Count() elements are present.");
+                pw.println("     * @param view view to reposition");
+                pw.println("     * @return same view positioned at first element */");
+                pw.println("   public " + type + "View get" + capped + "(" + type + "View view)");
+                pw.println("   {");
+                pw.println("       return view.wrap(buffer, " + position + ", origin);");
+                pw.println("   }");
+                if (field.getElementSizeExpression() != null)
+                {
+                    pw.println();
+                    pw.println("   /** Getter for one element of " + link + ", positioning a reusable view without allocation");
+                    pw.println("     * @param index element index");
+                    pw.println("     * @param view view to reposition");
+                    pw.println("     * @return same view positioned at element */");
+                    pw.println("   public " + type + "View get" + capped + "(int index, " + type + "View view)");
+                    pw.println("   {");
+                    pw.println("       Objects.checkIndex(index, get" + capped + "Count());");
+                    pw.println("       return view.wrap(buffer, " + position + " + index * " + field.getElementSizeExpression() + ", origin);");
+                    pw.println("   }");
+                }
+                break;
+
+            default:
+                break; // padding has no getter
+        }
+    }
+
+    private void writeViewValueGetter(PrintWriter pw, String link, String capped, String position, String size)
+    {
+        pw.println();
+        pw.println("   /** Getter for raw value of " + link);
+        pw.println("     * @return unsigned numeric value */");
+        pw.println("   public int get" + capped + "Value()");
+        pw.println("   {");
+        pw.println("       return unsignedValue(" + position + ", " + size + ");");
+        pw.println("   }");
+    }
+
+    /**
+     * Generate static patcher classes, named by appending Layout to each class name, for example EntityStatePduLayout.
+     * Patchers overwrite fields at fixed offsets directly within a serialized ByteBuffer, using the offset constants
+     * of the corresponding view class, so that relays can rewrite timestamps or identifiers without a full round trip.
+     * Classes without any patchable field get no layout class.
+     * @return number of layout classes written
+     */
+    private int writeLayoutClasses()
+    {
+        AtomicInteger layoutCount = new AtomicInteger();
+        forEachInParallelMode(getLayouts().values(), layout -> {
+            GeneratedClass aClass = layout.getGeneratedClass();
+            if (aClass.getName().endsWith("FamilyPdu") || !layout.isResolved())
+                return; // no view class either, see writeViewClasses()
+            List<GeneratedClassLayout.Field> patchableFields = new ArrayList<>();
+            for (GeneratedClassLayout.Field field : layout.getFields())
+            {
+                if (isPatchableField(layout, field))
+                    patchableFields.add(field);
+            }
+            if (patchableFields.isEmpty())
+                return;
+            String layoutPackageName = languageProperties.getProperty("package");
+            String layoutFullPath = getGeneratedSourceDirectoryName() + "/" +
+                                    ((layoutPackageName != null) ? layoutPackageName.replace(".", "/") + "/" : "") +
+                                    aClass.getName() + "Layout.java";
+            try
+            {
+                File outputFile = new File(layoutFullPath);
+                outputFile.getParentFile().mkdirs();
+                PrintWriter pw = generatedFiles.newPrintWriter(outputFile);
+                writeLayoutClass(pw, aClass, patchableFields);
+                layoutCount.incrementAndGet();
+            }
+            catch (UncheckedIOException e) {
+                e.printStackTrace(System.err);
+                System.err.println("error creating layout source code " + e);
+            }
+        });
+        return layoutCount.get();
+    }
+
+    /**
+     * Write one source file per item, concurrently when parallel generation is enabled.
+     * Each item opens its own PrintWriter; shared generator state is only read.
+     * @see GeneratedFiles#forEach(Collection, GeneratedFiles.Action)
+     */
+    private <T> void forEachInParallelMode(Collection<T> items, GeneratedFiles.Action<T> action)
+    {
+        try {
+            GeneratedFiles.forEach(items, action);
+        }
+        catch (IOException e) {
+            e.printStackTrace(System.err);
+            System.err.println("error creating source code " + e);
+        }
+    }
+
+    /**
+     * Whether a field can be overwritten in place: a visible primitive, enumeration, bitfield or single-byte record
+     * at a fixed offset, which is not the count of a following list
+     */
+    private boolean isPatchableField(GeneratedClassLayout layout, GeneratedClassLayout.Field field)
+    {
+        GeneratedClassAttribute anAttribute = field.getAttribute();
+        if (!field.isFixedOffset() || anAttribute.isHidden())
+            return false;
+        switch (anAttribute.getAttributeKind())
+        {
+            case PRIMITIVE:
+            case SISO_ENUM:
+            case SISO_BITFIELD:
+                break;
+            case CLASSREF:
+                if (field.isExternalByteRecord())
+                    break;
+                return false; // nested records are patched through their own layout class
+            default:
+                return false;
+        }
+        for (GeneratedClassLayout.Field other : layout.getFields())
+        {
+            ClassAttributeType kind = other.getAttribute().getAttributeKind();
+            if (((kind == ClassAttributeType.PRIMITIVE_LIST) || (kind == ClassAttributeType.OBJECT_LIST)) &&
+                anAttribute.getName().equals(other.getAttribute().getCountFieldName()))
+                return false; // changing a count would desynchronize the list that follows
+        }
+        return true;
+    }
+
+    /**
+     * Generate one static patcher class, providing a getter and setter per patchable field.
+     * Offsets and sizes refer to the layout constants of the declaring classes, see {@link #writeLayoutConstants}.
+     */
+    private void writeLayoutClass(PrintWriter pw, GeneratedClass aClass, List<GeneratedClassLayout.Field> patchableFields)
+    {
+        String layoutName = aClass.getName() + "Layout";
+        String viewName   = aClass.getName() + "View";
+        try (pw) {
+            writeLicense(pw, aClass);
+            String packageName = languageProperties.getProperty("package");
+            if (packageName != null)
+                pw.println("package " + packageName + ";");
+            pw.println();
+            pw.println("import java.nio.ByteBuffer;");
+            pw.println("import edu.nps.moves.dis7.enumerations.*;");
+            pw.println();
+            pw.println("/**");
+            pw.println(" * Static patchers reading and overwriting fields at fixed offsets of a serialized {@link " + aClass.getName() + "} in place.");
+            pw.println(" * Nested records are patched through their own layout class at the offset given by " + aClass.getName() + ",");
+            pw.println(" * for example EntityIDLayout.setSiteID(byteBuffer, offset + EntityStatePdu.ENTITY_ID_OFFSET, site).");
+            pw.println(" * <p>Autogenerated by JavaGenerator.writeLayoutClass() from the same XML layout as " + aClass.getName() + ".</p>");
+            pw.println(" * @see DisRecordLayout");
+            pw.println(" * @see " + viewName);
+            pw.println(" */");
+            pw.println("public final class " + layoutName + " extends DisRecordLayout");
+            pw.println("{");
+            pw.println("   private " + layoutName + "()");
+            pw.println("   {");
+            pw.println("   }");
+
+            for (GeneratedClassLayout.Field field : patchableFields)
+                writeLayoutFieldMethods(pw, aClass, field);
+
+            pw.println("} // end of " + layoutName);
+            pw.flush();
+        }
+    }
+
+    private void writeLayoutFieldMethods(PrintWriter pw, GeneratedClass aClass, GeneratedClassLayout.Field field)
+    {
+        GeneratedClassAttribute anAttribute = field.getAttribute();
+        String capped   = initialCapital(field.getName());
+        String type     = anAttribute.getType();
+        String position = "offset + " + layoutConstant(field, "_OFFSET");
+        String size     = layoutConstant(field, "_SIZE");
+        String link     = "{@link " + field.getDeclaringClass().getName() + "#" + anAttribute.getName() + "}";
+        String params   = "     * @param byteBuffer buffer holding serialized " + aClass.getName() + "\n" +
+                          "     * @param offset index of first byte of " + aClass.getName() + " within byteBuffer";
+
+        if (anAttribute.getAttributeKind() == ClassAttributeType.PRIMITIVE)
+        {
+            String javaType = types.getProperty(type);
+            String accessor = javaType.equals("byte") ? "" : initialCapital(javaType);
+            pw.println();
+            pw.println("   /** Getter for " + link);
+            pw.println(params);
+            pw.println("     * @return value of interest */");
+            pw.println("   public static " + javaType + " get" + capped + "(ByteBuffer byteBuffer, int offset)");
+            pw.println("   {");
+            pw.println("       return byteBuffer.get" + accessor + "(" + position + ");");
+            pw.println("   }");
+            pw.println();
+            pw.println("   /** Setter overwriting " + link + " in place");
+            pw.println(params);
+            pw.println("     * @param newValue value of interest */");
+            pw.println("   public static void set" + capped + "(ByteBuffer byteBuffer, int offset, " + javaType + " newValue)");
+            pw.println("   {");
+            pw.println("       byteBuffer.put" + accessor + "(" + position + ", newValue);");
+            pw.println("   }");
+            return;
+        }
+        if (anAttribute.getAttributeKind() == ClassAttributeType.SISO_ENUM)
+        {
+            pw.println();
+            pw.println("   /** Setter overwriting " + link + " in place");
+            pw.println(params);
+            pw.println("     * @param newValue enumeration of interest */");
+            pw.println("   public static void set" + capped + "(ByteBuffer byteBuffer, int offset, " + type + " newValue)");
+            pw.println("   {");
+            pw.println("       putUnsignedValue(byteBuffer, " + position + ", " + size + ", newValue.getValue());");
+            pw.println("   }");
+        }
+        pw.println();
+        pw.println("   /** Getter for raw value of " + link);
+        pw.println(params);
+        pw.println("     * @return unsigned numeric value */");
+        pw.println("   public static int get" + capped + "Value(ByteBuffer byteBuffer, int offset)");
+        pw.println("   {");
+        pw.println("       return unsignedValue(byteBuffer, " + position + ", " + size + ");");
+        pw.println("   }");
+        pw.println();
+        pw.println("   /** Setter overwriting raw value of " + link + " in place");
+        pw.println(params);
+        pw.println("     * @param newValue unsigned numeric value */");
+        pw.println("   public static void set" + capped + "Value(ByteBuffer byteBuffer, int offset, int newValue)");
+        pw.println("   {");
+        pw.println("       putUnsignedValue(byteBuffer, " + position + ", " + size + ", newValue);");
+        pw.println("   }");
+    }
+
     /** Additional methods of interest for Pdu class */
     private void writePduUtilityMethods(PrintWriter pw, GeneratedClass aClass)
     {
@@ -753,7 +1141,7 @@ public class JavaGenerator extends AbstractGenerator
             .append("  * @see edu.nps.moves.dis7.utilities.DisTime\n")
             .append("  * @param newTimestamp new timestamp in seconds\n")
             .append("  * @return same object to permit progressive setters */\n")
-            .append("public synchronized Pdu setTimestampSeconds(double newTimestamp)\n")
+            .append("public " + synchronizedModifier + "Pdu setTimestampSeconds(double newTimestamp)\n")
             .append("{\n")
             .append("    timestamp = (int) ((newTimestamp * 3600.0) / Integer.MAX_VALUE);\n")
             .append("    return this;\n")
@@ -834,7 +1222,7 @@ public class JavaGenerator extends AbstractGenerator
             .append("    * @param direction using Directions enumerations\n")
             .append("    * @see Direction\n")
             .append("    * @return same object to permit progressive setters */\n")
-            .append("  public final synchronized EntityStatePdu setEntityLinearVelocity (float speed, Direction direction)\n")
+            .append("  public final " + synchronizedModifier + "EntityStatePdu setEntityLinearVelocity (float speed, Direction direction)\n")
             .append("  {\n")
             .append("      float xFactor = 0.0f;\n")
             .append("      float yFactor = 0.0f;\n")
@@ -884,7 +1272,7 @@ public class JavaGenerator extends AbstractGenerator
             .append("     * @param y location\n")
             .append("     * @param z location\n")
             .append("     * @return same object to permit progressive setters */\n")
-            .append("   public synchronized EntityStatePdu setEntityLocation(double x, double y, double z)\n")
+            .append("   public " + synchronizedModifier + "EntityStatePdu setEntityLocation(double x, double y, double z)\n")
             .append("   {\n")
             .append("       // TODO autogenerate such utility constructors\n")
             .append("       entityLocation = new Vector3Double().setX(x).setY(y).setZ(z);\n")
@@ -909,7 +1297,7 @@ public class JavaGenerator extends AbstractGenerator
             .append("      * @param theta new value of interest\n")
             .append("      * @param psi new value of interest\n")
             .append("      * @return same object to permit progressive setters */\n")
-            .append("    public synchronized EntityStatePdu setEntityOrientation(float phi, float theta, float psi)\n")
+            .append("    public " + synchronizedModifier + "EntityStatePdu setEntityOrientation(float phi, float theta, float psi)\n")
             .append("    {\n")
             .append("        // TODO autogenerate such utility constructors\n")
             .append("        EulerAngles pEntityOrientation = new EulerAngles();\n")
@@ -920,7 +1308,7 @@ public class JavaGenerator extends AbstractGenerator
                 
             .append("   /** Marking utility to clear character values\n")
             .append("    * @return same object to permit progressive setters */\n")
-            .append("    public synchronized EntityStatePdu clearMarking()\n")
+            .append("    public " + synchronizedModifier + "EntityStatePdu clearMarking()\n")
             .append("   {\n")
             .append("       byte[] emptyByteArray = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};\n")
             .append("       marking.setCharacters(emptyByteArray);\n")
@@ -930,7 +1318,7 @@ public class JavaGenerator extends AbstractGenerator
             .append("    /** Marking utility to set character values, 11 characters maximum\n")
             .append("    *@param newMarking new 11-character string to assign as marking value\n")
             .append("    * @return same object to permit progressive setters */\n")
-            .append("   public synchronized EntityStatePdu setMarking(String newMarking)\n")
+            .append("   public " + synchronizedModifier + "EntityStatePdu setMarking(String newMarking)\n")
             .append("   {\n")
             .append("       if ((newMarking == null) || newMarking.isEmpty())\n")
             .append("           clearMarking();\n")
@@ -1060,7 +1448,12 @@ public class JavaGenerator extends AbstractGenerator
         pw.println("/**");
         if (aClass.getClassComments() != null)
             pw.println(" * " + aClass.getClassComments());
-        
+
+        if (!generateSynchronizedMethods)
+        {
+            pw.println(" * <p>Thread safety: methods are not synchronized. Confine each instance to a single thread,");
+            pw.println(" * or hand another thread a copy made by its owning thread, rather than sharing one instance.</p>");
+        }
         pw.println(" * "+specSourceTemplate);
         pw.println(" */");
     }
@@ -1087,6 +1480,22 @@ public class JavaGenerator extends AbstractGenerator
           pw.println("   {");
           pw.println("       super();");
           pw.println("   }");
+          pw.println();
+          pw.println("   /** Copy constructor for alias invokes superclass");
+          pw.println("     * @param source instance to copy");
+          pw.println("     */");
+          pw.println("   public "+aClass.getName()+" ("+aClass.getName()+" source)");
+          pw.println("   {");
+          pw.println("       super(source);");
+          pw.println("   }");
+          pw.println();
+          pw.println("   /** copy method creates a deep copy of current object, field by field without marshalling");
+          pw.println("     * @return deep copy of PDU */");
+          pw.println("   @Override");
+          pw.println("   public " + synchronizedModifier + aClass.getName() + " copy()");
+          pw.println("   {");
+          pw.println("       return new " + aClass.getName() + "(this);");
+          pw.println("   }");
           pw.println("}");
           return;
         }
@@ -1107,6 +1516,256 @@ public class JavaGenerator extends AbstractGenerator
         pw.println("{");
     }
 
+    /** Cached result of getConcretePduTypes() */
+    private Map<String, String> concretePduTypes = null;
+
+    /**
+     * Concrete PDU classes in the XML model, including aliases, sorted by name
+     * @return key = class name, value = DisPduType constant expression from pduType initial value
+     */
+    private Map<String, String> getConcretePduTypes()
+    {
+        if (concretePduTypes != null)
+            return concretePduTypes;
+        Map<String, String> pduTypes = new TreeMap<>();
+        for (GeneratedClass aClass : classDescriptions.values())
+        {
+            GeneratedClass typedClass = (aClass.getAliasFor() != null) ? classDescriptions.get(aClass.getAliasFor()) : aClass;
+            if ((typedClass == null) || typedClass.isAbstract() || !aClass.getName().endsWith("Pdu"))
+                continue;
+            for (GeneratedInitialValue anInit : typedClass.getInitialValues())
+            {
+                if (anInit.getVariable().equals("pduType"))
+                    pduTypes.put(aClass.getName(), anInit.getVariableValue());
+            }
+        }
+        concretePduTypes = pduTypes;
+        return pduTypes;
+    }
+
+    /**
+     * Write Pdu predicates that test the pduType header field, either against a single enumeration value or,
+     * for PDU families and reliable PDUs, against a bit mask of pduType values precomputed once per class load.
+     * @param pw PrintWriter
+     */
+    private void writePduTypePredicates(PrintWriter pw)
+    {
+        Map<String, String> pduTypes = getConcretePduTypes();
+        Map<String, Set<String>> familyPduTypes = new TreeMap<>();
+        Set<String> reliablePduTypes = new TreeSet<>();
+        for (Map.Entry<String, String> entry : pduTypes.entrySet())
+        {
+            GeneratedClass aClass = classDescriptions.get(entry.getKey());
+            if (aClass.getAliasFor() != null)
+                continue;
+            if (aClass.getName().endsWith("RPdu"))
+                reliablePduTypes.add(entry.getValue());
+            for (GeneratedClass currentClass = aClass; currentClass != null; currentClass = classDescriptions.get(currentClass.getParentClass()))
+            {
+                if (currentClass.getName().endsWith("FamilyPdu"))
+                    familyPduTypes.computeIfAbsent(currentClass.getName(), k -> new TreeSet<>()).add(entry.getValue());
+            }
+        }
+
+        pw.println();
+        pw.println("    //  =================");
+        pw.println();
+        pw.println("    /** Bit mask of a set of pduType values, one bit for each unsigned 8-bit value");
+        pw.println("      * @param pduTypes members of set");
+        pw.println("      * @return bit mask for {@link #isPduTypeIn(long[])} */");
+        pw.println("    protected static long[] pduTypeMask(DisPduType... pduTypes)");
+        pw.println("    {");
+        pw.println("        long[] mask = new long[4];");
+        pw.println("        for (DisPduType aPduType : pduTypes)");
+        pw.println("            mask[aPduType.getValue() >>> 6] |= 1L << aPduType.getValue();");
+        pw.println("        return mask;");
+        pw.println("    }");
+        pw.println();
+        pw.println("    /** Whether the pduType header field of this instance is a member of a set, in constant time");
+        pw.println("      * @param mask bit mask from {@link #pduTypeMask(DisPduType...)}");
+        pw.println("      * @return whether pduType is in set */");
+        pw.println("    protected boolean isPduTypeIn(long[] mask)");
+        pw.println("    {");
+        if (generateLazyEnums)
+            pw.println("        int value = pduTypeValue;");
+        else
+        {
+            pw.println("        DisPduType aPduType = pduType;");
+            pw.println("        if (aPduType == null)");
+            pw.println("            return false;");
+            pw.println("        int value = aPduType.getValue();");
+        }
+        pw.println("        return (mask[(value >>> 6) & 3] & (1L << value)) != 0;");
+        pw.println("    }");
+        pw.println();
+        writePduTypeMask(pw, "RELIABLE_PDU_TYPES", "reliable PDUs with guaranteed delivery", reliablePduTypes);
+        for (Map.Entry<String, Set<String>> entry : familyPduTypes.entrySet())
+            writePduTypeMask(pw, GeneratedClassLayout.constantName(entry.getKey()) + "_TYPES", "PDUs inheriting from " + entry.getKey(), entry.getValue());
+
+        pw.println("    //  =================");
+        pw.println();
+        pw.println("    /** Whether this instance is a Reliable Pdu with guaranteed delivery, tested using the pduType header field");
+        pw.println("    * @return whether reliable */");
+        pw.println("    public boolean isReliablePdu ()");
+        pw.println("    {");
+        pw.println("      return isPduTypeIn(RELIABLE_PDU_TYPES);");
+        pw.println("    }");
+        for (String familyName : familyPduTypes.keySet())
+        {
+            pw.println();
+            pw.println("    /** Whether this instance has a " + familyName + " superclass, tested using the pduType header field");
+            pw.println("      * @return whether this supertype is inherited */");
+            pw.println("    public boolean is" + familyName + "() { return isPduTypeIn(" + GeneratedClassLayout.constantName(familyName) + "_TYPES); }");
+        }
+        pw.println();
+        pw.println("    //  =================");
+        for (Map.Entry<String, String> entry : pduTypes.entrySet())
+        {
+            pw.println();
+            pw.println("    /** Whether this instance is an " + entry.getKey() + ", tested using the pduType header field");
+            pw.println("    * @return whether this type of Pdu */");
+            if (generateLazyEnums)
+                pw.println("  public boolean is" + entry.getKey() + "() { return pduTypeValue == " + entry.getValue() + ".getValue(); }");
+            else
+                pw.println("  public boolean is" + entry.getKey() + "() { return pduType == " + entry.getValue() + "; }");
+        }
+        pw.println();
+    }
+
+    private void writePduTypeMask(PrintWriter pw, String maskName, String description, Set<String> members)
+    {
+        pw.println("    /** pduType values of " + description + " */");
+        pw.println("    private static final long[] " + maskName + " = pduTypeMask(");
+        Iterator<String> iterator = members.iterator();
+        while (iterator.hasNext())
+            pw.println("        " + iterator.next() + (iterator.hasNext() ? "," : ""));
+        pw.println("    );");
+        pw.println();
+    }
+
+    /**
+     * Write accept() method for {@link PduVisitor} dispatch, in Pdu and in each concrete PDU class
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     */
+    private void writeAcceptMethod(PrintWriter pw, GeneratedClass aClass)
+    {
+        boolean isPdu = aClass.getName().equals("Pdu");
+        if (!isPdu && (aClass.isAbstract() || !getConcretePduTypes().containsKey(aClass.getName())))
+            return;
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Dispatch this PDU to the visitor method for its class, using a single virtual call");
+        pw.println(" * @param visitor handler of interest");
+        pw.println(" */");
+        if (!isPdu)
+            pw.println("@Override");
+        pw.println("public void accept(PduVisitor visitor)");
+        pw.println("{");
+        pw.println("    visitor.visit" + (isPdu ? "Pdu" : aClass.getName()) + "(this);");
+        pw.println("}");
+    }
+
+    /**
+     * Write PduVisitor interface, with one default method for each concrete PDU class
+     */
+    private void writePduVisitor()
+    {
+        String packageName = languageProperties.getProperty("package");
+        File outputFile = new File(getGeneratedSourceDirectoryName() + "/" + packageName.replace(".", "/") + "/PduVisitor.java");
+        try (PrintWriter pw = generatedFiles.newPrintWriter(outputFile))
+        {
+            pw.println("/**");
+            pw.println(" * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.");
+            pw.println(" * This work is provided under a BSD open-source license, see project license.html and license.txt");
+            pw.println(" */");
+            pw.println();
+            pw.println("// autogenerated using JavaGenerator writePduVisitor()");
+            pw.println("package " + packageName + ";");
+            pw.println();
+            pw.println("/**");
+            pw.println(" * Visitor over concrete PDU classes, so that consumers route a received PDU with one virtual call");
+            pw.println(" * to {@link Pdu#accept(PduVisitor)} rather than chains of type tests.");
+            pw.println(" * Every method defaults to {@link #visitPdu(Pdu)}, so implementations override only the PDUs of interest.");
+            pw.println(" * Alias classes such as reliable PDUs are dispatched to the method for the class they alias.");
+            pw.println(" */");
+            pw.println("public interface PduVisitor");
+            pw.println("{");
+            pw.println("    /** Handle a PDU for which no more specific method is overridden, does nothing unless overridden");
+            pw.println("      * @param pdu PDU of interest */");
+            pw.println("    default void visitPdu(Pdu pdu)");
+            pw.println("    {");
+            pw.println("    }");
+            for (String pduName : getConcretePduTypes().keySet())
+            {
+                if (classDescriptions.get(pduName).getAliasFor() != null)
+                    continue;
+                pw.println();
+                pw.println("    /** Handle a {@link " + pduName + "}");
+                pw.println("      * @param pdu PDU of interest */");
+                pw.println("    default void visit" + pduName + "(" + pduName + " pdu)");
+                pw.println("    {");
+                pw.println("        visitPdu(pdu);");
+                pw.println("    }");
+            }
+            pw.println("}");
+        }
+        catch (UncheckedIOException e) {
+            e.printStackTrace(System.err);
+            System.err.println("error creating source code " + e);
+        }
+    }
+
+    /**
+     * Initial value of a SISO enumeration attribute
+     * @param anAttribute SISO_ENUM attribute of interest
+     * @return enumeration constant expression
+     */
+    private String enumDefaultValue(GeneratedClassAttribute anAttribute)
+    {
+        if (anAttribute.getDefaultValue() == null)
+            return anAttribute.getType() + ".values()[0]";
+        return anAttribute.getDefaultValue();
+    }
+
+    /**
+     * After unmarshalling the Domain of a record with an entity kind, such as EntityType, resolve the domain
+     * within the enumeration family of that kind, since munitions and supplies have their own domain enumerations.
+     * Entity kind precedes domain on the wire, so it is already unmarshalled.
+     */
+    private void writeDomainEntityKind(PrintWriter pw, GeneratedClass aClass, GeneratedClassAttribute anAttribute, String indent)
+    {
+        if (!anAttribute.getType().equals("Domain"))
+            return;
+        for (GeneratedClassAttribute kindAttribute : aClass.getClassAttributes())
+        {
+            if (kindAttribute.getAttributeKind().equals(ClassAttributeType.SISO_ENUM) && kindAttribute.getType().equals("EntityKind"))
+            {
+                String kind = kindAttribute.getName();
+                pw.println(indent + anAttribute.getName() + ".setEntityKind(" +
+                           (generateLazyEnums ? "EntityKind.getEnumForValue(" + kind + "Value)" : kind) + ");");
+                return;
+            }
+        }
+    }
+
+    /** @return name of constant holding the default value of an attribute, see {@link #writeDefaultConstant} */
+    private String defaultConstantName(GeneratedClassAttribute anAttribute)
+    {
+        return GeneratedClassLayout.constantName(anAttribute.getName()) + "_DEFAULT";
+    }
+
+    /**
+     * Write a constant holding the default value of an attribute, which initializes the field and which reset()
+     * restores without allocation. Call before writing the field comment, so that comment stays above its field.
+     * The constant itself is never modified, initializers and reset() copy its value into the field object.
+     */
+    private void writeDefaultConstant(PrintWriter pw, String type, GeneratedClassAttribute anAttribute, String value)
+    {
+        pw.println("   /** default value of {@link #" + anAttribute.getName() + "}, also restored by reset() */");
+        pw.println("   private static final " + type + " " + defaultConstantName(anAttribute) + " = " + value + ";");
+    }
+
     /**
      * Write instance variables (ivars)
      * @param pw PrintWriter
@@ -1167,7 +1826,10 @@ public class JavaGenerator extends AbstractGenerator
                 case CLASSREF:
                     attributeType = anAttribute.getType();
                     String initialClass = anAttribute.getInitialClass(); // most often null
+                    boolean hasDefaultConstant = !anAttribute.getName().startsWith("iFFPduLayer") && (anAttribute.getDefaultValue() != null);
 
+                    if (hasDefaultConstant) // written ahead of the field comment, which belongs to the field
+                        writeDefaultConstant(pw, attributeType, anAttribute, anAttribute.getDefaultValue());
                     if ((anAttribute.getComment() != null) && !anAttribute.getComment().trim().isEmpty())
                     {
                         pw.println("   /** " + anAttribute.getComment() + " */");
@@ -1177,10 +1839,10 @@ public class JavaGenerator extends AbstractGenerator
                     if (anAttribute.getName().startsWith("iFFPduLayer")) {
                     	pw.println("   " + fieldaccess + " " + attributeType + "  " + anAttribute.getName() + "; \n");
                     }
-                    else if(anAttribute.getDefaultValue() == null)
+                    else if (!hasDefaultConstant)
                         pw.println("   " + fieldaccess + " " + attributeType + "  " + anAttribute.getName() + " = new " + (initialClass == null ? attributeType : initialClass) + "(); \n");
-                    else
-                        pw.println("   " + fieldaccess + " " + attributeType + "  " + anAttribute.getName() + " =  " + anAttribute.getDefaultValue() + "; \n");
+                    else // copy, since the constant is shared
+                        pw.println("   " + fieldaccess + " " + attributeType + "  " + anAttribute.getName() + " = new " + attributeType + "(" + defaultConstantName(anAttribute) + "); \n");
                     break;
 
                 // The attribute is a fixed list, ie an array of some type--maybe primitve, maybe a class.
@@ -1224,20 +1886,31 @@ public class JavaGenerator extends AbstractGenerator
 //            }
                 case SISO_ENUM:
                     className = anAttribute.getType();
+                    String enumDefault = enumDefaultValue(anAttribute);
+                    if (anAttribute.getDefaultValue() == null) // values() allocates, so constructors and reset() use a constant
+                    {
+                        writeDefaultConstant(pw, className, anAttribute, enumDefault);
+                        enumDefault = defaultConstantName(anAttribute);
+                    }
                     if ((anAttribute.getComment() != null) && !anAttribute.getComment().trim().isEmpty())
                     {
                         pw.println("   /** " + anAttribute.getComment() + " */");
                     }
                     else pw.println("   /** " + anAttribute.getName() + " is an undescribed parameter... */");
 
-                    if (anAttribute.getDefaultValue() == null)
-                        pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = " + className + ".values()[0];\n");
-                    else
-                        pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = " + anAttribute.getDefaultValue() + ";\n");
+                    if (generateLazyEnums)
+                    {
+                        pw.println("   " + fieldaccess + " int " + anAttribute.getName() + "Value = " + enumDefault + ".getValue();\n");
+                        pw.println("   /** " + anAttribute.getName() + " resolved from raw value on first access, null until then or if value is not defined for " + className + " */");
+                        pw.println("   private transient " + className + " " + anAttribute.getName() + " = " + enumDefault + ";\n");
+                    }
+                    else pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = " + enumDefault + ";\n");
                     break;
 
                 case SISO_BITFIELD:
                     className = anAttribute.getType();
+                    if (anAttribute.getDefaultValue() != null) // written ahead of the field comment, which belongs to the field
+                        writeDefaultConstant(pw, className, anAttribute, anAttribute.getDefaultValue());
                     if ((anAttribute.getComment() != null) && !anAttribute.getComment().trim().isEmpty())
                     {
                         pw.println("   /** " + anAttribute.getComment() + " */");
@@ -1246,8 +1919,8 @@ public class JavaGenerator extends AbstractGenerator
 
                     if (anAttribute.getDefaultValue() == null)
                         pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = new " + className + "();\n");
-                    else
-                        pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = " + anAttribute.getDefaultValue() + ";\n");
+                    else // copy, since the constant is shared
+                        pw.println("   " + fieldaccess + " " + className + " " + anAttribute.getName() + " = DisBitSet.copyOf(" + defaultConstantName(anAttribute) + ");\n");
                     break;
                     
                 case PADTO16:
@@ -1269,14 +1942,12 @@ public class JavaGenerator extends AbstractGenerator
   
     private void writeCopyMethods(PrintWriter pw, GeneratedClass aClass)
     {
-        int BYTE_BUFFER_SIZE = 400; // TODO what is expected max buffer size?
-        
         if (aClass.getName().equals(("Pdu")))
         {
             pw.println("    /** Create deep copy of current object using PduFactory.");
             pw.println("     * @return deep copy of PDU");
             pw.println("     */");
-            pw.println("     public synchronized Pdu copyByPduFactory()");
+            pw.println("     public " + synchronizedModifier + "Pdu copyByPduFactory()");
             pw.println("     {");
             pw.println("         PduFactory pduFactory = new PduFactory();");
             pw.println("         Pdu newPdu = null; // initialize empty as placeholder");
@@ -1291,27 +1962,34 @@ public class JavaGenerator extends AbstractGenerator
             pw.println("         }");
             pw.println("         return newPdu;");
             pw.println("     }");
+            pw.println();
+            pw.println("    /** Create deep copy of current object, field by field where the subclass provides a copy constructor,");
+            pw.println("     * otherwise using PduFactory.");
+            pw.println("     * @return deep copy of PDU");
+            pw.println("     */");
+            pw.println("     public " + synchronizedModifier + "Pdu copy()");
+            pw.println("     {");
+            pw.println("         return copyByPduFactory();");
+            pw.println("     }");
         }
         else if (aClass.getName().endsWith("Pdu") && !aClass.getName().equals(("Pdu"))&& !aClass.isAbstract())
         {
-            pw.println("/** copy method creates a deep copy of current object using preferred marshalling method");
+            pw.println("/** copy method creates a deep copy of current object, field by field without marshalling");
             pw.println(" * @return deep copy of PDU */");
-            pw.println(" public synchronized " + aClass.getName() + " copy()");
+            pw.println(" @Override");
+            pw.println(" public " + synchronizedModifier + aClass.getName() + " copy()");
             pw.println(" {");
-            pw.println("     return copyDataOutputStream();");
+            pw.println("     return new " + aClass.getName() + "(this);");
             pw.println(" }");
+            pw.println();
             pw.println("/** Creates a \"deep copy\" of current object using ByteBuffer methods.");
             pw.println(" * @return deep copy of PDU */");
-            pw.println(" public synchronized " + aClass.getName() + " copyByteBuffer()");
+            pw.println(" public " + synchronizedModifier + aClass.getName() + " copyByteBuffer()");
             pw.println(" {");
-//          pw.println("     PduFactory pduFactory = new PduFactory();");
-//          pw.println("     EntityStatePdu newCopy = pduFactory.make" + aClass.getName() + "();");
             pw.println("     " + aClass.getName() + " newCopy = new " + aClass.getName() + "();");
-            pw.println("     ByteBuffer byteBuffer = ByteBuffer.allocate(" + BYTE_BUFFER_SIZE + ");");
             pw.println("     try");
             pw.println("     {");
-            pw.println("         this.marshal(byteBuffer);      // working");
-            pw.println("         newCopy.unmarshal(byteBuffer); // not working");
+            pw.println("         newCopy.unmarshal(MarshalBuffers.marshal(this));");
             pw.println("     }");
             pw.println("     catch (Exception e)");
             pw.println("     {");
@@ -1322,26 +2000,16 @@ public class JavaGenerator extends AbstractGenerator
             pw.println("     return newCopy;");
             pw.println(" }");
             pw.println();
-            
-            pw.println("/** byteArrayOutputStream (baos) is used for marshal/unmarshal serialization");
-            pw.println("   * @see copyDataOutputStream() */");
-            pw.println("protected ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();");
-            pw.println("/** dataOutputStream (dos) is used for marshal/unmarshal serialization");
-            pw.println("   * @see copyDataOutputStream() */");
-            pw.println("protected DataOutputStream      dataOutputStream      = new DataOutputStream(byteArrayOutputStream);");
-            pw.println();
             pw.println("/** copy method creates a deep copy of current object using DataOutputStream methods.");
             pw.println(" * @return deep copy of PDU */");
-            pw.println(" public synchronized " + aClass.getName() + " copyDataOutputStream()");
+            pw.println(" public " + synchronizedModifier + aClass.getName() + " copyDataOutputStream()");
             pw.println(" {");
-//            pw.println("     PduFactory pduFactory = new PduFactory();");
             pw.println("     " + aClass.getName() + " newCopy = new " + aClass.getName() + "();");
-//            pw.println("     DataOutputStream dos = new DataOutputStream(new ByteArrayOutputStream());");
             pw.println("     try");
             pw.println("     {");
-            pw.println("         this.marshal(dataOutputStream);");
-            pw.println("         byte[] byteArrayDOS = byteArrayOutputStream.toByteArray();");
-            pw.println("         newCopy.unmarshal(ByteBuffer.wrap(byteArrayDOS));");
+            pw.println("         ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream(getMarshalledSize());");
+            pw.println("         this.marshal(new DataOutputStream(byteArrayOutputStream));");
+            pw.println("         newCopy.unmarshal(ByteBuffer.wrap(byteArrayOutputStream.toByteArray()));");
             pw.println("     }");
             pw.println("     catch (Exception e)");
             pw.println("     {");
@@ -1349,21 +2017,117 @@ public class JavaGenerator extends AbstractGenerator
             pw.println("         e.printStackTrace(System.err);");
             pw.println("         System.exit(-1); // TODO: Abruptly ending VM not a good practice");
             pw.println("     }");
-
-            pw.println("        try");
-            pw.println("        {");
-            pw.println("                 dataOutputStream.flush();");
-            pw.println("            byteArrayOutputStream.flush();");
-            pw.println("            byteArrayOutputStream.reset();");
-            pw.println("        }");
-            pw.println("        catch (IOException ioe)");
-            pw.println("        {");
-            pw.println("            System.err.println(\"" + aClass.getName() + " copyDataOutputStream() flush IOException: \" + ioe.getMessage());");
-            pw.println("        }");
             pw.println("     return newCopy;");
             pw.println(" }");
         }
     }
+
+    /**
+     * Write copy constructor and copyFrom() method, which copy the XML attribute model field by field.
+     * Nested records, arrays and list elements already present in the destination are reused,
+     * so that copying into a pooled instance does not allocate.
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     */
+    private void writeCopyConstructor(PrintWriter pw, GeneratedClass aClass)
+    {
+        String className = aClass.getName();
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Copy constructor creates a deep copy of the source instance");
+        pw.println(" * @param source instance to copy");
+        pw.println(" * @see #copyFrom(" + className + ")");
+        pw.println(" */");
+        pw.println(" public " + className + "(" + className + " source)");
+        pw.println(" {");
+        pw.println("     this();");
+        pw.println("     copyFrom(source);");
+        pw.println(" }");
+
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Deep copy all fields of the source instance into this instance, reusing nested records, arrays and list elements.");
+        pw.println(" * @param source instance to copy");
+        pw.println(" * @return same object to permit progressive setters");
+        pw.println(" */");
+        pw.println("public " + synchronizedModifier + className + " copyFrom(" + className + " source)");
+        pw.println("{");
+        pw.println("    if (source == this)");
+        pw.println("        return this;");
+        if (!aClass.getParentClass().equalsIgnoreCase("root"))
+            pw.println("    super.copyFrom(source);");
+
+        for (GeneratedClassAttribute anAttribute : aClass.getClassAttributes())
+        {
+            if (anAttribute.shouldSerialize == false)
+                continue;
+            String name = anAttribute.getName();
+            String type = anAttribute.getType();
+            switch (anAttribute.getAttributeKind())
+            {
+                case SISO_ENUM:
+                    if (generateLazyEnums)
+                        pw.println("    " + name + "Value = source." + name + "Value;");
+                    pw.println("    " + name + " = source." + name + ";");
+                    break;
+
+                case PRIMITIVE:
+                case PADTO16: // shared zero-filled arrays, see Align.padding()
+                case PADTO32:
+                case PADTO64:
+                    pw.println("    " + name + " = source." + name + ";");
+                    break;
+
+                case SISO_BITFIELD:
+                    pw.println("    " + name + " = DisBitSet.copyOf(source." + name + ", " + name + "); // reuses existing bit field");
+                    break;
+
+                case CLASSREF:
+                    pw.println("    if (source." + name + " == null)");
+                    pw.println("        " + name + " = null;");
+                    pw.println("    else if (" + name + " == null)");
+                    pw.println("        " + name + " = new " + type + "(source." + name + ");");
+                    pw.println("    else " + name + ".copyFrom(source." + name + ");");
+                    break;
+
+                case PRIMITIVE_LIST:
+                    pw.println("    if ((source." + name + " != null) && (" + name + " != null) && (" + name + ".length == source." + name + ".length))");
+                    pw.println("        System.arraycopy(source." + name + ", 0, " + name + ", 0, " + name + ".length);");
+                    pw.println("    else " + name + " = (source." + name + " == null) ? null : source." + name + ".clone();");
+                    break;
+
+                case OBJECT_LIST:
+                    if (anAttribute.getUnderlyingTypeIsEnum())
+                    {
+                        pw.println("    " + name + ".clear();");
+                        pw.println("    " + name + ".addAll(source." + name + ");");
+                    }
+                    else if (anAttribute.getUnderlyingTypeIsBitfield())
+                    {
+                        pw.println("    " + name + ".clear();");
+                        pw.println("    for (" + type + " listElement : source." + name + ")");
+                        pw.println("        " + name + ".add(DisBitSet.copyOf(listElement));");
+                    }
+                    else
+                    {
+                        pw.println("    for (int idx = 0; idx < source." + name + ".size(); idx++)");
+                        pw.println("    {");
+                        pw.println("        if (idx < " + name + ".size())");
+                        pw.println("            " + name + ".get(idx).copyFrom(source." + name + ".get(idx)); // reuse existing element");
+                        pw.println("        else " + name + ".add(new " + type + "(source." + name + ".get(idx)));");
+                        pw.println("    }");
+                        pw.println("    if (" + name + ".size() > source." + name + ".size())");
+                        pw.println("        " + name + ".subList(source." + name + ".size(), " + name + ".size()).clear();");
+                    }
+                    break;
+
+                default:
+                    break;
+            }
+        }
+        pw.println("    return this;");
+        pw.println("}");
+    }
   
     private void writeConstructor(PrintWriter pw, GeneratedClass aClass)
     {
@@ -1372,7 +2136,17 @@ public class JavaGenerator extends AbstractGenerator
         pw.println("/** Constructor creates and configures a new instance object */");
         pw.println(" public " + aClass.getName() + "()");
         pw.println(" {");
+        writeInitialValueSetters(pw, aClass);
+        pw.println(" }");    
+    }
 
+    /**
+     * Write setter invocations for initial values declared in the XML for this class, used by constructor and reset()
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     */
+    private void writeInitialValueSetters(PrintWriter pw, GeneratedClass aClass)
+    {
         // Set primitive types with initial values
         for (GeneratedInitialValue anInit : aClass.getInitialValues()) {
 
@@ -1396,21 +2170,115 @@ public class JavaGenerator extends AbstractGenerator
                         break;
                     }
 
-                }
-                currentClass = classDescriptions.get(currentClass.getParentClass());
-            }
-            if (!found) {
-                System.out.println("Could not find initial value matching attribute name ("+attName+" for " + anInit.getVariable() + " in class " + aClass.getName());
-            }
-            else {
-                if(aKind == ClassAttributeType.SISO_ENUM)
-                    pw.println("    " + anInit.getSetterMethodName() + "( " + anInit.getVariableValue() + " );");
-                else
-                    pw.println("    " + anInit.getSetterMethodName() + "( (" + types.getProperty(aType) + ")" + anInit.getVariableValue() + " );");
+                }
+                currentClass = classDescriptions.get(currentClass.getParentClass());
+            }
+            if (!found) {
+                System.out.println("Could not find initial value matching attribute name ("+attName+" for " + anInit.getVariable() + " in class " + aClass.getName());
+            }
+            else {
+                if(aKind == ClassAttributeType.SISO_ENUM)
+                    pw.println("    " + anInit.getSetterMethodName() + "( " + anInit.getVariableValue() + " );");
+                else
+                    pw.println("    " + anInit.getSetterMethodName() + "( (" + types.getProperty(aType) + ")" + anInit.getVariableValue() + " );");
+            }
+        } // End initialize initial values
+    }
+
+    /**
+     * Write reset() method, which returns an instance to its newly constructed state while keeping allocated
+     * nested records, bit fields and list capacity, so that pooled instances can be refilled without garbage.
+     * Default values are copied from constants, see {@link #writeDefaultConstant}; nested records or bit fields
+     * set to null are allocated again.
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     */
+    private void writeResetMethod(PrintWriter pw, GeneratedClass aClass)
+    {
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Return this instance to its newly constructed state, reusing nested records and list capacity.");
+        pw.println(" * Intended for pooled instances, for example prior to populating a PDU for sending.");
+        pw.println(" */");
+        if (!aClass.getParentClass().equalsIgnoreCase("root"))
+            pw.println("@Override");
+        pw.println("public " + synchronizedModifier + "void reset()");
+        pw.println("{");
+        if (!aClass.getParentClass().equalsIgnoreCase("root"))
+            pw.println("    super.reset();");
+
+        for (GeneratedClassAttribute anAttribute : aClass.getClassAttributes())
+        {
+            if (anAttribute.shouldSerialize == false)
+                continue;
+            String name = anAttribute.getName();
+            String defaultValue = anAttribute.getDefaultValue();
+            String javaType;
+            switch (anAttribute.getAttributeKind())
+            {
+                case PRIMITIVE:
+                    javaType = types.getProperty(anAttribute.getType());
+                    pw.println("    " + name + " = (" + javaType + ")" + ((defaultValue == null) ? "0" : defaultValue) + ";");
+                    break;
+
+                case SISO_ENUM:
+                    pw.println("    " + name + " = " + ((defaultValue == null) ? defaultConstantName(anAttribute) : defaultValue) + ";");
+                    if (generateLazyEnums)
+                        pw.println("    " + name + "Value = " + name + ".getValue();");
+                    break;
+
+                case SISO_BITFIELD:
+                    if (defaultValue == null)
+                    {
+                        pw.println("    if (" + name + " == null)");
+                        pw.println("        " + name + " = new " + anAttribute.getType() + "();");
+                        pw.println("    else " + name + ".clear();");
+                    }
+                    else
+                        pw.println("    " + name + " = DisBitSet.copyOf(" + defaultConstantName(anAttribute) + ", " + name + "); // reuses existing bit field");
+                    break;
+
+                case CLASSREF:
+                    if (name.startsWith("iFFPduLayer"))
+                        pw.println("    " + name + " = null;");
+                    else if (defaultValue == null)
+                    {
+                        String initialClass = anAttribute.getInitialClass();
+                        pw.println("    if (" + name + " == null)");
+                        pw.println("        " + name + " = new " + ((initialClass == null) ? anAttribute.getType() : initialClass) + "();");
+                        pw.println("    else " + name + ".reset();");
+                    }
+                    else
+                    {
+                        pw.println("    if (" + name + " == null)");
+                        pw.println("        " + name + " = new " + anAttribute.getType() + "(" + defaultConstantName(anAttribute) + ");");
+                        pw.println("    else " + name + ".copyFrom(" + defaultConstantName(anAttribute) + ");");
+                    }
+                    break;
+
+                case PRIMITIVE_LIST:
+                    javaType = types.getProperty(anAttribute.getType());
+                    pw.println("    if (" + name + ".length == " + anAttribute.getListLength() + ")");
+                    pw.println("        Arrays.fill(" + name + ", (" + javaType + ")0);");
+                    pw.println("    else " + name + " = new " + javaType + "[" + anAttribute.getListLength() + "];");
+                    break;
+
+                case OBJECT_LIST:
+                    pw.println("    " + name + ".clear();");
+                    break;
+
+                case PADTO16:
+                case PADTO32:
+                case PADTO64:
+                    pw.println("    " + name + " = Align.padding(0);");
+                    break;
+
+                default:
+                    break;
             }
-        } // End initialize initial values
-        
-        pw.println(" }");    
+        }
+        writeInitialValueSetters(pw, aClass);
+        pw.println("}");
     }
     
     /**
@@ -1429,7 +2297,16 @@ public class JavaGenerator extends AbstractGenerator
 "   */");
         if (aClass.getName().endsWith("Pdu"))
             printWriter.println("@Override");
-        printWriter.println("public synchronized int getMarshalledSize()");
+        if (getFixedSizeLayout(aClass) != null)
+        {
+            printWriter.println("public int getMarshalledSize()");
+            printWriter.println("{");
+            printWriter.println("   return FIXED_SIZE;");
+            printWriter.println("}");
+            printWriter.println();
+            return;
+        }
+        printWriter.println("public " + synchronizedModifier + "int getMarshalledSize()");
         printWriter.println("{");
         printWriter.println("   int marshalSize = 0; ");
         printWriter.println();
@@ -1440,14 +2317,37 @@ public class JavaGenerator extends AbstractGenerator
         }
 
         for (GeneratedClassAttribute anAttribute : aClass.getClassAttributes()) {
+            GeneratedClassLayout.Field field = getLayoutField(aClass, anAttribute);
+            if ((field != null) && field.isFixedSize())
+            {
+                // size known from layout, no need to visit nested records
+                printWriter.println("   marshalSize += " + field.getSizeExpression() + ";  // " + anAttribute.getName());
+                continue;
+            }
+            if ((field != null) && (anAttribute.getAttributeKind() == ClassAttributeType.OBJECT_LIST) && (field.getElementSizeExpression() != null))
+            {
+                printWriter.println("   if (" + anAttribute.getName() + " != null)");
+                printWriter.println("       marshalSize += " + anAttribute.getName() + ".size() * " + field.getElementSizeExpression() + ";");
+                continue;
+            }
             switch (anAttribute.getAttributeKind()) {
                 case PRIMITIVE:
                     // primitive cannot be null, no checking required
                     printWriter.print("   marshalSize += ");
                     printWriter.println(primitiveSizes.get(anAttribute.getType()) + ";  // " + anAttribute.getName());
                     break;
-                case CLASSREF:
                 case SISO_ENUM:
+                    if (generateLazyEnums)
+                        printWriter.println("   marshalSize += " + anAttribute.getType() + ".getEnumMarshalledSize();  // " + anAttribute.getName());
+                    else
+                    {
+                        // null-checked like a record
+                        printWriter.println("   if (" + anAttribute.getName() + " != null)");
+                        printWriter.print  ("       marshalSize += ");
+                        printWriter.println(anAttribute.getName() + ".getMarshalledSize();");
+                    }
+                    break;
+                case CLASSREF:
                 case SISO_BITFIELD:
                     printWriter.println("   if (" + anAttribute.getName() + " != null)");
                     printWriter.print  ("       marshalSize += ");
@@ -1513,7 +2413,7 @@ public class JavaGenerator extends AbstractGenerator
                         }
                         pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                         pw.println("  * @return same object to permit progressive setters */");
-                        pw.print("public synchronized ");
+                        pw.print("public " + synchronizedModifier);
                         pw.print(aClass.getName());
                         pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + beanType + " p" + this.initialCapital(anAttribute.getName()) + ")");
                         pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1532,7 +2432,7 @@ public class JavaGenerator extends AbstractGenerator
                         }
                         pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                         pw.println("  * @return same object to permit progressive setters */");
-                        pw.print("public synchronized ");
+                        pw.print("public " + synchronizedModifier);
                         pw.print(aClass.getName());
                         pw.print(" set" + this.initialCapital(anAttribute.getName()) + "(" );
                         pw.print("int"); // allow int, will then coerce downcasting to beantype when setting
@@ -1573,7 +2473,7 @@ public class JavaGenerator extends AbstractGenerator
                         pw.println(" * @param p" + this.initialCapital(anAttribute.getName()) + " passed parameter");
                         pw.println(" * @return this object");
                         pw.println(" */");
-                        pw.print("public synchronized ");
+                        pw.print("public " + synchronizedModifier);
                         pw.print(aClass.getName());
                         pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + beanType + " p" + this.initialCapital(anAttribute.getName()) + ")");
                         pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1590,7 +2490,7 @@ public class JavaGenerator extends AbstractGenerator
                     pw.println("/** Setter for {@link "+aClass.getName()+"#"+anAttribute.getName()+"}");
                     pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                     pw.println("  * @return same object to permit progressive setters */");
-                    pw.print("public synchronized ");
+                    pw.print("public " + synchronizedModifier);
                     pw.print(aClass.getName());
                     pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + anAttribute.getType() + " p" + this.initialCapital(anAttribute.getName()) + ")");
                     pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1616,7 +2516,7 @@ public class JavaGenerator extends AbstractGenerator
                     pw.println("/** Setter for {@link "+aClass.getName()+"#"+anAttribute.getName()+"}");
                     pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                     pw.println("  * @return same object to permit progressive setters */");
-                    pw.print("public synchronized ");
+                    pw.print("public " + synchronizedModifier);
                     pw.print(aClass.getName());
                     pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + types.getProperty(anAttribute.getType()) + "[] p" + this.initialCapital(anAttribute.getName()) + ")");
 
@@ -1638,7 +2538,7 @@ public class JavaGenerator extends AbstractGenerator
                     pw.println("/** Setter for {@link "+aClass.getName()+"#"+anAttribute.getName()+"}");
                     pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                     pw.println("  * @return same object to permit progressive setters */");
-                    pw.print("public synchronized ");
+                    pw.print("public " + synchronizedModifier);
                     pw.print(aClass.getName());
                     pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(List<" + anAttribute.getType() + ">" + " p" + this.initialCapital(anAttribute.getName()) + ")");
                     pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1653,11 +2553,16 @@ public class JavaGenerator extends AbstractGenerator
                     break;
 
                 case SISO_ENUM:
+                    if (generateLazyEnums)
+                    {
+                        writeLazyEnumAccessors(pw, aClass, anAttribute);
+                        break;
+                    }
                     String enumtype = anAttribute.getType();
                     pw.println("/** Setter for {@link "+aClass.getName()+"#"+anAttribute.getName()+"}");
                     pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                     pw.println("  * @return same object to permit progressive setters */");
-                    pw.print("public synchronized ");
+                    pw.print("public " + synchronizedModifier);
                     pw.print(aClass.getName());
                     pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + enumtype + " p" + this.initialCapital(anAttribute.getName()) + ")");
                     pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1676,7 +2581,7 @@ public class JavaGenerator extends AbstractGenerator
                     pw.println("/** Setter for {@link "+aClass.getName()+"#"+anAttribute.getName()+"}");
                     pw.println("  * @param p" + this.initialCapital(anAttribute.getName()) + " new value of interest");
                     pw.println("  * @return same object to permit progressive setters */");
-                    pw.print("public synchronized ");
+                    pw.print("public " + synchronizedModifier);
                     pw.print(aClass.getName());
                     pw.println(" set" + this.initialCapital(anAttribute.getName()) + "(" + bitfieldtype + " p" + this.initialCapital(anAttribute.getName()) + ")");
                     pw.println("{\n    " + anAttribute.getName() + " = p" + this.initialCapital(anAttribute.getName()) + ";");
@@ -1693,6 +2598,86 @@ public class JavaGenerator extends AbstractGenerator
         } // End of loop trough writing getter/setter methods
     }
 
+    /**
+     * Write accessors of a SISO enumeration attribute held as raw value: the enumeration getter resolves and caches
+     * on first access, while raw value accessors neither resolve nor lose values undefined for the enumeration.
+     * @param pw PrintWriter
+     * @param aClass class of interest
+     * @param anAttribute SISO_ENUM attribute of interest
+     */
+    private void writeLazyEnumAccessors(PrintWriter pw, GeneratedClass aClass, GeneratedClassAttribute anAttribute)
+    {
+        String enumType = anAttribute.getType();
+        String name     = anAttribute.getName();
+        String capped   = initialCapital(name);
+        String local    = "a" + capped;
+
+        pw.println("/** Setter for {@link "+aClass.getName()+"#"+name+"Value}");
+        pw.println("  * @param p" + capped + " new value of interest, not null");
+        pw.println("  * @return same object to permit progressive setters */");
+        pw.println("public " + synchronizedModifier + aClass.getName() + " set" + capped + "(" + enumType + " p" + capped + ")");
+        pw.println("{");
+        pw.println("    " + name + "Value = p" + capped + ".getValue();");
+        pw.println("    " + name + " = p" + capped + ";");
+        pw.println("    return this;");
+        pw.println("}");
+
+        pw.println("/** Getter for {@link "+aClass.getName()+"#"+name+"Value}, resolved once and cached");
+        pw.println("  * @return value of interest, or null if value is not defined for " + enumType + " */");
+        pw.println("public " + enumType + " get" + capped + "()");
+        pw.println("{");
+        pw.println("    " + enumType + " " + local + " = " + name + ";");
+        pw.println("    if (" + local + " == null)");
+        pw.println("        " + name + " = " + local + " = " + enumType + ".getEnumForValue(" + name + "Value);");
+        pw.println("    return " + local + ";");
+        pw.println("}");
+
+        pw.println("/** Setter for {@link "+aClass.getName()+"#"+name+"Value} as raw value, which need not be defined for " + enumType);
+        pw.println("  * @param p" + capped + "Value new raw value of interest");
+        pw.println("  * @return same object to permit progressive setters */");
+        pw.println("public " + synchronizedModifier + aClass.getName() + " set" + capped + "Value(int p" + capped + "Value)");
+        pw.println("{");
+        pw.println("    " + name + "Value = p" + capped + "Value;");
+        pw.println("    " + name + " = null;");
+        pw.println("    return this;");
+        pw.println("}");
+
+        pw.println("/** Getter for {@link "+aClass.getName()+"#"+name+"Value} as raw value, without resolving " + enumType);
+        pw.println("  * @return raw value as marshalled */");
+        pw.println("public int get" + capped + "Value()");
+        pw.println("{");
+        pw.println("    return " + name + "Value;");
+        pw.println("}");
+        pw.println();
+    }
+
+    /**
+     * Write statement storing unmarshalled enumeration anX at list index idx, overwriting elements of a previous unmarshal
+     * @param pw PrintWriter
+     * @param anAttribute list attribute of interest
+     * @param indent leading whitespace
+     */
+    private void writeListElementStore(PrintWriter pw, GeneratedClassAttribute anAttribute, String indent)
+    {
+        pw.println(indent + "if (idx < " + anAttribute.getName() + ".size())");
+        pw.println(indent + "    " + anAttribute.getName() + ".set(idx, anX);");
+        pw.println(indent + "else " + anAttribute.getName() + ".add(anX);");
+    }
+
+    /**
+     * Write statement removing list elements left over from a previous, longer unmarshal
+     * @param pw PrintWriter
+     * @param anAttribute list attribute of interest
+     */
+    private void writeListTruncation(PrintWriter pw, GeneratedClassAttribute anAttribute)
+    {
+        String countFieldName = anAttribute.getCountFieldName();
+        if (countFieldName == null)
+            return; // loop covers existing elements
+        pw.println("        if (" + anAttribute.getName() + ".size() > " + countFieldName + ")");
+        pw.println("            " + anAttribute.getName() + ".subList(Math.max(" + countFieldName + ", 0), " + anAttribute.getName() + ".size()).clear();");
+    }
+
     /**
      * Some fields have integers with bit fields defined, eg an integer where bits 0-2 represent some value, while bits 3-4 represent another value, and so on. This writes accessor and mutator methods
      * for those fields.
@@ -1739,7 +2724,7 @@ public class JavaGenerator extends AbstractGenerator
                         if (bitfield.description != null) {
                             pw.println("/** \n * " + bitfield.description + "\n */");
                         }
-                        pw.println("public synchronized void set" + cappedIvar + "_" + bitfield.name + "(int val)");
+                        pw.println("public " + synchronizedModifier + "void set" + cappedIvar + "_" + bitfield.name + "(int val)");
                         pw.println("{");
                         pw.println("    " + attributeType + " " + " aVal = 0;");
                         pw.println("    this." + bitfield.parentAttribute.getName() + " &= (" + attributeType + ")(~" + bitfield.mask + "); // clear bits");
@@ -1773,7 +2758,7 @@ public class JavaGenerator extends AbstractGenerator
  
         if (aClass.getName().endsWith("Pdu"))
             pw.println("@Override");
-        pw.println("public synchronized void marshal(DataOutputStream dos) throws Exception");
+        pw.println("public " + synchronizedModifier + "void marshal(DataOutputStream dos) throws Exception");
         pw.println("{");
 
         // If we're a sublcass of another class, we should first call super
@@ -1823,7 +2808,10 @@ public class JavaGenerator extends AbstractGenerator
                 else if(anAttribute.enumMarshalSize.equals("2"))
                     pw.println("       dos.write( (unsigned short)" + anAttribute.getName() + ".getValue() );");
                      */
-                    pw.println("       " + anAttribute.getName() + ".marshal(dos);");
+                    if (generateLazyEnums)
+                        pw.println("       " + anAttribute.getType() + ".marshalValue(dos, " + anAttribute.getName() + "Value);");
+                    else
+                        pw.println("       " + anAttribute.getName() + ".marshal(dos);");
 
                     break;
                     
@@ -1880,13 +2868,13 @@ public class JavaGenerator extends AbstractGenerator
                     break;
                 
                 case PADTO16:
-                    pw.println("       "+anAttribute.getName()+" = new byte[Align.to16bits(dos)];");
+                    pw.println("       "+anAttribute.getName()+" = Align.padding(Align.to16bits(dos));");
                     break;
                 case PADTO32:
-                    pw.println("       "+anAttribute.getName()+" = new byte[Align.to32bits(dos)];");
+                    pw.println("       "+anAttribute.getName()+" = Align.padding(Align.to32bits(dos));");
                     break;
                 case PADTO64:
-                    pw.println("       "+anAttribute.getName()+" = new byte[Align.to64bits(dos)];");
+                    pw.println("       "+anAttribute.getName()+" = Align.padding(Align.to64bits(dos));");
                     break;
                     
             }
@@ -1913,7 +2901,7 @@ public class JavaGenerator extends AbstractGenerator
 
         if (aClass.getName().endsWith("Pdu"))
             pw.println("@Override");
-        pw.println("public synchronized int unmarshal(DataInputStream dis) throws Exception");
+        pw.println("public " + synchronizedModifier + "int unmarshal(DataInputStream dis) throws Exception");
         pw.println("{");
         pw.flush();
         pw.println("    int uPosition = 0;");
@@ -1956,6 +2944,13 @@ public class JavaGenerator extends AbstractGenerator
                     break;
                 
                 case SISO_ENUM:
+                    if (generateLazyEnums)
+                    {
+                        pw.println("        " + attributeName + "Value = " + anAttribute.getType() + ".unmarshalValue(dis);");
+                        pw.println("        " + attributeName + " = null; // resolved on access");
+                        pw.println("        uPosition += " + anAttribute.getType() + ".getEnumMarshalledSize();");
+                        break;
+                    }
                     pw.println("        " + attributeName + " = "+anAttribute.getType()+".unmarshalEnum(dis);");
                     pw.println("        uPosition += " + attributeName + ".getMarshalledSize();");
                     break;
@@ -1969,9 +2964,9 @@ public class JavaGenerator extends AbstractGenerator
                 	else {
                 		pw.println("        uPosition += " + attributeName + ".unmarshal(dis);");
                 	}
+                    writeDomainEntityKind(pw, aClass, anAttribute, "        ");
                 	if (aClass.getName().equals("IFFPdu") && anAttribute.getName().equals("fundamentalParameters")) {
-                    	pw.println("        if (fundamentalParameters.getInformationLayers() != 0)");
-                    	pw.println("        	checkWhichLayersNeedsUnmarshaling();");
+                    	pw.println("        checkWhichLayersNeedsUnmarshaling();");
                     }
                     break;
                     
@@ -2005,16 +3000,21 @@ public class JavaGenerator extends AbstractGenerator
 
                     if(anAttribute.getUnderlyingTypeIsEnum()) {
                         pw.println("            " +anAttribute.getType() + " anX = "+anAttribute.getType() + ".unmarshalEnum(dis);");
-                        pw.println("            " + anAttribute.getName() + ".add(anX);");
+                        writeListElementStore(pw, anAttribute, "            ");
                         pw.println("            uPosition += anX.getMarshalledSize();");
                     }
                     else {
                         marshalType = marshalTypes.getProperty(anAttribute.getType());
 
                         if (marshalType == null) { // It's a class
-                            pw.println("            " + anAttribute.getType() + " anX = new " + anAttribute.getType() + "();");
-                            pw.println("            uPosition += anX.unmarshal(dis);");
-                            pw.println("            " + anAttribute.getName() + ".add(anX);");
+                            pw.println("            if (idx < " + anAttribute.getName() + ".size())");
+                            pw.println("                uPosition += " + anAttribute.getName() + ".get(idx).unmarshal(dis); // reuse element of previous unmarshal");
+                            pw.println("            else");
+                            pw.println("            {");
+                            pw.println("                " + anAttribute.getType() + " anX = new " + anAttribute.getType() + "();");
+                            pw.println("                uPosition += anX.unmarshal(dis);");
+                            pw.println("                " + anAttribute.getName() + ".add(anX);");
+                            pw.println("            }");
                         }
                         else  { // It's a primitive
                             capped = this.initialCapital(marshalType);
@@ -2023,19 +3023,20 @@ public class JavaGenerator extends AbstractGenerator
                         }
                     }
                     pw.println("        }");
+                    writeListTruncation(pw, anAttribute);
                     pw.println();
                     break;
                     
                 case PADTO16:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from16bits(uPosition,dis)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from16bits(uPosition,dis));");
                     pw.println("        uPosition += " + anAttribute.getName() + ".length;");
                     break;
                 case PADTO32:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from32bits(uPosition,dis)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from32bits(uPosition,dis));");
                     pw.println("        uPosition += " + anAttribute.getName() + ".length;");
                     break;
                 case PADTO64:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from64bits(uPosition,dis)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from64bits(uPosition,dis));");
                     pw.println("        uPosition += " + anAttribute.getName() + ".length;");
                     break;                   
             }
@@ -2044,7 +3045,7 @@ public class JavaGenerator extends AbstractGenerator
         pw.println("    }\n    catch(Exception e)");
         pw.println("    { \n      System.err.println(e); \n    }");
         
-        pw.println("    return getMarshalledSize();");
+        pw.println("    return " + ((getFixedSizeLayout(aClass) != null) ? "FIXED_SIZE" : "getMarshalledSize()") + ";");
         pw.println("}\n");
     }
 
@@ -2061,8 +3062,13 @@ public class JavaGenerator extends AbstractGenerator
         pw.println(" */");
         if (aClass.getName().endsWith("Pdu"))
             pw.println("@Override");
-        pw.println("public synchronized void marshal(java.nio.ByteBuffer byteBuffer) throws Exception");
+        pw.println("public " + synchronizedModifier + "void marshal(java.nio.ByteBuffer byteBuffer) throws Exception");
         pw.println("{");
+        if (getFixedSizeLayout(aClass) != null)
+        {
+            pw.println("   if (byteBuffer.remaining() < FIXED_SIZE) // constant-time check, leaves byteBuffer unchanged");
+            pw.println("       throw new java.nio.BufferOverflowException();");
+        }
 
         // If we're a sublcass of another class, we should first call super
         // to make sure the superclass's ivars are marshaled out.
@@ -2101,6 +3107,12 @@ public class JavaGenerator extends AbstractGenerator
                     break;
                     
                 case SISO_ENUM:
+                    if (generateLazyEnums)
+                        pw.println("   " + anAttribute.getType() + ".marshalValue(byteBuffer, " + anAttribute.getName() + "Value);");
+                    else
+                        pw.println("   " + anAttribute.getName() + ".marshal(byteBuffer);" ); // marshalled like a record
+                    break;
+
                 case SISO_BITFIELD:
                 case CLASSREF:
                 	if (anAttribute.getName().startsWith("iFFPduLayer")) {
@@ -2169,13 +3181,13 @@ public class JavaGenerator extends AbstractGenerator
                     break;
                                   
                 case PADTO16:
-                    pw.println("   "+anAttribute.getName()+" = new byte[Align.to16bits(byteBuffer)];");
+                    pw.println("   "+anAttribute.getName()+" = Align.padding(Align.to16bits(byteBuffer));");
                     break;
                 case PADTO32:
-                    pw.println("   "+anAttribute.getName()+" = new byte[Align.to32bits(byteBuffer)];");
+                    pw.println("   "+anAttribute.getName()+" = Align.padding(Align.to32bits(byteBuffer));");
                     break;
                 case PADTO64:
-                    pw.println("   "+anAttribute.getName()+" = new byte[Align.to64bits(byteBuffer)];");
+                    pw.println("   "+anAttribute.getName()+" = Align.padding(Align.to64bits(byteBuffer));");
                     break;
             }   
         } // End of loop through the ivars for a marshal method
@@ -2198,8 +3210,13 @@ public class JavaGenerator extends AbstractGenerator
 
         if (aClass.getName().endsWith("Pdu"))
             pw.println("@Override");
-        pw.println("public synchronized int unmarshal(java.nio.ByteBuffer byteBuffer) throws Exception"); // throws EnumNotFoundException");
+        pw.println("public " + synchronizedModifier + "int unmarshal(java.nio.ByteBuffer byteBuffer) throws Exception"); // throws EnumNotFoundException");
         pw.println("{");
+        if (getFixedSizeLayout(aClass) != null)
+        {
+            pw.println("    if (byteBuffer.remaining() < FIXED_SIZE) // constant-time check, leaves this object unchanged");
+            pw.println("        throw new java.nio.BufferUnderflowException();");
+        }
 
         if(!(aClass.getParentClass().equalsIgnoreCase("root")))
             pw.println("    super.unmarshal(byteBuffer);\n");
@@ -2233,6 +3250,12 @@ public class JavaGenerator extends AbstractGenerator
                     break;
                     
                 case SISO_ENUM:
+                    if (generateLazyEnums)
+                    {
+                        pw.println("        " + anAttribute.getName() + "Value = " + anAttribute.getType() + ".unmarshalValue(byteBuffer);");
+                        pw.println("        " + anAttribute.getName() + " = null; // resolved on access");
+                        break;
+                    }
                     pw.println("        " + anAttribute.getName() + " = "+anAttribute.getType()+".unmarshalEnum(byteBuffer);");
                     break;
                     
@@ -2245,9 +3268,9 @@ public class JavaGenerator extends AbstractGenerator
                 	else {
                 		pw.println("        " + anAttribute.getName() + ".unmarshal(byteBuffer);" );
                 	}
+                    writeDomainEntityKind(pw, aClass, anAttribute, "        ");
                 	if (aClass.getName().equals("IFFPdu") && anAttribute.getName().equals("fundamentalParameters")) {
-                    	pw.println("        if (fundamentalParameters.getInformationLayers() != 0)");
-                    	pw.println("        	checkWhichLayersNeedsUnmarshaling();");
+                    	pw.println("        checkWhichLayersNeedsUnmarshaling();");
                     }
                     break;
 
@@ -2276,15 +3299,20 @@ public class JavaGenerator extends AbstractGenerator
 
                     if(anAttribute.getUnderlyingTypeIsEnum()) {
                         pw.println("        " +anAttribute.getType() + " anX = "+anAttribute.getType() + ".unmarshalEnum(byteBuffer);");
-                        pw.println("        " + anAttribute.getName() + ".add(anX);");
+                        writeListElementStore(pw, anAttribute, "        ");
                     }
                     else {
                         marshalType = marshalTypes.getProperty(anAttribute.getType());
 
                         if(marshalType == null) { // It's a class
-                            pw.println("        " + anAttribute.getType() + " anX = new " + anAttribute.getType() + "();");                           
-                            pw.println("        anX.unmarshal(byteBuffer);");
-                            pw.println("        " + anAttribute.getName() + ".add(anX);");
+                            pw.println("        if (idx < " + anAttribute.getName() + ".size())");
+                            pw.println("            " + anAttribute.getName() + ".get(idx).unmarshal(byteBuffer); // reuse element of previous unmarshal");
+                            pw.println("        else");
+                            pw.println("        {");
+                            pw.println("            " + anAttribute.getType() + " anX = new " + anAttribute.getType() + "();");
+                            pw.println("            anX.unmarshal(byteBuffer);");
+                            pw.println("            " + anAttribute.getName() + ".add(anX);");
+                            pw.println("        }");
                         }
                         else { // It's a primitive  // should be unnecessary now w/ refactor
                             capped = this.initialCapital(marshalType);
@@ -2294,18 +3322,19 @@ public class JavaGenerator extends AbstractGenerator
                         }
                     }
                     pw.println("        }");
+                    writeListTruncation(pw, anAttribute);
                     pw.println();
                     break;
                     
                                     
                 case PADTO16:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from16bits(byteBuffer)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from16bits(byteBuffer));");
                     break;
                 case PADTO32:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from32bits(byteBuffer)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from32bits(byteBuffer));");
                     break;
                 case PADTO64:
-                    pw.println("        "+anAttribute.getName() + " = new byte[Align.from64bits(byteBuffer)];");
+                    pw.println("        "+anAttribute.getName() + " = Align.padding(Align.from64bits(byteBuffer));");
                     break;
             }
         } // End of loop through ivars for writing the unmarshal method
@@ -2315,18 +3344,385 @@ public class JavaGenerator extends AbstractGenerator
         pw.println("    {");
         pw.println("        System.err.println(\"*** buffer underflow error while unmarshalling \" + this.getClass().getName());");
         pw.println("    }");
-        pw.println("    return getMarshalledSize();");
+        pw.println("    return " + ((getFixedSizeLayout(aClass) != null) ? "FIXED_SIZE" : "getMarshalledSize()") + ";");
         pw.println("}\n");
     }
 
     /**
-     * Placed in the {@link Pdu} class, this method provides a convenient
-     * and efficient way to marshal a Pdu.
+     * Whether the offset-based codec methods of a class, marshal(byte[], int), unmarshal(byte[], int) and their
+     * ByteBuffer counterparts, can be generated as straight-line accesses at offsets from the XML layout.  Requires a resolved layout without padding, IFF layers or lists of
+     * enumerations, and the same for the superclass and every referenced record.  Other classes marshal through
+     * a ByteBuffer slice instead.
+     * @param aClass class of interest
+     * @return whether direct offset-based marshalling applies
+     */
+    private boolean hasOffsetCodec(GeneratedClass aClass)
+    {
+        Boolean known = offsetCodecs.get(aClass.getName());
+        if (known != null)
+            return known;
+        offsetCodecs.put(aClass.getName(), Boolean.FALSE); // guard against recursive records
+        boolean result = computeOffsetCodec(aClass);
+        offsetCodecs.put(aClass.getName(), result);
+        return result;
+    }
+
+    private boolean computeOffsetCodec(GeneratedClass aClass)
+    {
+        if (aClass.getAliasFor() != null)
+            return hasOffsetCodec(classDescriptions.get(aClass.getAliasFor()));
+        GeneratedClassLayout layout = getLayouts().get(aClass.getName());
+        if ((layout == null) || !layout.isResolved())
+            return false;
+        if (!aClass.getParentClass().equalsIgnoreCase("root") && !hasOffsetCodec(classDescriptions.get(aClass.getParentClass())))
+            return false;
+        for (GeneratedClassAttribute anAttribute : aClass.getClassAttributes())
+        {
+            if (!anAttribute.shouldSerialize)
+                continue;
+            if (getLayoutField(aClass, anAttribute) == null)
+                return false;
+            GeneratedClass referenced = classDescriptions.get(anAttribute.getType());
+            switch (anAttribute.getAttributeKind())
+            {
+                case PRIMITIVE:
+                case SISO_ENUM:
+                case SISO_BITFIELD:
+                    break;
+                case CLASSREF:
+                    if (anAttribute.getName().startsWith("iFFPduLayer"))
+                        return false; // optional layers
+                    if (!GeneratedClassLayout.EXTERNAL_BYTE_RECORDS.contains(anAttribute.getType()) &&
+                        ((referenced == null) || !hasOffsetCodec(referenced)))
+                        return false;
+                    break;
+                case PRIMITIVE_LIST:
+                    if (!anAttribute.getUnderlyingTypeIsPrimitive())
+                        return false;
+                    break;
+                case OBJECT_LIST:
+                    if (anAttribute.getUnderlyingTypeIsEnum() || anAttribute.getUnderlyingTypeIsBitfield() ||
+                        (referenced == null) || !hasOffsetCodec(referenced))
+                        return false;
+                    break;
+                default:
+                    return false; // padding is relative to start of PDU, see Align
+            }
+        }
+        return true;
+    }
+
+    private void writeMarshalMethodWithByteArray(PrintWriter pw, GeneratedClass aClass)
+    {
+        pw.println("/**");
+        pw.println(" * Packs this object into a byte array in network byte order.");
+        if (hasOffsetCodec(aClass))
+        {
+            pw.println(" * Each field is stored through a big-endian VarHandle, at an offset computed from the XML layout where fixed.");
+            pw.println(" * @throws IndexOutOfBoundsException if dst is too small");
+        }
+        else
+        {
+            pw.println(" * Marshals through a ByteBuffer slice, so that padding is computed from offset.");
+            pw.println(" * @throws java.nio.BufferOverflowException if dst is too small");
+        }
+        pw.println(" * @param dst destination array");
+        pw.println(" * @param offset index of first byte written");
+        pw.println(" * @return number of bytes written");
+        pw.println(" * @throws Exception marshalling error");
+        pw.println(" * @see DisByteArrays");
+        pw.println(" */");
+        if (aClass.getName().endsWith("Pdu"))
+            pw.println("@Override");
+        pw.println("public " + synchronizedModifier + "int marshal(byte[] dst, int offset) throws Exception");
+        pw.println("{");
+        if (hasOffsetCodec(aClass))
+            writeOffsetCodecBody(pw, aClass, true, false);
+        else
+        {
+            pw.println("    java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(dst, offset, dst.length - offset).slice();");
+            pw.println("    marshal(byteBuffer);");
+            pw.println("    return byteBuffer.position();");
+        }
+        pw.println("}");
+        pw.println();
+    }
+
+    private void writeUnmarshallMethodWithByteArray(PrintWriter pw, GeneratedClass aClass)
+    {
+        pw.println("/**");
+        pw.println(" * Unpacks this object from a byte array in network byte order.");
+        if (hasOffsetCodec(aClass))
+        {
+            pw.println(" * Each field is read through a big-endian VarHandle, at an offset computed from the XML layout where fixed.");
+            pw.println(" * @throws IndexOutOfBoundsException if src is too small");
+        }
+        else
+            pw.println(" * Unmarshals through a ByteBuffer slice, so that padding is computed from offset.");
+        pw.println(" * @param src source array");
+        pw.println(" * @param offset index of first byte read");
+        pw.println(" * @return number of bytes read");
+        pw.println(" * @throws Exception unmarshalling error");
+        pw.println(" * @see DisByteArrays");
+        pw.println(" */");
+        if (aClass.getName().endsWith("Pdu"))
+            pw.println("@Override");
+        pw.println("public " + synchronizedModifier + "int unmarshal(byte[] src, int offset) throws Exception");
+        pw.println("{");
+        if (hasOffsetCodec(aClass))
+            writeOffsetCodecBody(pw, aClass, false, false);
+        else
+        {
+            pw.println("    java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(src, offset, src.length - offset).slice();");
+            pw.println("    unmarshal(byteBuffer);");
+            pw.println("    return byteBuffer.position();");
+        }
+        pw.println("}");
+        pw.println();
+    }
+
+    private void writeMarshalMethodWithByteBufferOffset(PrintWriter pw, GeneratedClass aClass)
+    {
+        pw.println("/**");
+        pw.println(" * Packs this object into a ByteBuffer at an absolute index, leaving its position unchanged, so that direct buffers,");
+        pw.println(" * memory-mapped files and shared-memory rings are written in place.  The buffer must have big-endian byte order.");
+        if (hasOffsetCodec(aClass))
+            pw.println(" * Each field is stored at an offset computed from the XML layout where fixed.");
+        else
+            pw.println(" * Marshals through a slice, so that padding is computed from offset.");
+        pw.println(" * @param dst destination buffer, heap, direct or mapped");
+        pw.println(" * @param offset index of first byte written");
+        pw.println(" * @return number of bytes written");
+        pw.println(" * @throws IndexOutOfBoundsException if dst is too small");
+        pw.println(" * @throws Exception marshalling error");
+        pw.println(" */");
+        if (aClass.getName().endsWith("Pdu"))
+            pw.println("@Override");
+        pw.println("public " + synchronizedModifier + "int marshal(java.nio.ByteBuffer dst, int offset) throws Exception");
+        pw.println("{");
+        if (hasOffsetCodec(aClass))
+            writeOffsetCodecBody(pw, aClass, true, true);
+        else
+        {
+            pw.println("    java.nio.ByteBuffer byteBuffer = dst.slice(offset, dst.limit() - offset);");
+            pw.println("    marshal(byteBuffer);");
+            pw.println("    return byteBuffer.position();");
+        }
+        pw.println("}");
+        pw.println();
+    }
+
+    private void writeUnmarshallMethodWithByteBufferOffset(PrintWriter pw, GeneratedClass aClass)
+    {
+        pw.println("/**");
+        pw.println(" * Unpacks this object from a ByteBuffer at an absolute index, leaving its position unchanged, so that direct buffers,");
+        pw.println(" * memory-mapped files and shared-memory rings are read in place.  The buffer must have big-endian byte order.");
+        if (hasOffsetCodec(aClass))
+            pw.println(" * Each field is read at an offset computed from the XML layout where fixed.");
+        else
+            pw.println(" * Unmarshals through a slice, so that padding is computed from offset.");
+        pw.println(" * @param src source buffer, heap, direct or mapped");
+        pw.println(" * @param offset index of first byte read");
+        pw.println(" * @return number of bytes read");
+        pw.println(" * @throws IndexOutOfBoundsException if src is too small");
+        pw.println(" * @throws Exception unmarshalling error");
+        pw.println(" */");
+        if (aClass.getName().endsWith("Pdu"))
+            pw.println("@Override");
+        pw.println("public " + synchronizedModifier + "int unmarshal(java.nio.ByteBuffer src, int offset) throws Exception");
+        pw.println("{");
+        if (hasOffsetCodec(aClass))
+            writeOffsetCodecBody(pw, aClass, false, true);
+        else
+        {
+            pw.println("    java.nio.ByteBuffer byteBuffer = src.slice(offset, src.limit() - offset);");
+            pw.println("    unmarshal(byteBuffer);");
+            pw.println("    return byteBuffer.position();");
+        }
+        pw.println("}");
+        pw.println();
+    }
+
+    /**
+     * Write statements marshalling or unmarshalling each serialized attribute of a class to or from a byte array,
+     * or a ByteBuffer at absolute indices.
+     * Attributes at fixed offsets are addressed as offset + NAME_OFFSET, so that a fixed-size stretch of fields becomes
+     * straight-line code; after the first variable-size attribute a running cursor is used.
+     * A fixed-size class checks bounds once for all fields.
+     */
+    private void writeOffsetCodecBody(PrintWriter pw, GeneratedClass aClass, boolean marshal, boolean buffer)
+    {
+        String array  = marshal ? "dst" : "src";
+        String method = marshal ? "marshal" : "unmarshal";
+        boolean fixedSize = (getFixedSizeLayout(aClass) != null);
+        if (fixedSize)
+            pw.println("    java.util.Objects.checkFromIndexSize(offset, FIXED_SIZE, " + array + (buffer ? ".limit()" : ".length") + "); // one bounds check covering every field");
+
+        boolean cursorLive = false;
+        if (!aClass.getParentClass().equalsIgnoreCase("root"))
+        {
+            if (getFixedSizeLayout(classDescriptions.get(aClass.getParentClass())) != null)
+                pw.println("    super." + method + "(" + array + ", offset);");
+            else
+            {
+                pw.println("    int cursor = offset + super." + method + "(" + array + ", offset);");
+                cursorLive = true;
+            }
+        }
+
+        for (GeneratedClassAttribute anAttribute : aClass.getClassAttributes())
+        {
+            if (!anAttribute.shouldSerialize)
+                continue;
+            GeneratedClassLayout.Field field = getLayoutField(aClass, anAttribute);
+            String name  = anAttribute.getName();
+            String type  = anAttribute.getType();
+            String index = cursorLive ? "cursor" : "offset + " + field.getConstantPrefix() + "_OFFSET";
+            if (!cursorLive && !field.isFixedSize())
+            {
+                pw.println("    int cursor = " + index + ";");
+                cursorLive = true;
+                index = "cursor";
+            }
+            String advance = null; // runtime size, added to cursor once live
+
+            switch (anAttribute.getAttributeKind())
+            {
+                case PRIMITIVE:
+                    String value = name;
+                    if (anAttribute.getIsDynamicListLengthField())
+                        value = anAttribute.getDynamicListClassAttribute().getName() + ".size()";
+                    else if (anAttribute.getIsPrimitiveListLengthField())
+                        value = anAttribute.getDynamicListClassAttribute().getName() + ".length";
+                    if (marshal)
+                        pw.println("    " + offsetStore(type, index, value, buffer) + ";");
+                    else
+                        pw.println("    " + name + " = " + offsetLoad(type, index, buffer) + ";");
+                    advance = primitiveSizes.getProperty(type);
+                    break;
+
+                case SISO_ENUM:
+                    if (marshal)
+                        pw.println("    " + type + ".marshalValue(dst, " + index + ", " + name + (generateLazyEnums ? "Value" : ".getValue()") + ");");
+                    else if (generateLazyEnums)
+                    {
+                        pw.println("    " + name + "Value = " + type + ".unmarshalValue(src, " + index + ");");
+                        pw.println("    " + name + " = null; // resolved on access");
+                    }
+                    else
+                        pw.println("    " + name + " = " + type + ".getEnumForValue(" + type + ".unmarshalValue(src, " + index + "));");
+                    advance = type + ".getEnumMarshalledSize()";
+                    break;
+
+                case SISO_BITFIELD:
+                case CLASSREF:
+                    if (cursorLive)
+                        pw.println("    cursor += " + name + "." + method + "(" + array + ", cursor);");
+                    else
+                        pw.println("    " + name + "." + method + "(" + array + ", " + index + ");");
+                    if (!marshal)
+                        writeDomainEntityKind(pw, aClass, anAttribute, "    ");
+                    break;
+
+                case PRIMITIVE_LIST:
+                    int elementSize = primitiveSizesMap.get(type);
+                    if ((elementSize == 1) && buffer)
+                        pw.println("    " + (marshal ? "dst.put(" : "src.get(") + index + ", " + name + ");");
+                    else if (elementSize == 1)
+                        pw.println("    System.arraycopy(" + (marshal ? name + ", 0, dst, " + index : "src, " + index + ", " + name + ", 0") + ", " + name + ".length);");
+                    else
+                    {
+                        String element = index + " + idx * " + elementSize;
+                        pw.println("    for (int idx = 0; idx < " + name + ".length; idx++)");
+                        if (marshal)
+                            pw.println("        " + offsetStore(type, element, name + "[idx]", buffer) + ";");
+                        else
+                            pw.println("        " + name + "[idx] = " + offsetLoad(type, element, buffer) + ";");
+                    }
+                    advance = name + ".length" + ((elementSize == 1) ? "" : " * " + elementSize);
+                    break;
+
+                case OBJECT_LIST:
+                    if (marshal)
+                    {
+                        pw.println("    for (int idx = 0; idx < " + name + ".size(); idx++)");
+                        pw.println("        cursor += " + name + ".get(idx).marshal(dst, cursor);");
+                        break;
+                    }
+                    String count = (anAttribute.getCountFieldName() != null) ? anAttribute.getCountFieldName() : name + ".size()";
+                    pw.println("    for (int idx = 0; idx < " + count + "; idx++)");
+                    pw.println("    {");
+                    pw.println("        if (idx < " + name + ".size())");
+                    pw.println("            cursor += " + name + ".get(idx).unmarshal(src, cursor); // reuse element of previous unmarshal");
+                    pw.println("        else");
+                    pw.println("        {");
+                    pw.println("            " + type + " anX = new " + type + "();");
+                    pw.println("            cursor += anX.unmarshal(src, cursor);");
+                    pw.println("            " + name + ".add(anX);");
+                    pw.println("        }");
+                    pw.println("    }");
+                    if (anAttribute.getCountFieldName() != null)
+                    {
+                        pw.println("    if (" + name + ".size() > " + count + ")");
+                        pw.println("        " + name + ".subList(Math.max(" + count + ", 0), " + name + ".size()).clear();");
+                    }
+                    break;
+
+                default:
+                    break; // excluded by hasOffsetCodec()
+            }
+            if (cursorLive && (advance != null))
+                pw.println("    cursor += " + advance + ";");
+        }
+
+        if (fixedSize)
+            pw.println("    return FIXED_SIZE;");
+        else if (cursorLive)
+            pw.println("    return cursor - offset;");
+        else
+            pw.println("    return getMarshalledSize();");
+    }
+
+    /** @return statement storing a primitive value of given XML type into dst array or buffer at index */
+    private String offsetStore(String type, String index, String value, boolean buffer)
+    {
+        String javaType = types.getProperty(type);
+        if (buffer)
+            return "dst." + bufferAccessor("put", javaType) + "(" + index + ", (" + javaType + ") " + value + ")";
+        if (javaType.equals("byte"))
+            return "dst[" + index + "] = (byte) " + value;
+        return "DisByteArrays." + javaType.toUpperCase() + ".set(dst, " + index + ", (" + javaType + ") " + value + ")";
+    }
+
+    /** @return expression loading a primitive value of given XML type from src array or buffer at index */
+    private String offsetLoad(String type, String index, boolean buffer)
+    {
+        String javaType = types.getProperty(type);
+        if (buffer)
+            return "src." + bufferAccessor("get", javaType) + "(" + index + ")";
+        if (javaType.equals("byte"))
+            return "src[" + index + "]";
+        return "(" + javaType + ") DisByteArrays." + javaType.toUpperCase() + ".get(src, " + index + ")";
+    }
+
+    /** @return ByteBuffer accessor name for a Java primitive type, e.g. getInt or put */
+    private String bufferAccessor(String prefix, String javaType)
+    {
+        if (javaType.equals("byte"))
+            return prefix;
+        return prefix + Character.toUpperCase(javaType.charAt(0)) + javaType.substring(1);
+    }
+
+    /**
+     * Placed in the {@link Pdu} class, these methods provide convenient
+     * and efficient ways to marshal a Pdu: an exact-size buffer, or directly into a caller-supplied
+     * ByteBuffer or byte array, returning the number of bytes written.
+     * Padding is computed from the start of the PDU, so a destination position that is not 8-byte aligned,
+     * or a destination that is not big-endian, is marshalled through a slice in network byte order.
      *
      * <pre>public java.nio.ByteBuffer marshal() {
-     *     java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.allocate(1500);
-     *     marshal(byteBuffer);
-     *     return byteBuffer.rewind();
+     *     java.nio.ByteBuffer pduBuffer = MarshalBuffers.marshal(this);
+     *     return java.nio.ByteBuffer.allocate(pduBuffer.remaining()).put(pduBuffer).flip();
      * }</pre>
      *
      * @param pw PrintWriter
@@ -2336,15 +3732,54 @@ public class JavaGenerator extends AbstractGenerator
     {
         pw.println();
         pw.println("/**");
-        pw.println(" * A convenience method for marshalling to a ByteBuffer");
-        pw.println(" * @return a ByteBuffer with the marshalled {@link Pdu}");
+        pw.println(" * A convenience method for marshalling to an exact-size ByteBuffer, using a per-thread scratch buffer");
+        pw.println(" * sized by getMarshalledSize()");
+        pw.println(" * @return a ByteBuffer with the marshalled {@link Pdu}, position 0 and limit equal to PDU length");
+        pw.println(" * @throws Exception ByteBuffer-generated exception");
+        pw.println(" * @see MarshalBuffers");
+        pw.println(" */");
+        pw.println("public " + synchronizedModifier + "java.nio.ByteBuffer marshal() throws Exception");
+        pw.println("{");
+        pw.println("    java.nio.ByteBuffer pduBuffer = MarshalBuffers.marshal(this);");
+        pw.println("    return java.nio.ByteBuffer.allocate(pduBuffer.remaining()).put(pduBuffer).flip();");
+        pw.println("}");
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Marshal into a caller-supplied buffer in network byte order, without allocating a new buffer.");
+        pw.println(" * The byte order of dst is ignored and left unchanged.  The buffer position is advanced past the {@link Pdu}.");
+        pw.println(" * @param dst destination buffer, written starting at its current position");
+        pw.println(" * @return number of bytes written");
+        pw.println(" * @throws java.nio.BufferOverflowException if remaining space in dst is insufficient");
         pw.println(" * @throws Exception ByteBuffer-generated exception");
         pw.println(" */");
-        pw.println("public synchronized java.nio.ByteBuffer marshal() throws Exception");
+        pw.println("public " + synchronizedModifier + "int marshalTo(java.nio.ByteBuffer dst) throws Exception");
+        pw.println("{");
+        pw.println("    int start = dst.position();");
+        pw.println("    // padding relative to buffer start matches padding relative to PDU start, otherwise or for another");
+        pw.println("    // byte order write through a slice, which is big-endian");
+        pw.println("    if (((start & 7) == 0) && (dst.order() == java.nio.ByteOrder.BIG_ENDIAN))");
+        pw.println("    {");
+        pw.println("        marshal(dst);");
+        pw.println("        return dst.position() - start;");
+        pw.println("    }");
+        pw.println("    java.nio.ByteBuffer pduBuffer = dst.slice();");
+        pw.println("    marshal(pduBuffer);");
+        pw.println("    dst.position(start + pduBuffer.position());");
+        pw.println("    return pduBuffer.position();");
+        pw.println("}");
+        pw.println();
+        pw.println("/**");
+        pw.println(" * Marshal into a caller-supplied byte array, without allocating a new array.");
+        pw.println(" * Same as {@link #marshal(byte[], int)}, which uses VarHandle access where the PDU layout permits.");
+        pw.println(" * @param dst destination array");
+        pw.println(" * @param offset index of first byte written");
+        pw.println(" * @return number of bytes written");
+        pw.println(" * @throws IndexOutOfBoundsException or java.nio.BufferOverflowException if space in dst following offset is insufficient");
+        pw.println(" * @throws Exception marshalling error");
+        pw.println(" */");
+        pw.println("public " + synchronizedModifier + "int marshalTo(byte[] dst, int offset) throws Exception");
         pw.println("{");
-        pw.println("    java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.allocate(1500);");
-        pw.println("    marshal(byteBuffer);");
-        pw.println("    return byteBuffer.rewind();");
+        pw.println("    return marshal(dst, offset);");
         pw.println("}\n");
     }
   
@@ -2357,7 +3792,7 @@ public class JavaGenerator extends AbstractGenerator
         pw.println();
         if (aclass.getName().endsWith("Pdu"))
             pw.println("@Override");
-        pw.println("public synchronized void marshalXml(PrintWriter textWriter)");
+        pw.println("public " + synchronizedModifier + "void marshalXml(PrintWriter textWriter)");
         pw.println("{");
          
         // If we're a sublcass of another class, we should first call super
@@ -2515,7 +3950,7 @@ public class JavaGenerator extends AbstractGenerator
             pw.println("  * Override of default equals method.  Calls equalsImpl() for content comparison.");
             pw.println("  */");
             pw.println("@Override");
-            pw.println(" public synchronized boolean equals(Object obj)");
+            pw.println(" public " + synchronizedModifier + "boolean equals(Object obj)");
             pw.println(" {");
             pw.println("    if(this == obj)");
             pw.println("      return true;");
@@ -2557,7 +3992,7 @@ public class JavaGenerator extends AbstractGenerator
             else {
                 pw.println("@Override");
             }
-            pw.println(" public synchronized boolean equalsImpl(Object obj)");
+            pw.println(" public " + synchronizedModifier + "boolean equalsImpl(Object obj)");
             pw.println(" {");
             /*
             redundant with equals method above
@@ -2581,7 +4016,10 @@ public class JavaGenerator extends AbstractGenerator
                 break;
 
               case SISO_ENUM:
-                pw.println("     if( ! (" + attname + " == rhs." + attname + ")) return false;");
+                if (generateLazyEnums)
+                    pw.println("     if( ! (" + attname + "Value == rhs." + attname + "Value)) return false;");
+                else
+                    pw.println("     if( ! (" + attname + " == rhs." + attname + ")) return false;");
                 break;
 
               case SISO_BITFIELD:
@@ -2625,7 +4063,7 @@ public class JavaGenerator extends AbstractGenerator
     {
         pw.println();
         pw.println(" @Override");
-        pw.println(" public synchronized String toString()");
+        pw.println(" public " + synchronizedModifier + "String toString()");
         pw.println(" {");
         pw.println("    StringBuilder sb  = new StringBuilder();");
         pw.println("    StringBuilder sb2 = new StringBuilder();");
@@ -2699,7 +4137,12 @@ public class JavaGenerator extends AbstractGenerator
         pw.print  ("    sb.append(\" ");
         pw.print  (attr.getName());
         pw.print(":\").append(");
-        pw.print  (attr.getName());
+        if (generateLazyEnums && (attr.getAttributeKind() == ClassAttributeType.SISO_ENUM))
+        {
+            String getter = "get" + initialCapital(attr.getName()) + "()";
+            pw.print("(" + getter + " != null) ? " + getter + " : \"" + attr.getType() + " \" + " + attr.getName() + "Value + \" undefined\"");
+        }
+        else pw.print(attr.getName());
         pw.println("); // writeOneToString");
         
 //        pw.print("    sb.append(\" ");
@@ -2753,24 +4196,37 @@ public class JavaGenerator extends AbstractGenerator
      */
     private void writeCheckWhichLayersNeedsUnmarshalingMethod(PrintWriter pw) {
     	pw.println("");
-    	pw.println(" /** Does not initialize iFFPduLayerFormatDatas if systemID.getSystemType contains both transponder and interrogator, you need to choose one.*/");
+    	pw.println(" /** Does not initialize iFFPduLayerFormatDatas if systemID.getSystemType contains both transponder and interrogator, you need to choose one.");
+    	pw.println("  *  Layers already present from a previous unmarshal are reused, layers absent from the current PDU are dropped. */");
     	pw.println(" private void checkWhichLayersNeedsUnmarshaling() {");
     	pw.println("	 byte informationLayers = fundamentalParameters.getInformationLayers();\n");
     	for (int i = 2; i < 8; i++) {
     		if (i == 2 || i == 5) {
     	    	pw.println("	 if (((informationLayers & 1 << LAYER_DATA_"+ i +"_BIT_INDEX) > 0)) {");
-    	    	pw.println("	 		iFFPduLayer" + i + "Data = new IFFPduLayer" + i + "Data();");
+    	    	pw.println("	 		if (iFFPduLayer" + i + "Data == null)");
+    	    	pw.println("	 			iFFPduLayer" + i + "Data = new IFFPduLayer" + i + "Data();");
     	    	pw.println("	 }");
+    	    	pw.println("	 else iFFPduLayer" + i + "Data = null;");
     		}
     		else if (i == 3 || i == 4) {
+    	    	pw.println("	 boolean layer" + i + "Transponder = false;");
+    	    	pw.println("	 boolean layer" + i + "Interrogator = false;");
     	    	pw.println("	 if (((informationLayers & 1 << LAYER_DATA_"+ i +"_BIT_INDEX) > 0)) {");
     	    	pw.println("		 if (systemID.getSystemType().toString().contains(TRANSPONDER)) {");
-    	    	pw.println("	 			iFFPduLayer" + i + "TransponderFormatData = new IFFPduLayer" + i + "TransponderFormatData();");
+    	    	pw.println("	 			layer" + i + "Transponder = true;");
+    	    	pw.println("	 			if (iFFPduLayer" + i + "TransponderFormatData == null)");
+    	    	pw.println("	 				iFFPduLayer" + i + "TransponderFormatData = new IFFPduLayer" + i + "TransponderFormatData();");
     	    	pw.println("	 	 }");
     	    	pw.println("	 	 else if (systemID.getSystemType().toString().contains(INTERROGATOR)) {");
-    	    	pw.println("	 			iFFPduLayer" + i + "InterrogatorFormatData = new IFFPduLayer" + i + "InterrogatorFormatData();");
+    	    	pw.println("	 			layer" + i + "Interrogator = true;");
+    	    	pw.println("	 			if (iFFPduLayer" + i + "InterrogatorFormatData == null)");
+    	    	pw.println("	 				iFFPduLayer" + i + "InterrogatorFormatData = new IFFPduLayer" + i + "InterrogatorFormatData();");
     	    	pw.println("	 	 }");
     	    	pw.println("	 }");
+    	    	pw.println("	 if (!layer" + i + "Transponder)");
+    	    	pw.println("	 	iFFPduLayer" + i + "TransponderFormatData = null;");
+    	    	pw.println("	 if (!layer" + i + "Interrogator)");
+    	    	pw.println("	 	iFFPduLayer" + i + "InterrogatorFormatData = null;");
     		}
         }
     	pw.println(" }");
@@ -2789,18 +4245,21 @@ public class JavaGenerator extends AbstractGenerator
         pw.println(" {");
 
         for (int attributeIndex = 0; attributeIndex < classAttributes.size() ;attributeIndex++) {
+        	String hashedField = classAttributes.get(attributeIndex).getName();
+        	if (generateLazyEnums && (classAttributes.get(attributeIndex).getAttributeKind() == ClassAttributeType.SISO_ENUM))
+        		hashedField += "Value"; // raw value, cached enumeration may not be resolved yet
         	if (classAttributes.size() == 1) {
-        		pw.println("	 return Objects.hash(this." + classAttributes.get(attributeIndex).getName() + ");");
+        		pw.println("	 return Objects.hash(this." + hashedField + ");");
         	}
         	else if (attributeIndex == 0) {
-        		pw.println("	 return Objects.hash(this." + classAttributes.get(attributeIndex).getName() + ",");
+        		pw.println("	 return Objects.hash(this." + hashedField + ",");
         	}
         	// Last attribute needs to be without comma and with bracket.
         	else if (attributeIndex == classAttributes.size() - 1) {
-        		pw.println("	                     this." + classAttributes.get(attributeIndex).getName() + ");");
+        		pw.println("	                     this." + hashedField + ");");
         	}
         	else {
-        		pw.println("	                     this." + classAttributes.get(attributeIndex).getName() + ",");
+        		pw.println("	                     this." + hashedField + ",");
         	}
         }
         pw.println(" }");    
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.benchmark;
+
+import edu.nps.moves.dis7.pdus.EntityStatePdu;
+import edu.nps.moves.dis7.pdus.VariableParameter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH comparison of the three codec paths of generated PDU classes, using an Entity State PDU with
+ * two variable parameters: DataOutputStream/DataInputStream, ByteBuffer, and byte array with VarHandle access.
+ * Unmarshal benchmarks decode into one reused instance, so that they measure the codec rather than allocation.
+ * Run with Ant target benchmark.codecs, report written to build/benchmark/codecs.json.
+ * @see edu.nps.moves.dis7.pdus.DisByteArrays
+ * @see <a href="https://github.com/openjdk/jmh" target="_blank">https://github.com/openjdk/jmh</a>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PduCodecBenchmark
+{
+    /** default constructor */
+    public PduCodecBenchmark()
+    {
+    }
+
+    /** populated instance to marshal */
+    EntityStatePdu entityStatePdu;
+
+    /** reused instance to unmarshal into */
+    EntityStatePdu decodedEntityStatePdu;
+
+    /** serialized form of entityStatePdu */
+    byte[] marshalledBytes;
+
+    /** ByteBuffer wrapping marshalledBytes */
+    ByteBuffer marshalledBuffer;
+
+    /** reusable output array */
+    byte[] outputBytes;
+
+    /** ByteBuffer wrapping outputBytes */
+    ByteBuffer outputBuffer;
+
+    /** reusable output stream */
+    ByteArrayOutputStream outputStream;
+
+    /**
+     * Build sample PDU and its serialized form
+     * @throws Exception if marshalling fails
+     */
+    @Setup(Level.Trial)
+    public void setup() throws Exception
+    {
+        entityStatePdu = PduSynchronizationBenchmark.newEntityStatePdu();
+        entityStatePdu.getVariableParameters().add(new VariableParameter());
+        entityStatePdu.getVariableParameters().add(new VariableParameter());
+        decodedEntityStatePdu = new EntityStatePdu();
+
+        int size = entityStatePdu.getMarshalledSize();
+        marshalledBytes  = new byte[size];
+        marshalledBuffer = ByteBuffer.wrap(marshalledBytes);
+        entityStatePdu.marshal(marshalledBytes, 0);
+        outputBytes  = new byte[size];
+        outputBuffer = ByteBuffer.wrap(outputBytes);
+        outputStream = new ByteArrayOutputStream(size);
+    }
+
+    /**
+     * Marshal through DataOutputStream
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if marshalling fails
+     */
+    @Benchmark
+    public void marshalDataOutputStream(Blackhole blackhole) throws Exception
+    {
+        outputStream.reset();
+        entityStatePdu.marshal(new DataOutputStream(outputStream));
+        blackhole.consume(outputStream.size());
+    }
+
+    /**
+     * Marshal into a heap ByteBuffer
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if marshalling fails
+     */
+    @Benchmark
+    public void marshalByteBuffer(Blackhole blackhole) throws Exception
+    {
+        outputBuffer.clear();
+        entityStatePdu.marshal(outputBuffer);
+        blackhole.consume(outputBuffer.position());
+    }
+
+    /**
+     * Marshal into a byte array
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if marshalling fails
+     */
+    @Benchmark
+    public void marshalByteArray(Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(entityStatePdu.marshal(outputBytes, 0));
+    }
+
+    /**
+     * Unmarshal through DataInputStream
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if unmarshalling fails
+     */
+    @Benchmark
+    public void unmarshalDataInputStream(Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(decodedEntityStatePdu.unmarshal(new DataInputStream(new ByteArrayInputStream(marshalledBytes))));
+    }
+
+    /**
+     * Unmarshal from a heap ByteBuffer
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if unmarshalling fails
+     */
+    @Benchmark
+    public void unmarshalByteBuffer(Blackhole blackhole) throws Exception
+    {
+        marshalledBuffer.rewind();
+        blackhole.consume(decodedEntityStatePdu.unmarshal(marshalledBuffer));
+    }
+
+    /**
+     * Unmarshal from a byte array
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if unmarshalling fails
+     */
+    @Benchmark
+    public void unmarshalByteArray(Blackhole blackhole) throws Exception
+    {
+        blackhole.consume(decodedEntityStatePdu.unmarshal(marshalledBytes, 0));
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.benchmark;
+
+import edu.nps.moves.dis7.pdus.EntityStatePdu;
+import edu.nps.moves.dis7.pdus.EntityID;
+import edu.nps.moves.dis7.pdus.EulerAngles;
+import edu.nps.moves.dis7.pdus.Vector3Double;
+import edu.nps.moves.dis7.pdus.Vector3Float;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH comparison of generated PDU classes produced with and without synchronized methods.
+ * The same benchmark source is compiled against whichever generated classes are present in build/classes,
+ * so run it once per generation mode, for example via Ant target benchmark.pdus.compare, and compare the
+ * reports written to build/benchmark.
+ * <ul>
+ *   <li>decode and marshal measure the single-threaded gateway path (thread-confined PDUs)</li>
+ *   <li>setSharedEntityStatePdu measures contention when several threads update one shared instance;
+ *       synchronized mode only, since sharing an unsynchronized PDU between threads is a data race,
+ *       so benchmark.pdus excludes it when xmlpg.synchronized is false</li>
+ * </ul>
+ * @see <a href="https://github.com/openjdk/jmh" target="_blank">https://github.com/openjdk/jmh</a>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PduSynchronizationBenchmark
+{
+    /** default constructor */
+    public PduSynchronizationBenchmark()
+    {
+    }
+
+    /** Per-thread state: a marshalled Entity State PDU and a reusable instance */
+    @State(Scope.Thread)
+    public static class ThreadConfinedState
+    {
+        /** default constructor */
+        public ThreadConfinedState()
+        {
+        }
+
+        /** serialized Entity State PDU used as decode input */
+        ByteBuffer marshalledEntityStatePdu;
+
+        /** thread-confined instance used for marshal and accessor benchmarks */
+        EntityStatePdu entityStatePdu;
+
+        /** reusable output buffer for marshal benchmark */
+        ByteBuffer outputBuffer;
+
+        /**
+         * Build sample PDU and its serialized form
+         * @throws Exception if marshalling fails
+         */
+        @Setup(Level.Trial)
+        public void setup() throws Exception
+        {
+            entityStatePdu = newEntityStatePdu();
+            marshalledEntityStatePdu = ByteBuffer.allocate(entityStatePdu.getMarshalledSize());
+            entityStatePdu.marshal(marshalledEntityStatePdu);
+            marshalledEntityStatePdu.flip();
+            outputBuffer = ByteBuffer.allocate(entityStatePdu.getMarshalledSize());
+        }
+    }
+
+    /** State shared by all benchmark threads */
+    @State(Scope.Benchmark)
+    public static class SharedState
+    {
+        /** default constructor */
+        public SharedState()
+        {
+        }
+
+        /** single instance updated concurrently */
+        EntityStatePdu entityStatePdu;
+
+        /** Build sample PDU */
+        @Setup(Level.Trial)
+        public void setup()
+        {
+            entityStatePdu = newEntityStatePdu();
+        }
+    }
+
+    /**
+     * Representative Entity State PDU
+     * @return new populated instance
+     */
+    static EntityStatePdu newEntityStatePdu()
+    {
+        EntityStatePdu entityStatePdu = new EntityStatePdu();
+        entityStatePdu.setEntityID(new EntityID().setSiteID((short) 1).setApplicationID((short) 2).setEntityID((short) 3));
+        entityStatePdu.setEntityLocation(new Vector3Double().setX(1.0).setY(2.0).setZ(3.0));
+        entityStatePdu.setEntityOrientation(new EulerAngles().setPsi(0.1f).setTheta(0.2f).setPhi(0.3f));
+        entityStatePdu.setEntityLinearVelocity(new Vector3Float().setX(4.0f).setY(5.0f).setZ(6.0f));
+        entityStatePdu.setMarking("BENCH");
+        return entityStatePdu;
+    }
+
+    /**
+     * Decode a received Entity State PDU and read the fields a gateway typically forwards
+     * @param state per-thread state
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if unmarshalling fails
+     */
+    @Benchmark
+    public void decodeEntityStatePdu(ThreadConfinedState state, Blackhole blackhole) throws Exception
+    {
+        state.marshalledEntityStatePdu.rewind();
+        EntityStatePdu entityStatePdu = new EntityStatePdu();
+        entityStatePdu.unmarshal(state.marshalledEntityStatePdu);
+        blackhole.consume(entityStatePdu.getEntityID().getEntityID());
+        blackhole.consume(entityStatePdu.getEntityLocation().getX());
+        blackhole.consume(entityStatePdu.getEntityOrientation().getPsi());
+        blackhole.consume(entityStatePdu.getMarshalledSize());
+    }
+
+    /**
+     * Marshal a thread-confined Entity State PDU
+     * @param state per-thread state
+     * @param blackhole sink preventing dead-code elimination
+     * @throws Exception if marshalling fails
+     */
+    @Benchmark
+    public void marshalEntityStatePdu(ThreadConfinedState state, Blackhole blackhole) throws Exception
+    {
+        state.outputBuffer.clear();
+        state.entityStatePdu.marshal(state.outputBuffer);
+        blackhole.consume(state.outputBuffer.position());
+    }
+
+    /**
+     * Several threads update and size one shared instance, showing monitor contention in synchronized mode.
+     * Synchronized mode only: unsynchronized classes are intended for thread-confined use, and running this
+     * against them measures a data race rather than contention, so Ant target benchmark.pdus excludes it then.
+     * @param state shared state
+     * @param blackhole sink preventing dead-code elimination
+     */
+    @Benchmark
+    @Threads(4)
+    public void setSharedEntityStatePdu(SharedState state, Blackhole blackhole)
+    {
+        state.entityStatePdu.setEntityLocation(1.0, 2.0, 3.0);
+        blackhole.consume(state.entityStatePdu.getMarshalledSize());
+    }
+}
@@ -6,17 +6,20 @@ package edu.nps.moves.dis7.pdus;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.lang.reflect.Method;
+import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Objects;
-import java.lang.reflect.InvocationTargetException;
 
 import edu.nps.moves.dis7.enumerations.*;
 
 /**
  * Which domain does this PDU belong to:
  * An example approximating a Java enum "superclass". Can't use an interface, because we need the two
- * static methods, which can't go into an interface
+ * static methods, which can't go into an interface.
+ * The domain is held as its raw 8-bit value, so that marshalling and unmarshalling are direct single-byte
+ * operations without reflection, and values not defined in the enumeration are preserved byte-exact.
+ * The corresponding enumeration is resolved only when requested, within the enumeration family given by the
+ * entity kind: EntityType sets it from its own entity kind whenever it is unmarshalled, see {@link #setEntityKind}.
+ * Equality depends on the value only, as on the wire.
  * @see AircraftPresentDomain
  * @see AnimalLifeformGroupSizeRangeEnumerationforallDomains
  * @see MunitionDomain
@@ -25,19 +28,26 @@ import edu.nps.moves.dis7.enumerations.*;
  */
 public class Domain
 {
-  private Domain()
+  /** Enumeration families that can provide a Domain value */
+  private enum Family { PLATFORM, MUNITION, SUPPLY }
+
+  private Family family; // resolves value, from inst() or entity kind of owning EntityType
+  private int    value;
+
+  private Domain(Family family, int value)
   {
+    this.family = family;
+    this.value  = value;
   }
 
-  private Object enumInst;
-
-  private Method mSize;
-  private Method marshalBuff;
-  private Method marshalDos;
-  private Method unmarshalBuff;
-  private Method unmarshalDis;
-  private Method getValue;
-  private Method getDescription;
+  /**
+   * Copy constructor
+   * @param source instance to copy
+   */
+  public Domain(Domain source)
+  {
+    this(source.family, source.value);
+  }
 
   //@formatter:off
 
@@ -48,7 +58,7 @@ public class Domain
      */
   public static Domain inst(PlatformDomain d)
   {
-    return _inst(d);
+    return new Domain(Family.PLATFORM, d.getValue());
   }  //  uid 8
 
     /**
@@ -58,7 +68,7 @@ public class Domain
      */
     public static Domain inst(MunitionDomain d)
   {
-    return _inst(d);
+    return new Domain(Family.MUNITION, d.getValue());
   }  //  uid 14
 
     /**
@@ -68,38 +78,38 @@ public class Domain
      */
     public static Domain inst(SupplyDomain d)
   {
-    return _inst(d);
+    return new Domain(Family.SUPPLY, d.getValue());
   }  //  uid 600
 
   //@formatter:on
-  private static Domain _inst(Object o)
+
+    /**
+     * Copy value of the source instance into this instance
+     * @param source instance to copy
+     * @return same object to permit progressive setters
+     */
+  public Domain copyFrom(Domain source)
   {
-    Domain d = new Domain();
-    d.enumInst = o;
-    d.init();
-    return d;
+    family = source.family;
+    value  = source.value;
+    return this;
   }
 
-  private synchronized void init()
+    /**
+     * Set the enumeration family used to resolve this value from the entity kind of the owning EntityType:
+     * munitions and supplies have their own domain enumerations, all other kinds use PlatformDomain
+     * @param entityKind entity kind of interest, null if undefined
+     * @return same object to permit progressive setters
+     */
+    public Domain setEntityKind(EntityKind entityKind)
   {
-    Class<?> c = enumInst.getClass();
-    try {
-      //@formatter:off
-      marshalBuff = c.getDeclaredMethod("marshal", new Class[]{ByteBuffer.class});
-      marshalDos = c.getDeclaredMethod("marshal", new Class[]{DataOutputStream.class});
-      unmarshalBuff = c.getDeclaredMethod("unmarshalEnum", new Class[]{ByteBuffer.class});
-      unmarshalDis = c.getDeclaredMethod("unmarshalEnum", new Class[]{DataInputStream.class});
-      mSize = c.getDeclaredMethod("getMarshalledSize", (Class[]) null);
-      getValue = c.getDeclaredMethod("getValue", (Class[]) null);
-      getDescription = c.getDeclaredMethod("getDescription", (Class[]) null);
-      //@formatter:on
-    }
-    catch (NoSuchMethodException ex)
-    {
-        System.out.flush(); // ensure contiguous console outputs
-        System.err.println("Can't find methods in " + c.getSimpleName());
-        System.err.flush(); // ensure contiguous console outputs
-    }
+    if (entityKind == EntityKind.MUNITION)
+      family = Family.MUNITION;
+    else if (entityKind == EntityKind.SUPPLY)
+      family = Family.SUPPLY;
+    else
+      family = Family.PLATFORM;
+    return this;
   }
 
     /**
@@ -108,7 +118,21 @@ public class Domain
      */
     public int getValue()
   {
-    return (Integer) invoke(getValue, null);
+    return value;
+  }
+
+    /**
+     * Get enumeration for this Domain, resolved from the raw value within the family of its entity kind
+     * @return PlatformDomain, MunitionDomain or SupplyDomain enumeration, or null if value is not defined for that enumeration
+     */
+    public Object getEnum()
+  {
+    switch (family)
+    {
+      case MUNITION: return MunitionDomain.getEnumForValue(value);
+      case SUPPLY:   return SupplyDomain.getEnumForValue(value);
+      default:       return PlatformDomain.getEnumForValue(value);
+    }
   }
 
     /**
@@ -117,7 +141,14 @@ public class Domain
      */
     public String getDescription()
   {
-    return (String) invoke(getDescription, null);
+    Object enumInst = getEnum();
+    if (enumInst instanceof PlatformDomain)
+      return ((PlatformDomain) enumInst).getDescription();
+    if (enumInst instanceof MunitionDomain)
+      return ((MunitionDomain) enumInst).getDescription();
+    if (enumInst instanceof SupplyDomain)
+      return ((SupplyDomain) enumInst).getDescription();
+    return "undefined " + family + " domain " + value;
   }
 
   /**
@@ -125,66 +156,114 @@ public class Domain
    * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
    * @return serialized size in bytes
    */
-    public synchronized int getMarshalledSize()
+    public int getMarshalledSize()
     {
-      return (Integer) invoke(mSize, null);
+      return 1; // 8 bits, as for each domain enumeration
     }
 
     /**
      * Marshall this instance to DataOutputStreem
      * @param dos DataOutputStream
      */
-    public synchronized void marshal(DataOutputStream dos)
+    public void marshal(DataOutputStream dos)
   {
-    invoke(marshalDos, new Object[]{dos});
+    try {
+      dos.writeByte(value);
+    }
+    catch (IOException ex) {
+      throw new RuntimeException("bad marshal", ex);
+    }
   }
 
     /**
      * Marshall this instance to byteBuffer
      * @param byteBuffer The ByteBuffer at the position to begin writing
      */
-    public synchronized void marshal(ByteBuffer byteBuffer)
+    public void marshal(ByteBuffer byteBuffer)
   {
-    invoke(marshalBuff, new Object[]{byteBuffer});
+    byteBuffer.put((byte) value);
   }
 
     /**
      * Deserializes an object from a DataInputStream.
+     * The value is interpreted within the current family, which EntityType then sets from its entity kind.
      * @param dis DataInputStream
      * @see java.io.DataInputStream
      * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
      * @return marshalled serialized size in bytes
      */
-    public synchronized int unmarshal(DataInputStream dis)
+    public int unmarshal(DataInputStream dis)
   {
-    Object o = invoke(unmarshalDis, new Object[]{dis});
-    enumInst = o;
-    init();
+    try {
+      value = dis.readUnsignedByte();
+    }
+    catch (IOException ex) {
+      throw new RuntimeException("bad unmarshal", ex);
+    }
     return getMarshalledSize();
   }
 
     /**
      * Deserializes an object from a ByteBuffer.
+     * The value is interpreted within the current family, which EntityType then sets from its entity kind.
      * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
      * @param byteBuffer The ByteBuffer at the position to begin writing
      * @return marshalled serialized size in bytes
      */
-    public synchronized int unmarshal(ByteBuffer byteBuffer)
+    public int unmarshal(ByteBuffer byteBuffer)
   {
-    Object o = invoke(unmarshalBuff, new Object[]{byteBuffer});
-    enumInst = o;
-    init();
+    value = Byte.toUnsignedInt(byteBuffer.get());
     return getMarshalledSize();
   }
 
-  private Object invoke(Method m, Object[] oa)
+    /**
+     * Marshall this instance to byte array
+     * @param dst array to receive result
+     * @param offset index of byte to write
+     * @return marshalled serialized size in bytes
+     */
+    public int marshal(byte[] dst, int offset)
   {
-    try {
-      return m.invoke(enumInst, oa);
-    }
-    catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-      throw new RuntimeException("bad " + m.getName());
-    }
+    dst[offset] = (byte) value;
+    return getMarshalledSize();
+  }
+
+    /**
+     * Deserializes an object from a byte array.
+     * The value is interpreted within the current family, which EntityType then sets from its entity kind.
+     * @param src array holding serialized data
+     * @param offset index of byte to read
+     * @return marshalled serialized size in bytes
+     */
+    public int unmarshal(byte[] src, int offset)
+  {
+    value = Byte.toUnsignedInt(src[offset]);
+    return getMarshalledSize();
+  }
+
+    /**
+     * Marshall this instance to ByteBuffer at an absolute index, leaving position unchanged
+     * @param dst buffer to receive result, for example direct or mapped
+     * @param offset index of byte to write
+     * @return marshalled serialized size in bytes
+     */
+    public int marshal(ByteBuffer dst, int offset)
+  {
+    dst.put(offset, (byte) value);
+    return getMarshalledSize();
+  }
+
+    /**
+     * Deserializes an object from ByteBuffer at an absolute index, leaving position unchanged.
+     * The value is interpreted within the current family, which EntityType then sets from its entity kind.
+     * @param src buffer holding serialized data, for example direct or mapped
+     * @param offset index of byte to read
+     * @return marshalled serialized size in bytes
+     */
+    public int unmarshal(ByteBuffer src, int offset)
+  {
+    value = Byte.toUnsignedInt(src.get(offset));
+    return getMarshalledSize();
   }
 
   @Override
@@ -197,7 +276,7 @@ public class Domain
    * Override of default equals method.  Calls equalsImpl() for content comparison.
    */
   @Override
-  public synchronized boolean equals(Object obj)
+  public boolean equals(Object obj)
   {
     if (this == obj)
       return true;
@@ -218,15 +297,15 @@ public class Domain
    * @param obj the object to compare to
    * @return true if the objects are equal, false otherwise.
    */
-  public synchronized boolean equalsImpl(Object obj)
+  public boolean equalsImpl(Object obj)
   {
     final Domain rhs = (Domain) obj;
-    return enumInst.equals(rhs.enumInst);
+    return value == rhs.value; // family only resolves the value
   }
-  
+
   @Override
   public int hashCode()
   {
- 	 return Objects.hash(this.enumInst);
+ 	 return value;
   }
 }
@@ -10,6 +10,7 @@ import edu.nps.moves.dis7.enumerations.*;
 /**
  * 5.8.4, 7.7.3 Conveys the audio or digital data carried by the simulated radio or intercom transmission.
  * IEEE Std 1278.1-2012, IEEE Standard for Distributed Interactive Simulation—Application Protocols
+ * <p> Hand-written special case: methods remain synchronized regardless of generator option xmlpg.synchronized. </p>
  */
 public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializable
 {
@@ -24,10 +25,13 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
    */
   protected short encodingScheme;
 
+  /** default value of {@link #tdlType}, also restored by reset() without allocating values() */
+  private static final SignalTDLType TDL_TYPE_DEFAULT = SignalTDLType.values()[0];
+
   /**
    * tdl type uid 178
    */
-  protected SignalTDLType tdlType = SignalTDLType.values()[0];
+  protected SignalTDLType tdlType = TDL_TYPE_DEFAULT;
 
   /**
    * sample rate
@@ -52,6 +56,36 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
   /** bit padding */
   private byte[] padTo32 = new byte[0]; // pad to 32-bit boundary
 
+  // serialized layout, maintained by hand to match JavaGenerator.writeLayoutConstants()
+  /** byte offset of {@link #header} from start of serialized SignalPdu */
+  public static final int HEADER_OFFSET = RadioCommunicationsFamilyPdu.FIXED_SIZE;
+  /** size in bytes of {@link #header} */
+  public static final int HEADER_SIZE = RadioCommsHeader.FIXED_SIZE;
+  /** byte offset of {@link #encodingScheme} from start of serialized SignalPdu */
+  public static final int ENCODING_SCHEME_OFFSET = HEADER_OFFSET + HEADER_SIZE;
+  /** size in bytes of {@link #encodingScheme} */
+  public static final int ENCODING_SCHEME_SIZE = 2;
+  /** byte offset of {@link #tdlType} from start of serialized SignalPdu */
+  public static final int TDL_TYPE_OFFSET = ENCODING_SCHEME_OFFSET + ENCODING_SCHEME_SIZE;
+  /** size in bytes of {@link #tdlType} */
+  public static final int TDL_TYPE_SIZE = SignalTDLType.getEnumMarshalledSize();
+  /** byte offset of {@link #sampleRate} from start of serialized SignalPdu */
+  public static final int SAMPLE_RATE_OFFSET = TDL_TYPE_OFFSET + TDL_TYPE_SIZE;
+  /** size in bytes of {@link #sampleRate} */
+  public static final int SAMPLE_RATE_SIZE = 4;
+  /** byte offset of {@link #dataLength} from start of serialized SignalPdu */
+  public static final int DATA_LENGTH_OFFSET = SAMPLE_RATE_OFFSET + SAMPLE_RATE_SIZE;
+  /** size in bytes of {@link #dataLength} */
+  public static final int DATA_LENGTH_SIZE = 2;
+  /** byte offset of {@link #samples} from start of serialized SignalPdu */
+  public static final int SAMPLES_OFFSET = DATA_LENGTH_OFFSET + DATA_LENGTH_SIZE;
+  /** size in bytes of {@link #samples} */
+  public static final int SAMPLES_SIZE = 2;
+  /** byte offset of {@link #data} from start of serialized SignalPdu */
+  public static final int DATA_OFFSET = SAMPLES_OFFSET + SAMPLES_SIZE;
+  /** not applicable, since serialized size of SignalPdu varies: see {@link #getMarshalledSize()} */
+  public static final int FIXED_SIZE = -1;
+
   /**
    * Constructor
    */
@@ -60,6 +94,83 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
     setPduType(DisPduType.SIGNAL);
   }
 
+  /**
+   * Copy constructor creates a deep copy of the source instance
+   * @param source instance to copy
+   * @see #copyFrom(SignalPdu)
+   */
+  public SignalPdu(SignalPdu source)
+  {
+    this();
+    copyFrom(source);
+  }
+
+  /**
+   * Deep copy all fields of the source instance into this instance, reusing nested records and arrays.
+   * @param source instance to copy
+   * @return same object to permit progressive setters
+   */
+  public synchronized SignalPdu copyFrom(SignalPdu source)
+  {
+    if (source == this)
+      return this;
+    super.copyFrom(source);
+    header.copyFrom(source.header);
+    encodingScheme = source.encodingScheme;
+    tdlType = source.tdlType;
+    sampleRate = source.sampleRate;
+    dataLength = source.dataLength;
+    samples = source.samples;
+    if (data.length == source.data.length)
+      System.arraycopy(source.data, 0, data, 0, data.length);
+    else data = source.data.clone();
+    padTo32 = source.padTo32; // shared zero-filled array, see Align.padding()
+    return this;
+  }
+
+  /**
+   * copy method creates a deep copy of current object, field by field without marshalling
+   * @return deep copy of PDU
+   */
+  @Override
+  public synchronized SignalPdu copy()
+  {
+    return new SignalPdu(this);
+  }
+
+  /**
+   * Dispatch this PDU to the visitor method for its class, using a single virtual call
+   * @param visitor handler of interest
+   */
+  @Override
+  public void accept(PduVisitor visitor)
+  {
+    visitor.visitSignalPdu(this);
+  }
+
+  /**
+   * Return this instance to its newly constructed state, reusing nested records.
+   * Intended for pooled instances, for example prior to populating a PDU for sending.
+   */
+  @Override
+  public synchronized void reset()
+  {
+    super.reset();
+    if (header == null)
+        header = new RadioCommsHeader();
+    else header.reset();
+    encodingScheme = 0;
+    tdlType = TDL_TYPE_DEFAULT;
+    sampleRate = 0;
+    dataLength = null;
+    samples = 0;
+    if ((data != null) && (data.length == 1))
+        data[0] = 0;
+    else data = new byte[1];
+    padTo32 = Align.padding(0);
+    setPduType(DisPduType.SIGNAL);
+  }
+
   /**
    * Returns size of this serialized (marshalled) object in bytes
    * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
@@ -268,7 +379,7 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
     for (int idx = 0; idx < data.length; idx++) {
       dos.writeByte(data[idx]);
     }
-    padTo32 = new byte[Align.to32bits(dos)];
+    padTo32 = Align.padding(Align.to32bits(dos));
 
   }
 
@@ -293,8 +404,9 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
     sampleRate = dis.readInt();
     uPosition += 4;
     dataLength = (short) dis.readUnsignedShort();
-    int byteLength = (dataLength + 7) / 8;
-    data = new byte[byteLength];
+    int byteLength = (Short.toUnsignedInt(dataLength) + 7) / 8;
+    if (data.length != byteLength) // reuse array of previous unmarshal
+        data = new byte[byteLength];
     uPosition += 2;
     samples = (short) dis.readUnsignedShort();
     uPosition += 2;
@@ -303,7 +415,7 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
       data[idx] = dis.readByte();
     }
     uPosition += (data.length * 1);
-    padTo32 = new byte[Align.from32bits(uPosition, dis)];
+    padTo32 = Align.padding(Align.from32bits(uPosition, dis));
     //uPosition += padTo32.length;
 
     return getMarshalledSize();
@@ -337,8 +449,7 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
     for (int idx = 0; idx < data.length; idx++) {
       byteBuffer.put(data[idx]);
     }
-    byteBuffer.flip(); // will cause BufferOverflowException if we don't flip here
-    padTo32 = new byte[Align.to32bits(byteBuffer)];
+    padTo32 = Align.padding(Align.to32bits(byteBuffer));
   }
 
   /**
@@ -361,17 +472,79 @@ public class SignalPdu extends RadioCommunicationsFamilyPdu implements Serializa
     tdlType = SignalTDLType.unmarshalEnum(byteBuffer);
     sampleRate = byteBuffer.getInt();
     dataLength = (short) (byteBuffer.getShort() & 0xFFFF);
-    int byteLength = (dataLength+7)/8;
-    data = new byte[byteLength];
+    int byteLength = (Short.toUnsignedInt(dataLength) + 7) / 8;
+    if (data.length != byteLength) // reuse array of previous unmarshal
+        data = new byte[byteLength];
     samples = (short) (byteBuffer.getShort() & 0xFFFF);
     for (int idx = 0; idx < byteLength; idx++) {
       data[idx] = byteBuffer.get();
     }
-    byteBuffer.flip(); // will cause BufferUnderflowException if we don't flip here
-    padTo32 = new byte[Align.from32bits(byteBuffer)];
+    padTo32 = Align.padding(Align.from32bits(byteBuffer));
     return getMarshalledSize();
   }
 
+  /**
+   * Packs this PDU into a byte array in network byte order, through a ByteBuffer slice so that
+   * padding of the variable-length data is computed from offset.
+   * @param dst destination array
+   * @param offset index of first byte written
+   * @return number of bytes written
+   * @throws Exception marshalling error, including java.nio.BufferOverflowException if dst is too small
+   */
+  @Override
+  public synchronized int marshal(byte[] dst, int offset) throws Exception
+  {
+    java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(dst, offset, dst.length - offset).slice();
+    marshal(byteBuffer);
+    return byteBuffer.position();
+  }
+
+  /**
+   * Unpacks this PDU from a byte array in network byte order, through a ByteBuffer slice.
+   * @param src source array
+   * @param offset index of first byte read
+   * @return number of bytes read
+   * @throws Exception unmarshalling error
+   */
+  @Override
+  public int unmarshal(byte[] src, int offset) throws Exception
+  {
+    java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(src, offset, src.length - offset).slice();
+    unmarshal(byteBuffer);
+    return byteBuffer.position();
+  }
+
+  /**
+   * Packs this PDU into a big-endian ByteBuffer at an absolute index, leaving its position unchanged, through a slice so that
+   * padding of the variable-length data is computed from offset.
+   * @param dst destination buffer
+   * @param offset index of first byte written
+   * @return number of bytes written
+   * @throws Exception marshalling error, including java.nio.BufferOverflowException if dst is too small
+   */
+  @Override
+  public synchronized int marshal(java.nio.ByteBuffer dst, int offset) throws Exception
+  {
+    java.nio.ByteBuffer byteBuffer = dst.slice(offset, dst.limit() - offset);
+    marshal(byteBuffer);
+    return byteBuffer.position();
+  }
+
+  /**
+   * Unpacks this PDU from a big-endian ByteBuffer at an absolute index, leaving its position unchanged, through a slice.
+   * @param src source buffer
+   * @param offset index of first byte read
+   * @return number of bytes read
+   * @throws Exception unmarshalling error
+   */
+  @Override
+  public int unmarshal(java.nio.ByteBuffer src, int offset) throws Exception
+  {
+    java.nio.ByteBuffer byteBuffer = src.slice(offset, src.limit() - offset);
+    unmarshal(byteBuffer);
+    return byteBuffer.position();
+  }
+
   private short calculateDataLength()
   {
     return (short) (data.length * 8);
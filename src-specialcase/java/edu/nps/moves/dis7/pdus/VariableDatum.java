@@ -14,6 +14,7 @@ import java.util.Objects;
  * The variable datum type, the datum length, and the value for that variable
  * datum type. Section 6.2.93 IEEE Std 1278.1-2012, IEEE Standard for
  * Distributed Interactive Simulation—Application Protocols
+ * <p> Hand-written special case: methods remain synchronized regardless of generator option xmlpg.synchronized. </p>
  */
 public class VariableDatum extends Object implements Serializable {
 
@@ -40,16 +41,70 @@ public class VariableDatum extends Object implements Serializable {
      */
     private byte[] padding; // see constructor
 
+    /** default value of {@link #variableDatumID}, set by constructor and restored by reset() without allocating values() */
+    private static final VariableRecordType VARIABLE_DATUM_ID_DEFAULT = VariableRecordType.values()[0];
+
+    // serialized layout, maintained by hand to match JavaGenerator.writeLayoutConstants()
+    /** byte offset of {@link #variableDatumID} from start of serialized VariableDatum */
+    public static final int VARIABLE_DATUM_ID_OFFSET = 0;
+    /** size in bytes of {@link #variableDatumID} */
+    public static final int VARIABLE_DATUM_ID_SIZE = VariableRecordType.getEnumMarshalledSize();
+    /** byte offset of {@link #variableDatumLength} from start of serialized VariableDatum */
+    public static final int VARIABLE_DATUM_LENGTH_OFFSET = VARIABLE_DATUM_ID_OFFSET + VARIABLE_DATUM_ID_SIZE;
+    /** size in bytes of {@link #variableDatumLength} */
+    public static final int VARIABLE_DATUM_LENGTH_SIZE = 4;
+    /** byte offset of {@link #variableDatumValue} from start of serialized VariableDatum */
+    public static final int VARIABLE_DATUM_VALUE_OFFSET = VARIABLE_DATUM_LENGTH_OFFSET + VARIABLE_DATUM_LENGTH_SIZE;
+
     /**
      * Constructor
      */
     public VariableDatum() {
         // initializations
-        variableDatumID = VariableRecordType.values()[0];
+        variableDatumID = VARIABLE_DATUM_ID_DEFAULT;
         variableDatumValue = new byte[0];
         padding = new byte[0]; // pad to 64-bit boundary
     }
 
+    /**
+     * Copy constructor creates a deep copy of the source instance
+     * @param source instance to copy
+     * @see #copyFrom(VariableDatum)
+     */
+    public VariableDatum(VariableDatum source) {
+        this();
+        copyFrom(source);
+    }
+
+    /**
+     * Deep copy all fields of the source instance into this instance, reusing the value array if lengths match
+     * @param source instance to copy
+     * @return same object to permit progressive setters
+     */
+    public synchronized VariableDatum copyFrom(VariableDatum source) {
+        if (source == this)
+            return this;
+        variableDatumID = source.variableDatumID;
+        variableDatumLength = source.variableDatumLength;
+        if (variableDatumValue.length == source.variableDatumValue.length)
+            System.arraycopy(source.variableDatumValue, 0, variableDatumValue, 0, variableDatumValue.length);
+        else
+            variableDatumValue = source.variableDatumValue.clone();
+        padding = source.padding; // shared zero-filled array, see Align.padding()
+        return this;
+    }
+
+    /**
+     * Return this instance to its newly constructed state
+     */
+    public synchronized void reset() {
+        variableDatumID = VARIABLE_DATUM_ID_DEFAULT;
+        variableDatumLength = null;
+        if ((variableDatumValue == null) || (variableDatumValue.length != 0))
+            variableDatumValue = new byte[0];
+        padding = Align.padding(0);
+    }
+
     /**
      * Returns size of this serialized (marshalled) object in bytes
      *
@@ -184,7 +239,7 @@ public class VariableDatum extends Object implements Serializable {
                 dos.writeByte(variableDatumValue[idx]);
             }
 
-            padding = new byte[Align.to64bits(dos)];
+            padding = Align.padding(Align.to64bits(dos));
         } catch (IOException e) {
             System.err.flush(); // ensure contiguous console outputs
             System.err.println(e);
@@ -209,13 +264,14 @@ public class VariableDatum extends Object implements Serializable {
             uPosition += variableDatumID.getMarshalledSize();
             variableDatumLength = dis.readInt();
             int byteLength = (variableDatumLength + 7) / 8;
-            variableDatumValue = new byte[byteLength];
+            if (variableDatumValue.length != byteLength) // reuse array of previous unmarshal
+                variableDatumValue = new byte[byteLength];
             uPosition += 4;
             for (int idx = 0; idx < byteLength; idx++) {
                 variableDatumValue[idx] = dis.readByte();
             }
             uPosition += variableDatumLength;
-            padding = new byte[Align.from64bits(uPosition, dis)];
+            padding = Align.padding(Align.from64bits(uPosition, dis));
             //uPosition += padding.length;
         } catch (Exception e) {
             System.err.flush(); // ensure contiguous console outputs
@@ -245,7 +301,7 @@ public class VariableDatum extends Object implements Serializable {
         for (int idx = 0; idx < variableDatumValue.length; idx++) {
             byteBuffer.put(variableDatumValue[idx]);
         }
-        padding = new byte[Align.to64bits(byteBuffer)];
+        padding = Align.padding(Align.to64bits(byteBuffer));
     }
 
     /**
@@ -263,14 +319,69 @@ public class VariableDatum extends Object implements Serializable {
         variableDatumID = VariableRecordType.unmarshalEnum(byteBuffer);
         variableDatumLength = byteBuffer.getInt();
         int byteLength = (variableDatumLength + 7) / 8;
-        variableDatumValue = new byte[byteLength];
+        if (variableDatumValue.length != byteLength) // reuse array of previous unmarshal
+            variableDatumValue = new byte[byteLength];
         for (int idx = 0; idx < byteLength; idx++) {
             variableDatumValue[idx] = byteBuffer.get();
         }
-        padding = new byte[Align.from64bits(byteBuffer)];
+        padding = Align.padding(Align.from64bits(byteBuffer));
         return getMarshalledSize();
     }
 
+    /**
+     * Packs this record into a byte array in network byte order, through a ByteBuffer slice so that
+     * 64-bit padding is computed from offset.
+     * @param dst destination array
+     * @param offset index of first byte written
+     * @return number of bytes written
+     * @throws Exception marshalling error, including java.nio.BufferOverflowException if dst is too small
+     */
+    public synchronized int marshal(byte[] dst, int offset) throws Exception {
+        java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(dst, offset, dst.length - offset).slice();
+        marshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Unpacks this record from a byte array in network byte order, through a ByteBuffer slice.
+     * @param src source array
+     * @param offset index of first byte read
+     * @return number of bytes read
+     * @throws Exception unmarshalling error
+     */
+    public synchronized int unmarshal(byte[] src, int offset) throws Exception {
+        java.nio.ByteBuffer byteBuffer = java.nio.ByteBuffer.wrap(src, offset, src.length - offset).slice();
+        unmarshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Packs this record into a big-endian ByteBuffer at an absolute index, leaving its position unchanged, through a slice so that
+     * 64-bit padding is computed from offset.
+     * @param dst destination buffer
+     * @param offset index of first byte written
+     * @return number of bytes written
+     * @throws Exception marshalling error, including java.nio.BufferOverflowException if dst is too small
+     */
+    public synchronized int marshal(java.nio.ByteBuffer dst, int offset) throws Exception {
+        java.nio.ByteBuffer byteBuffer = dst.slice(offset, dst.limit() - offset);
+        marshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Unpacks this record from a big-endian ByteBuffer at an absolute index, leaving its position unchanged, through a slice.
+     * @param src source buffer
+     * @param offset index of first byte read
+     * @return number of bytes read
+     * @throws Exception unmarshalling error
+     */
+    public synchronized int unmarshal(java.nio.ByteBuffer src, int offset) throws Exception {
+        java.nio.ByteBuffer byteBuffer = src.slice(offset, src.limit() - offset);
+        unmarshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
     private int calculateDatumLength() {
         return variableDatumValue.length * Byte.SIZE;
     }
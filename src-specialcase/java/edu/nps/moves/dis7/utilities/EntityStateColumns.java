@@ -0,0 +1,256 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.utilities;
+
+import edu.nps.moves.dis7.enumerations.*;
+import edu.nps.moves.dis7.pdus.*;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Columnar (struct of arrays) batch decoder for serialized Entity State PDUs, intended for analysis and after-action
+ * review of recordings.  Timestamp, entity identifier, location, orientation and linear velocity of each PDU are read
+ * in place from raw data into primitive arrays, one row per PDU, without creating PDU or record objects.
+ * The arrays grow in chunks and may be handed directly to numerical code; row i of every column belongs to the same PDU.
+ * <p>
+ * Data must hold PDUs in network (big-endian) byte order as received or recorded, and buffers must keep their
+ * default big-endian byte order; position and limit are left unchanged.  PDUs of other types, and Entity State PDUs
+ * too short to hold the decoded fields, are skipped.  Not thread safe.
+ *
+ * @see EntityStatePduView
+ * @see PduHeaderReader
+ */
+public final class EntityStateColumns
+{
+  /** number of rows added to each column whenever capacity is exhausted, unless the columns are larger already */
+  public static final int CHUNK_SIZE = 4096;
+
+  /** bytes needed from start of PDU through the last decoded field */
+  private static final int DECODED_LENGTH = EntityStatePdu.ENTITY_ORIENTATION_OFFSET + EulerAngles.FIXED_SIZE;
+
+  private static final int LOCATION_OFFSET    = EntityStatePdu.ENTITY_LOCATION_OFFSET;
+  private static final int ORIENTATION_OFFSET = EntityStatePdu.ENTITY_ORIENTATION_OFFSET;
+  private static final int VELOCITY_OFFSET    = EntityStatePdu.ENTITY_LINEAR_VELOCITY_OFFSET;
+
+  private int size;
+
+  private int[]    timestamp      = new int[0];
+  private long[]   packedEntityId = new long[0];
+  private double[] x              = new double[0];
+  private double[] y              = new double[0];
+  private double[] z              = new double[0];
+  private float[]  psi            = new float[0];
+  private float[]  theta          = new float[0];
+  private float[]  phi            = new float[0];
+  private float[]  velocityX      = new float[0];
+  private float[]  velocityY      = new float[0];
+  private float[]  velocityZ      = new float[0];
+
+  /** Constructor, columns are allocated on first add */
+  public EntityStateColumns()
+  {
+  }
+
+  /**
+   * Constructor
+   * @param initialCapacity number of rows to allocate in advance
+   */
+  public EntityStateColumns(int initialCapacity)
+  {
+    resize(initialCapacity);
+  }
+
+  /**
+   * Add one row from a serialized PDU, if it is an Entity State PDU
+   * @param data buffer holding the PDU
+   * @param offset absolute index of the first byte of the PDU
+   * @return whether a row was added
+   */
+  public boolean add(ByteBuffer data, int offset)
+  {
+    if (!PduHeaderReader.hasHeader(data, offset) ||
+        (PduHeaderReader.getPduTypeValue(data, offset) != DisPduType.ENTITY_STATE.getValue()) ||
+        (PduHeaderReader.getLength(data, offset) < DECODED_LENGTH) ||
+        (data.limit() - offset < DECODED_LENGTH))
+      return false;
+
+    if (size == timestamp.length)
+      resize(size + Math.max(CHUNK_SIZE, size / 2));
+    int row = size++;
+
+    timestamp[row]      = PduHeaderReader.getTimestamp(data, offset);
+    packedEntityId[row] = PduHeaderReader.getEntityKey(data, offset);
+    x[row]              = data.getDouble(offset + LOCATION_OFFSET    + Vector3Double.X_OFFSET);
+    y[row]              = data.getDouble(offset + LOCATION_OFFSET    + Vector3Double.Y_OFFSET);
+    z[row]              = data.getDouble(offset + LOCATION_OFFSET    + Vector3Double.Z_OFFSET);
+    psi[row]            = data.getFloat (offset + ORIENTATION_OFFSET + EulerAngles.PSI_OFFSET);
+    theta[row]          = data.getFloat (offset + ORIENTATION_OFFSET + EulerAngles.THETA_OFFSET);
+    phi[row]            = data.getFloat (offset + ORIENTATION_OFFSET + EulerAngles.PHI_OFFSET);
+    velocityX[row]      = data.getFloat (offset + VELOCITY_OFFSET    + Vector3Float.X_OFFSET);
+    velocityY[row]      = data.getFloat (offset + VELOCITY_OFFSET    + Vector3Float.Y_OFFSET);
+    velocityZ[row]      = data.getFloat (offset + VELOCITY_OFFSET    + Vector3Float.Z_OFFSET);
+    return true;
+  }
+
+  /**
+   * Add one row per Entity State PDU of a datagram or recording holding PDUs back to back, between position and limit
+   * @param data buffer holding one or more PDUs
+   * @return number of rows added
+   * @see PduFactory#forEachPduInBundle(ByteBuffer, PduFactory.BundledPduHandler)
+   */
+  public int addAll(ByteBuffer data)
+  {
+    int before = size;
+    PduFactory.forEachPduInBundle(data, (buffer, offset, length) -> add(buffer, offset));
+    return size - before;
+  }
+
+  /**
+   * Add one row per Entity State PDU of a datagram or recording holding PDUs back to back
+   * @param data array holding one or more PDUs
+   * @param length number of valid bytes
+   * @return number of rows added
+   */
+  public int addAll(byte[] data, int length)
+  {
+    return addAll(ByteBuffer.wrap(data, 0, length));
+  }
+
+  /** Remove all rows, keeping allocated columns for reuse */
+  public void clear()
+  {
+    size = 0;
+  }
+
+  /** Reduce allocated columns to the number of rows */
+  public void trimToSize()
+  {
+    resize(size);
+  }
+
+  private void resize(int capacity)
+  {
+    timestamp      = Arrays.copyOf(timestamp,      capacity);
+    packedEntityId = Arrays.copyOf(packedEntityId, capacity);
+    x              = Arrays.copyOf(x,              capacity);
+    y              = Arrays.copyOf(y,              capacity);
+    z              = Arrays.copyOf(z,              capacity);
+    psi            = Arrays.copyOf(psi,            capacity);
+    theta          = Arrays.copyOf(theta,          capacity);
+    phi            = Arrays.copyOf(phi,            capacity);
+    velocityX      = Arrays.copyOf(velocityX,      capacity);
+    velocityY      = Arrays.copyOf(velocityY,      capacity);
+    velocityZ      = Arrays.copyOf(velocityZ,      capacity);
+  }
+
+  /**
+   * Provide number of rows, the valid length of every column
+   * @return number of decoded Entity State PDUs
+   */
+  public int size()
+  {
+    return size;
+  }
+
+  /**
+   * Timestamp column, valid up to {@link #size()}; arrays are replaced when columns grow
+   * @return header timestamps
+   */
+  public int[] getTimestamp()
+  {
+    return timestamp;
+  }
+
+  /**
+   * Entity identifier column, valid up to {@link #size()}
+   * @return site, application and entity numbers packed by {@link PduHeaderReader#entityKey(int, int, int)}
+   */
+  public long[] getPackedEntityId()
+  {
+    return packedEntityId;
+  }
+
+  /**
+   * Entity location column, valid up to {@link #size()}
+   * @return x coordinates in meters, geocentric
+   */
+  public double[] getX()
+  {
+    return x;
+  }
+
+  /**
+   * Entity location column, valid up to {@link #size()}
+   * @return y coordinates in meters, geocentric
+   */
+  public double[] getY()
+  {
+    return y;
+  }
+
+  /**
+   * Entity location column, valid up to {@link #size()}
+   * @return z coordinates in meters, geocentric
+   */
+  public double[] getZ()
+  {
+    return z;
+  }
+
+  /**
+   * Entity orientation column, valid up to {@link #size()}
+   * @return psi angles in radians
+   */
+  public float[] getPsi()
+  {
+    return psi;
+  }
+
+  /**
+   * Entity orientation column, valid up to {@link #size()}
+   * @return theta angles in radians
+   */
+  public float[] getTheta()
+  {
+    return theta;
+  }
+
+  /**
+   * Entity orientation column, valid up to {@link #size()}
+   * @return phi angles in radians
+   */
+  public float[] getPhi()
+  {
+    return phi;
+  }
+
+  /**
+   * Entity linear velocity column, valid up to {@link #size()}
+   * @return x velocity components in meters per second
+   */
+  public float[] getVelocityX()
+  {
+    return velocityX;
+  }
+
+  /**
+   * Entity linear velocity column, valid up to {@link #size()}
+   * @return y velocity components in meters per second
+   */
+  public float[] getVelocityY()
+  {
+    return velocityY;
+  }
+
+  /**
+   * Entity linear velocity column, valid up to {@link #size()}
+   * @return z velocity components in meters per second
+   */
+  public float[] getVelocityZ()
+  {
+    return velocityZ;
+  }
+}
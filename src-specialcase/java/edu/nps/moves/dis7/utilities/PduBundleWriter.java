@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.utilities;
+
+import edu.nps.moves.dis7.pdus.*;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packs PDUs back to back into datagram-sized bundles, the encoding counterpart of
+ * {@link PduFactory#decodeBundle(ByteBuffer, java.util.function.Consumer)} and {@link PduFactory#getPdusFromBundle(byte[], int)}.
+ * Sending many small PDUs, such as Entity State PDUs of thousands of entities, as bundles rather than
+ * one datagram each reduces the number of packets and system calls accordingly.
+ * <p>
+ * Each PDU is marshalled directly into the outgoing bundle buffer with {@link Pdu#marshalTo(ByteBuffer)}, which keeps
+ * 16/32/64-bit padding relative to the start of each PDU, and the header length field is set to the number of bytes written.
+ * A bundle is handed to the {@link BundleSender} when the next PDU does not fit, when the oldest PDU in it has waited
+ * longer than the maximum delay, or on {@link #flush()}.  The deadline is checked on each write and by {@link #flushIfDue()},
+ * which a sending loop should call periodically while idle.  A PDU larger than the bundle size is sent on its own.
+ * <p>
+ * Not thread safe: use one writer per sending thread, or synchronize externally.
+ *
+ * @see PduFactory#forEachPduInBundle(ByteBuffer, PduFactory.BundledPduHandler)
+ */
+public final class PduBundleWriter implements AutoCloseable
+{
+  /** default bundle size in bytes, fitting a 1500-byte Ethernet MTU after IP and UDP headers with room for tunnels */
+  public static final int DEFAULT_BUNDLE_SIZE = 1400;
+
+  /** default maximum time a PDU waits in an incomplete bundle, in milliseconds */
+  public static final long DEFAULT_MAXIMUM_DELAY_MILLISECONDS = 10;
+
+  /** largest bundle size accepted, the maximum UDP payload */
+  public static final int MAXIMUM_BUNDLE_SIZE = 65507;
+
+  /**
+   * Destination of completed bundles, for example a DatagramChannel send to the DIS address and port.
+   */
+  @FunctionalInterface
+  public interface BundleSender
+  {
+    /**
+     * Send one bundle.  The buffer is reused for the next bundle once this method returns.
+     * @param bundle buffer holding one or more PDUs between position 0 and limit
+     * @throws IOException if sending fails
+     */
+    void send(ByteBuffer bundle) throws IOException;
+  }
+
+  private final ByteBuffer bundleBuffer;
+  private final long       maximumDelayNanoseconds;
+  private final BundleSender sender;
+
+  private int  pduCount;
+  private long deadlineNanoseconds;
+
+  private long bundlesSent;
+  private long pdusSent;
+
+  /**
+   * Constructor using {@link #DEFAULT_BUNDLE_SIZE} and {@link #DEFAULT_MAXIMUM_DELAY_MILLISECONDS}
+   * @param sender destination of completed bundles
+   */
+  public PduBundleWriter(BundleSender sender)
+  {
+    this(DEFAULT_BUNDLE_SIZE, DEFAULT_MAXIMUM_DELAY_MILLISECONDS, TimeUnit.MILLISECONDS, sender);
+  }
+
+  /**
+   * Constructor
+   * @param bundleSize maximum bytes per bundle, for example 1400 for Ethernet or 8192 where fragmentation is acceptable
+   * @param maximumDelay maximum time a PDU waits in an incomplete bundle, 0 to send each write immediately
+   * @param unit unit of maximumDelay
+   * @param sender destination of completed bundles
+   */
+  public PduBundleWriter(int bundleSize, long maximumDelay, TimeUnit unit, BundleSender sender)
+  {
+    if ((bundleSize < PduHeaderReader.HEADER_SIZE) || (bundleSize > MAXIMUM_BUNDLE_SIZE))
+      throw new IllegalArgumentException("bundle size " + bundleSize + " outside of " + PduHeaderReader.HEADER_SIZE + ".." + MAXIMUM_BUNDLE_SIZE);
+    if (maximumDelay < 0)
+      throw new IllegalArgumentException("negative maximum delay " + maximumDelay);
+    bundleBuffer = ByteBuffer.allocate(bundleSize);
+    maximumDelayNanoseconds = unit.toNanos(maximumDelay);
+    this.sender = sender;
+  }
+
+  /**
+   * Append a PDU to the current bundle, first sending the bundle if the PDU does not fit,
+   * and afterwards if the maximum delay has elapsed.  The PDU may be modified and reused once this method returns.
+   * @param pdu PDU of interest
+   * @throws Exception if marshalling or sending fails
+   */
+  public void write(Pdu pdu) throws Exception
+  {
+    if (pdu.getMarshalledSize() > bundleBuffer.remaining())
+      flush();
+    int start = bundleBuffer.position();
+    int length;
+    try
+    {
+      length = pdu.marshalTo(bundleBuffer);
+    }
+    catch (BufferOverflowException boe) // getMarshalledSize() underestimated, as for padded PDUs not marshalled before
+    {
+      bundleBuffer.position(start);
+      flush();
+      try
+      {
+        start  = 0;
+        length = pdu.marshalTo(bundleBuffer);
+      }
+      catch (BufferOverflowException tooLarge)
+      {
+        bundleBuffer.clear();
+        sendAlone(pdu);
+        return;
+      }
+    }
+    PduLayout.setLength(bundleBuffer, start, (short) length);
+    if (pduCount++ == 0)
+      deadlineNanoseconds = System.nanoTime() + maximumDelayNanoseconds;
+    flushIfDue();
+  }
+
+  /**
+   * Send the current bundle if its oldest PDU has waited longer than the maximum delay
+   * @return whether a bundle was sent
+   * @throws IOException if sending fails
+   */
+  public boolean flushIfDue() throws IOException
+  {
+    if ((pduCount == 0) || (System.nanoTime() - deadlineNanoseconds < 0))
+      return false;
+    flush();
+    return true;
+  }
+
+  /**
+   * Send the current bundle, if not empty
+   * @throws IOException if sending fails
+   */
+  public void flush() throws IOException
+  {
+    if (pduCount == 0)
+      return;
+    bundleBuffer.flip();
+    try
+    {
+      sender.send(bundleBuffer);
+      bundlesSent++;
+      pdusSent += pduCount;
+    }
+    finally
+    {
+      bundleBuffer.clear();
+      pduCount = 0;
+    }
+  }
+
+  /**
+   * Send any pending PDUs
+   * @throws IOException if sending fails
+   */
+  @Override
+  public void close() throws IOException
+  {
+    flush();
+  }
+
+  private void sendAlone(Pdu pdu) throws Exception
+  {
+    ByteBuffer pduBuffer = MarshalBuffers.marshal(pdu);
+    PduLayout.setLength(pduBuffer, 0, (short) pduBuffer.remaining());
+    sender.send(pduBuffer);
+    bundlesSent++;
+    pdusSent++;
+  }
+
+  /**
+   * Provide number of PDUs in the current, unsent bundle
+   * @return number of pending PDUs
+   */
+  public int getPendingPduCount()
+  {
+    return pduCount;
+  }
+
+  /**
+   * Provide number of bytes in the current, unsent bundle
+   * @return number of pending bytes
+   */
+  public int getPendingByteCount()
+  {
+    return bundleBuffer.position();
+  }
+
+  /**
+   * Provide maximum number of bytes per bundle
+   * @return bundle size
+   */
+  public int getBundleSize()
+  {
+    return bundleBuffer.capacity();
+  }
+
+  /**
+   * Provide number of bundles sent, including PDUs too large for a bundle that were sent on their own
+   * @return bundles sent
+   */
+  public long getBundlesSent()
+  {
+    return bundlesSent;
+  }
+
+  /**
+   * Provide number of PDUs sent
+   * @return PDUs sent
+   */
+  public long getPdusSent()
+  {
+    return pdusSent;
+  }
+}
@@ -10,8 +10,9 @@ import edu.nps.moves.dis7.utilities.DisTime.TimestampStyle;
 
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Stream;
@@ -27,23 +28,27 @@ import java.util.stream.Stream;
  * <p>
  * For the first use case, pdus will be initialized with country, exerciseId, siteId, applicationId and timestamp format,
  * matching the parameters passed to the constructor.  For no arg constructor, the defaults of USA, 1, 2, 3, and absolute timestamp are used.
+ * <p>
+ * For the second use case, decoding is stateless and lock free: static methods such as decodePdu(ByteBuffer) look up
+ * the PDU class in an immutable table indexed by PDU type, so one factory (or none) can serve any number of receive threads.
+ * Default values for the first use case are immutable, apart from the volatile timestamp style.
  *
  * @author Mike Bailey, jmbailey@nps.edu
  * @version $Id$
  */
 public class PduFactory
 {
-  private edu.nps.moves.dis7.enumerations.Country country;
-  private byte  defaultExerciseId;
-  private short defaultSiteId;
-  private short defaultAppId;
+  private final edu.nps.moves.dis7.enumerations.Country country;
+  private final byte  defaultExerciseId;
+  private final short defaultSiteId;
+  private final short defaultAppId;
 
   /** We can marshal the PDU with a timestamp set to any of several styles.
    * Remember, you MUST set a timestamp. DIS will regard multiple packets sent
    * with the same timestamp as duplicates and may discard them.
    * Default value is TimestampStyle.IEEE_ABSOLUTE.
    */
-  private TimestampStyle timestampStyle;
+  private volatile TimestampStyle timestampStyle;
 
   /**
    * Create and add initial properties to a new PduFactory using defaults for country (USA), exerciseId (2),
@@ -51,12 +56,7 @@ public class PduFactory
    */
   public PduFactory()
   {
-      // initialization steps can go here, when possible class-member objects are instantiated at declaration
-      country = Country.UNITED_STATES_OF_AMERICA_USA;
-      defaultExerciseId = 1;
-      defaultSiteId     = 2;
-      defaultAppId      = 3;
-      timestampStyle = DisTime.TIMESTAMP_STYLE_DEFAULT;
+      this(Country.UNITED_STATES_OF_AMERICA_USA, (byte) 1, (short) 2, (short) 3, DisTime.TIMESTAMP_STYLE_DEFAULT);
   }
   
   /**
@@ -65,8 +65,7 @@ public class PduFactory
    */
   public PduFactory(TimestampStyle newTimestampStyle)
   {
-      this(); // initialization of common values
-      PduFactory.this.setTimestampStyle(newTimestampStyle);
+      this(Country.UNITED_STATES_OF_AMERICA_USA, (byte) 1, (short) 2, (short) 3, newTimestampStyle);
   }
 
   /**
@@ -81,7 +80,6 @@ public class PduFactory
    */
   public PduFactory(edu.nps.moves.dis7.enumerations.Country country, byte exerciseId, short siteId, short applicationId, TimestampStyle timestampStyle)
   {
-        this(); // initialization of common values
         this.country = country;
         this.defaultExerciseId = exerciseId;
         this.defaultSiteId = siteId;
@@ -109,6 +107,103 @@ public class PduFactory
       else timestampStyle = newTimestampStyle;
   }
 
+  /** Constructors of PDU classes indexed by unsigned PDU type value, null where no PDU class exists (for example OTHER).
+   *  Immutable after class initialization, so lookups are thread safe without locking. */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static final Supplier<Pdu>[] PDU_CONSTRUCTORS = new Supplier[256];
+
+  static
+  {
+      registerPduConstructor(DisPduType.ENTITY_STATE,                       EntityStatePdu::new);
+      registerPduConstructor(DisPduType.FIRE,                               FirePdu::new);
+      registerPduConstructor(DisPduType.DETONATION,                         DetonationPdu::new);
+      registerPduConstructor(DisPduType.COLLISION,                          CollisionPdu::new);
+      registerPduConstructor(DisPduType.SERVICE_REQUEST,                    ServiceRequestPdu::new);
+      registerPduConstructor(DisPduType.RESUPPLY_OFFER,                     ResupplyOfferPdu::new);
+      registerPduConstructor(DisPduType.RESUPPLY_RECEIVED,                  ResupplyReceivedPdu::new);
+      registerPduConstructor(DisPduType.RESUPPLY_CANCEL,                    ResupplyCancelPdu::new);
+      registerPduConstructor(DisPduType.REPAIR_COMPLETE,                    RepairCompletePdu::new);
+      registerPduConstructor(DisPduType.REPAIR_RESPONSE,                    RepairResponsePdu::new);
+      registerPduConstructor(DisPduType.CREATE_ENTITY,                      CreateEntityPdu::new);
+      registerPduConstructor(DisPduType.REMOVE_ENTITY,                      RemoveEntityPdu::new);
+      registerPduConstructor(DisPduType.START_RESUME,                       StartResumePdu::new);
+      registerPduConstructor(DisPduType.STOP_FREEZE,                        StopFreezePdu::new);
+      registerPduConstructor(DisPduType.ACKNOWLEDGE,                        AcknowledgePdu::new);
+      registerPduConstructor(DisPduType.ACTION_REQUEST,                     ActionRequestPdu::new);
+      registerPduConstructor(DisPduType.ACTION_RESPONSE,                    ActionResponsePdu::new);
+      registerPduConstructor(DisPduType.DATA_QUERY,                         DataQueryPdu::new);
+      registerPduConstructor(DisPduType.SET_DATA,                           SetDataPdu::new);
+      registerPduConstructor(DisPduType.DATA,                               DataPdu::new);
+      registerPduConstructor(DisPduType.EVENT_REPORT,                       EventReportPdu::new);
+      registerPduConstructor(DisPduType.COMMENT,                            CommentPdu::new);
+      registerPduConstructor(DisPduType.ELECTROMAGNETIC_EMISSION,           ElectromagneticEmissionPdu::new);
+      registerPduConstructor(DisPduType.DESIGNATOR,                         DesignatorPdu::new);
+      registerPduConstructor(DisPduType.TRANSMITTER,                        TransmitterPdu::new);
+      registerPduConstructor(DisPduType.SIGNAL,                             SignalPdu::new);
+      registerPduConstructor(DisPduType.RECEIVER,                           ReceiverPdu::new);
+      registerPduConstructor(DisPduType.IDENTIFICATION_FRIEND_OR_FOE,       IFFPdu::new);
+      registerPduConstructor(DisPduType.UNDERWATER_ACOUSTIC,                UnderwaterAcousticPdu::new);
+      registerPduConstructor(DisPduType.SUPPLEMENTAL_EMISSION_ENTITY_STATE, SEESPdu::new);
+      registerPduConstructor(DisPduType.INTERCOM_SIGNAL,                    IntercomSignalPdu::new);
+      registerPduConstructor(DisPduType.INTERCOM_CONTROL,                   IntercomControlPdu::new);
+      registerPduConstructor(DisPduType.AGGREGATE_STATE,                    AggregateStatePdu::new);
+      registerPduConstructor(DisPduType.ISGROUPOF,                          IsGroupOfPdu::new);
+      registerPduConstructor(DisPduType.TRANSFER_OWNERSHIP,                 TransferOwnershipPdu::new);
+      registerPduConstructor(DisPduType.ISPARTOF,                           IsPartOfPdu::new);
+      registerPduConstructor(DisPduType.MINEFIELD_STATE,                    MinefieldStatePdu::new);
+      registerPduConstructor(DisPduType.MINEFIELD_QUERY,                    MinefieldQueryPdu::new);
+      registerPduConstructor(DisPduType.MINEFIELD_DATA,                     MinefieldDataPdu::new);
+      registerPduConstructor(DisPduType.MINEFIELD_RESPONSE_NACK,            MinefieldResponseNACKPdu::new);
+      registerPduConstructor(DisPduType.ENVIRONMENTAL_PROCESS,              EnvironmentalProcessPdu::new);
+      registerPduConstructor(DisPduType.GRIDDED_DATA,                       GriddedDataPdu::new);
+      registerPduConstructor(DisPduType.POINT_OBJECT_STATE,                 PointObjectStatePdu::new);
+      registerPduConstructor(DisPduType.LINEAR_OBJECT_STATE,                LinearObjectStatePdu::new);
+      registerPduConstructor(DisPduType.AREAL_OBJECT_STATE,                 ArealObjectStatePdu::new);
+      registerPduConstructor(DisPduType.TIME_SPACE_POSITION_INFORMATION,    TSPIPdu::new);
+      registerPduConstructor(DisPduType.APPEARANCE,                         AppearancePdu::new);
+      registerPduConstructor(DisPduType.ARTICULATED_PARTS,                  ArticulatedPartsPdu::new);
+      registerPduConstructor(DisPduType.LIVE_ENTITY_FIRE,                   LEFirePdu::new);
+      registerPduConstructor(DisPduType.LIVE_ENTITY_DETONATION,             LEDetonationPdu::new);
+      registerPduConstructor(DisPduType.CREATE_ENTITY_RELIABLE,             CreateEntityReliablePdu::new);
+      registerPduConstructor(DisPduType.REMOVE_ENTITY_RELIABLE,             RemoveEntityReliablePdu::new);
+      registerPduConstructor(DisPduType.START_RESUME_RELIABLE,              StartResumeReliablePdu::new);
+      registerPduConstructor(DisPduType.STOP_FREEZE_RELIABLE,               StopFreezeReliablePdu::new);
+      registerPduConstructor(DisPduType.ACKNOWLEDGE_RELIABLE,               AcknowledgeReliablePdu::new);
+      registerPduConstructor(DisPduType.ACTION_REQUEST_RELIABLE,            ActionRequestReliablePdu::new);
+      registerPduConstructor(DisPduType.ACTION_RESPONSE_RELIABLE,           ActionResponseReliablePdu::new);
+      registerPduConstructor(DisPduType.DATA_QUERY_RELIABLE,                DataQueryReliablePdu::new);
+      registerPduConstructor(DisPduType.SET_DATA_RELIABLE,                  SetDataReliablePdu::new);
+      registerPduConstructor(DisPduType.DATA_RELIABLE,                      DataReliablePdu::new);
+      registerPduConstructor(DisPduType.EVENT_REPORT_RELIABLE,              EventReportReliablePdu::new);
+      registerPduConstructor(DisPduType.COMMENT_RELIABLE,                   CommentReliablePdu::new);
+      registerPduConstructor(DisPduType.RECORD_RELIABLE,                    RecordReliablePdu::new);
+      registerPduConstructor(DisPduType.SET_RECORD_RELIABLE,                SetRecordReliablePdu::new);
+      registerPduConstructor(DisPduType.RECORD_QUERY_RELIABLE,              RecordQueryReliablePdu::new);
+      registerPduConstructor(DisPduType.COLLISION_ELASTIC,                  CollisionElasticPdu::new);
+      registerPduConstructor(DisPduType.ENTITY_STATE_UPDATE,                EntityStateUpdatePdu::new);
+      registerPduConstructor(DisPduType.DIRECTED_ENERGY_FIRE,               DirectedEnergyFirePdu::new);
+      registerPduConstructor(DisPduType.ENTITY_DAMAGE_STATUS,               EntityDamageStatusPdu::new);
+      registerPduConstructor(DisPduType.INFORMATION_OPERATIONS_ACTION,      InformationOperationsActionPdu::new);
+      registerPduConstructor(DisPduType.INFORMATION_OPERATIONS_REPORT,      InformationOperationsReportPdu::new);
+      registerPduConstructor(DisPduType.ATTRIBUTE,                          AttributePdu::new);
+  }
+
+  private static void registerPduConstructor(DisPduType pduType, Supplier<Pdu> constructor)
+  {
+      PDU_CONSTRUCTORS[pduType.getValue()] = constructor;
+  }
+
+  /**
+   * Create an empty PDU of a given type without initial properties.  Stateless and thread safe.
+   * @param pduTypeValue unsigned PDU type value, as found in the third byte of the PDU header
+   * @return new PDU, or null if no PDU class corresponds to this type
+   */
+  private static Pdu newPdu(int pduTypeValue)
+  {
+      Supplier<Pdu> constructor = PDU_CONSTRUCTORS[pduTypeValue & 0xFF];
+      return (constructor == null) ? null : constructor.get();
+  }
+
   /* ***************************************************/
  /* utility methods*/
   private PduBase addBoilerPlate(PduBase pdu)
@@ -1455,395 +1550,265 @@ public class PduFactory
   /**
    * PDU builder. Pass in an array of bytes, get the correct type of pdu back
    * based on the PDU type field contained in the byte array.
+   * Stateless and thread safe, see {@link #decodePdu(ByteBuffer)}.
    *
    * @param data an array of PDU data
    * @return A PDU of the appropriate concrete subclass of PDU or null if there was an error
    */
-  public synchronized Pdu createPdu(byte data[])
+  public Pdu createPdu(byte data[])
   {
     if ((data == null) || (data.length == 0))
+    {
         System.err.println ("[PduFactory] createPdu(byte data[]) received null array, unable to determine pduType");
-    
-    return createPdu(ByteBuffer.wrap(data));
+        return null;
+    }
+    return decodePdu(ByteBuffer.wrap(data));
   }
 
   /**
-   * PDU builder. Pass in a data buffer, get the correct type of pdu back
-   * based on the PDU type field contained in the underlying array.
+   * PDU builder. Pass in a data buffer positioned at the start of a PDU, get the correct type of pdu back
+   * based on the PDU type field contained in the buffer.  Heap, direct and read-only buffers are supported,
+   * and only bytes between position and limit are read.  On return the buffer position has advanced past the PDU.
+   * Stateless and thread safe, see {@link #decodePdu(ByteBuffer)}.
    *
    * @param byteBuffer the buffer containing PDU data to input
    * @return A PDU of the appropriate concrete subclass of PDU or null if there was an error
    */
-  public synchronized Pdu createPdu(ByteBuffer byteBuffer)
+  public Pdu createPdu(ByteBuffer byteBuffer)
   {
-    DisPduType pduType;
-    
-    if ((byteBuffer == null) || (byteBuffer.array().length == 0))
-    {
-        System.err.println ("[PduFactory] createPdu(ByteBuffer byteBuffer) received empty buffer, unable to determine pduType, using DisPduType.OTHER");
-        pduType = DisPduType.OTHER;
-    }
-    else pduType = getTypeFromByteArray(byteBuffer.array());
-    
-    return createPdu(pduType, byteBuffer);
+    return decodePdu(byteBuffer);
   }
 
   /**
-   * Return the enumerated pdu type from a byte array, typically received from the
-   * network.  Returns DisPduType.OTHER if no byteArray provided.
+   * PDU decoder. Pass in a data buffer positioned at the start of a PDU, get the correct type of pdu back
+   * based on the PDU type field contained in the buffer.  Heap, direct and read-only buffers are supported,
+   * and only bytes between position and limit are read.  On return the buffer position has advanced past the PDU.
+   * Decoding uses no factory configuration and takes no locks, so any number of receive threads may decode
+   * concurrently, each with its own buffer.
    *
-   * @param byteArray byte array
-   * @return the DisPduType
+   * @param byteBuffer the buffer containing PDU data to input
+   * @return A PDU of the appropriate concrete subclass of PDU or null if there was an error
    */
-  private DisPduType getTypeFromByteArray(byte[] byteArray)
+  public static Pdu decodePdu(ByteBuffer byteBuffer)
   {
-    DisPduType pduType;
-    
-    if ((byteArray == null) || (byteArray.length == 0))
+    if ((byteBuffer == null) || (byteBuffer.remaining() < 3))
+    {
+        System.err.println ("[PduFactory] decodePdu(ByteBuffer byteBuffer) received empty buffer, unable to determine pduType, returning null");
+        return null;
+    }
+    int pduTypeValue = getTypeValue(byteBuffer);
+    Pdu aPdu = newPdu(pduTypeValue);
+    if (aPdu == null)
     {
-        System.err.println ("[PduFactory] getTypeFromByteArray(byte[] byteArray) received empty byteArray, unable to determine pduType, using DisPduType.OTHER");
-        pduType = DisPduType.OTHER;
+        System.err.println ("[PduFactory] decodePdu(ByteBuffer byteBuffer) pduType value " + pduTypeValue + " has no corresponding object, returning null");
+        return null;
     }
-    else pduType = DisPduType.getEnumForValue(Byte.toUnsignedInt(byteArray[2])); // 3rd byte
-    
-    return pduType;
+    unmarshalPdu(aPdu, byteBuffer);
+    return aPdu;
   }
 
   /**
-   * Create and add initial properties to an empty PDU of the given type
-   * @param pduType PDU type to create
-   * @return the empty pdu
+   * PDU decoder for steady-state receive loops.  Unmarshals the PDU at the current buffer position into a
+   * caller-supplied instance when it has the same PDU type, so that nested records, list elements and arrays
+   * of the previous PDU are overwritten in place rather than allocated again.
+   * Otherwise a new PDU is created, which the caller can pass back as reuse for the next datagram.
+   * Values previously obtained from reuse (list elements, nested records, arrays) are overwritten as well,
+   * so copy anything that must outlive the next decode.  Stateless and thread safe, provided that
+   * each thread passes its own reuse instance.
+   *
+   * @param byteBuffer the buffer containing PDU data, positioned at the start of a PDU
+   * @param reuse previously decoded instance to overwrite, may be null
+   * @return reuse if its type matches, otherwise a new PDU of the appropriate concrete subclass, or null if there was an error
    */
-  public synchronized Pdu createPdu(DisPduType pduType)
+  public static Pdu decodeInto(ByteBuffer byteBuffer, Pdu reuse)
   {
-    return createPdu(pduType, null);
+    if ((byteBuffer == null) || (byteBuffer.remaining() < 3))
+    {
+        System.err.println ("[PduFactory] decodeInto(ByteBuffer byteBuffer, Pdu reuse) received empty buffer, unable to determine pduType");
+        return null;
+    }
+    if ((reuse == null) || (reuse.getPduType() == null) || (reuse.getPduType().getValue() != getTypeValue(byteBuffer)))
+        return decodePdu(byteBuffer);
+    unmarshalPdu(reuse, byteBuffer);
+    return reuse;
   }
 
-  private synchronized Pdu createPdu(DisPduType pduType, ByteBuffer byteBuffer)
+  /**
+   * PDU decoder for data processed in place, such as memory-mapped capture files or shared-memory rings held in
+   * direct buffers.  Same as {@link #decodeInto(ByteBuffer, Pdu)}, but reads the PDU starting at an absolute index
+   * and leaves buffer position unchanged, so that several threads may decode different PDUs of the same buffer
+   * and no bytes are copied onto the heap before decoding.  Combine with {@link PduHeaderReader} or a generated view
+   * to select PDUs by header fields first.
+   *
+   * @param byteBuffer big-endian buffer containing PDU data
+   * @param offset index of first byte of the PDU
+   * @param reuse previously decoded instance to overwrite, may be null
+   * @return reuse if its type matches, otherwise a new PDU of the appropriate concrete subclass, or null if there was an error
+   * @see Pdu#unmarshal(ByteBuffer, int)
+   */
+  public static Pdu decodeInto(ByteBuffer byteBuffer, int offset, Pdu reuse)
   {
-    Pdu aPdu = null;
-    switch (pduType)
+    if ((byteBuffer == null) || (offset < 0) || (byteBuffer.limit() - offset < 3))
     {
-      case OTHER:
-        // NOTE: 'OTHER' is a valid pduTypeEnum, but has no corresponding object
-        System.err.println ("[PduFactory] (DisPduType pduType, ByteBuffer byteBuffer) received DisPduType.OTHER, which has no corresponding object, returning null");
-        break;
-          
-      case ENTITY_STATE:
-        // if the user has created the factory requesting that he get fast espdus back, give him those.
-        aPdu = new EntityStatePdu();
-        break;
-
-      case FIRE:
-        aPdu = new FirePdu();
-        break;
-
-      case DETONATION:
-        aPdu = new DetonationPdu();
-        break;
-
-      case COLLISION:
-        aPdu = new CollisionPdu();
-        break;
-
-      case SERVICE_REQUEST:
-        aPdu = new ServiceRequestPdu();
-        break;
-
-      case RESUPPLY_OFFER:
-        aPdu = new ResupplyOfferPdu();
-        break;
-
-      case RESUPPLY_RECEIVED:
-        aPdu = new ResupplyReceivedPdu();
-        break;
-
-      case RESUPPLY_CANCEL:
-        aPdu = new ResupplyCancelPdu();
-        break;
-
-      case REPAIR_COMPLETE:
-        aPdu = new RepairCompletePdu();
-        break;
-
-      case REPAIR_RESPONSE:
-        aPdu = new RepairResponsePdu();
-        break;
-
-      case CREATE_ENTITY:
-        aPdu = new CreateEntityPdu();
-        break;
-
-      case REMOVE_ENTITY:
-        aPdu = new RemoveEntityPdu();
-        break;
-
-      case START_RESUME:
-        aPdu = new StartResumePdu();
-        break;
-
-      case STOP_FREEZE:
-        aPdu = new StopFreezePdu();
-        break;
-
-      case ACKNOWLEDGE:
-        aPdu = new AcknowledgePdu();
-        break;
-
-      case ACTION_REQUEST:
-        aPdu = new ActionRequestPdu();
-        break;
-
-      case ACTION_RESPONSE:
-        aPdu = new ActionResponsePdu();
-        break;
-
-      case DATA_QUERY:
-        aPdu = new DataQueryPdu();
-        break;
-
-      case SET_DATA:
-        aPdu = new SetDataPdu();
-        break;
-
-      case DATA:
-        aPdu = new DataPdu();
-        break;
-
-      case EVENT_REPORT:
-        aPdu = new EventReportPdu();
-        break;
-
-      case COMMENT:
-        aPdu = new CommentPdu();
-        break;
-
-      case ELECTROMAGNETIC_EMISSION:
-        aPdu = new ElectromagneticEmissionPdu();
-        break;
-
-      case DESIGNATOR:
-        aPdu = new DesignatorPdu();
-        break;
-
-      case TRANSMITTER:
-        aPdu = new TransmitterPdu();
-        break;
-
-      case SIGNAL:
-        aPdu = new SignalPdu();
-        break;
-
-      case RECEIVER:
-        aPdu = new ReceiverPdu();
-        break;
-
-      case IDENTIFICATION_FRIEND_OR_FOE:
-        aPdu = new IFFPdu();
-        break;
-
-      case UNDERWATER_ACOUSTIC:
-        aPdu = new UnderwaterAcousticPdu();
-        break;
-
-      case SUPPLEMENTAL_EMISSION_ENTITY_STATE:
-        aPdu = new SEESPdu();
-        break;
-
-      case INTERCOM_SIGNAL:
-        aPdu = new IntercomSignalPdu();
-        break;
-
-      case INTERCOM_CONTROL:
-        aPdu = new IntercomControlPdu();
-        break;
-
-      case AGGREGATE_STATE:
-        aPdu = new AggregateStatePdu();
-        break;
-
-      case ISGROUPOF:
-        aPdu = new IsGroupOfPdu();
-        break;
-
-      case TRANSFER_OWNERSHIP:
-        aPdu = new TransferOwnershipPdu();
-        break;
-
-      case ISPARTOF:
-        aPdu = new IsPartOfPdu();
-        break;
-
-      case MINEFIELD_STATE:
-        aPdu = new MinefieldStatePdu();
-        break;
-
-      case MINEFIELD_QUERY:
-        aPdu = new MinefieldQueryPdu();
-        break;
-
-      case MINEFIELD_DATA:
-        aPdu = new MinefieldDataPdu();
-        break;
-
-      case MINEFIELD_RESPONSE_NACK:
-        aPdu = new MinefieldResponseNACKPdu();
-        break;
-
-      case ENVIRONMENTAL_PROCESS:
-        aPdu = new EnvironmentalProcessPdu();
-        break;
+        System.err.println ("[PduFactory] decodeInto(ByteBuffer byteBuffer, int offset, Pdu reuse) received empty buffer, unable to determine pduType");
+        return null;
+    }
+    int pduTypeValue = Byte.toUnsignedInt(byteBuffer.get(offset + 2)); // 3rd byte
+    Pdu aPdu = reuse;
+    if ((aPdu == null) || (aPdu.getPduType() == null) || (aPdu.getPduType().getValue() != pduTypeValue))
+        aPdu = newPdu(pduTypeValue);
+    if (aPdu == null)
+    {
+        System.err.println ("[PduFactory] decodeInto(ByteBuffer byteBuffer, int offset, Pdu reuse) pduType value " + pduTypeValue + " has no corresponding object, returning null");
+        return null;
+    }
+    try {
+        aPdu.setLength(aPdu.unmarshal(byteBuffer, offset));
+    }
+    catch (Exception ex) {
+        Logger.getLogger(PduFactory.class.getName()).log(Level.SEVERE, null, ex);
+    }
+    return aPdu;
+  }
 
-      case GRIDDED_DATA:
-        aPdu = new GriddedDataPdu();
-        break;
+  /**
+   * Return the unsigned pdu type value found at the current position of a buffer, without changing position.
+   *
+   * @param byteBuffer buffer positioned at the start of a PDU, with at least three bytes remaining
+   * @return PDU type value, 0..255
+   */
+  private static int getTypeValue(ByteBuffer byteBuffer)
+  {
+    return Byte.toUnsignedInt(byteBuffer.get(byteBuffer.position() + 2)); // 3rd byte
+  }
 
-      case POINT_OBJECT_STATE:
-        aPdu = new PointObjectStatePdu();
-        break;
+  /**
+   * Unmarshal a PDU starting at the current buffer position, then advance that position past the PDU.
+   * Decoding proceeds in a slice beginning at the PDU, so that padding to 16/32/64-bit boundaries is
+   * measured from the start of the PDU even when it lies at an arbitrary offset within a datagram.
+   *
+   * @param aPdu PDU of matching type
+   * @param byteBuffer heap, direct or read-only buffer positioned at the start of the PDU
+   */
+  private static void unmarshalPdu(Pdu aPdu, ByteBuffer byteBuffer)
+  {
+    ByteBuffer pduBuffer = byteBuffer.slice(); // big-endian, position 0 at start of PDU
+    try {
+        aPdu.setLength(aPdu.unmarshal(pduBuffer));
+    }
+    catch (Exception ex) {
+        Logger.getLogger(PduFactory.class.getName()).log(Level.SEVERE, null, ex);
+    }
+    byteBuffer.position(byteBuffer.position() + pduBuffer.position());
+  }
 
-      case LINEAR_OBJECT_STATE:
-        aPdu = new LinearObjectStatePdu();
-        break;
+  /**
+   * Create an empty PDU of the given type, without initial properties.  Stateless and thread safe.
+   * @param pduType PDU type to create
+   * @return the empty pdu, or null if no PDU class corresponds to pduType (for example OTHER)
+   */
+  public Pdu createPdu(DisPduType pduType)
+  {
+    Pdu aPdu = (pduType == null) ? null : newPdu(pduType.getValue());
+    if (aPdu == null)
+        // NOTE: 'OTHER' is a valid pduTypeEnum, but has no corresponding object
+        System.err.println ("[PduFactory] createPdu(DisPduType pduType) pduType " + pduType + " has no corresponding object, returning null");
+    return aPdu;
+  }
 
-      case AREAL_OBJECT_STATE:
-        aPdu = new ArealObjectStatePdu();
-        break;
 
-      case TIME_SPACE_POSITION_INFORMATION:
-        aPdu = new TSPIPdu();
-        break;
+    /** Index of the 16-bit PDU length field within the PDU header */
+    private static final int PDU_LENGTH_FIELD_OFFSET = 8;
 
-      case APPEARANCE:
-        aPdu = new AppearancePdu();
-        break;
+    /** Smallest acceptable value of the PDU length field, the size of the PDU header */
+    public static final int MINIMUM_PDU_LENGTH = 12;
 
-      case ARTICULATED_PARTS:
-        aPdu = new ArticulatedPartsPdu();
-        break;
+    /**
+     * Callback receiving the location of each PDU within a bundled datagram, see
+     * {@link PduFactory#forEachPduInBundle(ByteBuffer, BundledPduHandler)}.
+     */
+    @FunctionalInterface
+    public interface BundledPduHandler
+    {
+        /**
+         * Handle one PDU in place, for example by wrapping a view such as EntityStatePduView at offset.
+         * @param datagram buffer holding the whole datagram, whose position and limit must be left unchanged
+         * @param offset absolute index of the first byte of the PDU
+         * @param length PDU length in bytes, from the PDU header
+         */
+        void handle(ByteBuffer datagram, int offset, int length);
+    }
 
-      case LIVE_ENTITY_FIRE:
-        aPdu = new LEFirePdu();
-        break;
+    /**
+     * Walk a datagram containing one or more bundled PDUs without copying, handing the location of each PDU
+     * to a handler.  As a performance hack DIS may include several PDUs in one datagram, of multiple types
+     * and lengths, so each step advances by the length field of the PDU header.
+     * Walking stops at the buffer limit, at trailing padding shorter than a PDU header or with zero length
+     * field, or at the first malformed length (smaller than a PDU header or beyond the limit).
+     * The bytes between position and limit are examined using absolute access, position and limit are unchanged.
+     *
+     * @param datagram heap, direct or read-only buffer holding the datagram between position and limit
+     * @param handler callback invoked for each PDU in order
+     * @return number of PDUs handed to handler
+     */
+    public static int forEachPduInBundle(ByteBuffer datagram, BundledPduHandler handler)
+    {
+        int count  = 0;
+        int offset = datagram.position();
+        int limit  = datagram.limit();
+
+        while (limit - offset >= MINIMUM_PDU_LENGTH)
+        {
+            int lengthIndex = offset + PDU_LENGTH_FIELD_OFFSET;
+            int pduLength = ((datagram.get(lengthIndex) & 0xFF) << 8) | (datagram.get(lengthIndex + 1) & 0xFF); // network byte order
+            if (pduLength == 0)
+                break; // remainder is padding
+            if ((pduLength < MINIMUM_PDU_LENGTH) || (pduLength > limit - offset))
+            {
+                System.err.println("[PduFactory] forEachPduInBundle() found malformed PDU length " + pduLength +
+                                   " at offset " + offset + ", ignoring remainder of datagram");
+                break;
+            }
+            handler.handle(datagram, offset, pduLength);
+            count++;
+            offset += pduLength;
+        }
+        return count;
+    }
 
-      case LIVE_ENTITY_DETONATION:
-        aPdu = new LEDetonationPdu();
-        break;
-
-      case CREATE_ENTITY_RELIABLE:
-        aPdu = new CreateEntityReliablePdu();
-        break;
-
-      case REMOVE_ENTITY_RELIABLE:
-        aPdu = new RemoveEntityReliablePdu();
-        break;
-
-      case START_RESUME_RELIABLE:
-        aPdu = new StartResumeReliablePdu();
-        break;
-
-      case STOP_FREEZE_RELIABLE:
-        aPdu = new StopFreezeReliablePdu();
-        break;
-
-      case ACKNOWLEDGE_RELIABLE:
-        aPdu = new AcknowledgeReliablePdu();
-        break;
-
-      case ACTION_REQUEST_RELIABLE:
-        aPdu = new ActionRequestReliablePdu();
-        break;
-
-      case ACTION_RESPONSE_RELIABLE:
-        aPdu = new ActionResponseReliablePdu();
-        break;
-
-      case DATA_QUERY_RELIABLE:
-        aPdu = new DataQueryReliablePdu();
-        break;
-
-      case SET_DATA_RELIABLE:
-        aPdu = new SetDataReliablePdu();
-        break;
-
-      case DATA_RELIABLE:
-        aPdu = new DataReliablePdu();
-        break;
-
-      case EVENT_REPORT_RELIABLE:
-        aPdu = new EventReportReliablePdu();
-        break;
-
-      case COMMENT_RELIABLE:
-        aPdu = new CommentReliablePdu();
-        break;
-
-      case RECORD_RELIABLE:
-        aPdu = new RecordReliablePdu();
-        break;
-
-      case SET_RECORD_RELIABLE:
-        aPdu = new SetRecordReliablePdu();
-        break;
-
-      case RECORD_QUERY_RELIABLE:
-        aPdu = new RecordQueryReliablePdu();
-        break;
-
-      case COLLISION_ELASTIC:
-        aPdu = new CollisionElasticPdu();
-        break;
-
-      case ENTITY_STATE_UPDATE:
-        aPdu = new EntityStateUpdatePdu();
-        break;
-
-      case DIRECTED_ENERGY_FIRE:
-        aPdu = new DirectedEnergyFirePdu();
-        break;
-
-      case ENTITY_DAMAGE_STATUS:
-        aPdu = new EntityDamageStatusPdu();
-        break;
-
-      case INFORMATION_OPERATIONS_ACTION:
-        aPdu = new InformationOperationsActionPdu();
-        break;
-
-      case INFORMATION_OPERATIONS_REPORT:
-        aPdu = new InformationOperationsReportPdu();
-        break;
-
-      case ATTRIBUTE:
-        aPdu = new AttributePdu();
-        break;
-
-      default:
-        System.err.println("[PduFactory] createPdu(DisPduType pduType, ByteBuffer byteBuffer) pduType " + pduType +
-                           " not implemented, returning null");
-    }   // end switch
-
-    if (aPdu != null) {
-      if (byteBuffer != null) {
-          try {
-              aPdu.setLength(aPdu.unmarshal(byteBuffer));
-          } 
-          catch (Exception ex) {
-              Logger.getLogger(PduFactory.class.getName()).log(Level.SEVERE, null, ex);
-          }
-      }
+    /**
+     * Decode each PDU of a datagram with bundled PDUs and pass it to a consumer, without copying datagram contents.
+     * See {@link #forEachPduInBundle(ByteBuffer, BundledPduHandler)} for how the datagram is walked.
+     * Position and limit of datagram are unchanged.
+     *
+     * @param datagram heap, direct or read-only buffer holding the datagram between position and limit
+     * @param consumer receives each decoded PDU in order
+     * @return number of PDUs decoded
+     */
+    public static int decodeBundle(ByteBuffer datagram, Consumer<Pdu> consumer)
+    {
+        ByteBuffer cursor = datagram.duplicate(); // shares content, independent position and limit
+        int[] decoded = new int[1];
+        forEachPduInBundle(datagram, (buffer, offset, length) -> {
+            cursor.limit(offset + length).position(offset);
+            Pdu pdu = decodePdu(cursor);
+            if (pdu != null)
+            {
+                consumer.accept(pdu);
+                decoded[0]++;
+            }
+        });
+        return decoded[0];
     }
-    return aPdu;
-  }
 
     /**
      * Decodes datagram contents with bundled PDUs. As a performance hack DIS may
      * include several PDUs in one datagram. Typically the max datagram size is
      * 8K (above that it runs into some issues with the default incoming socket
      * buffer size) but it may be more. The PDUs may be of multiple types and
-     * different lengths, so we have to step through the buffer and depend on
-     * the reported PDU length in the header. There's a lot that can go wrong.
-     * If something blows up, we return all the decoded PDUs we can.
+     * different lengths, so we step through the buffer using the reported
+     * PDU length in the header, see {@link #decodeBundle(ByteBuffer, Consumer)}.
+     * If a length is malformed, we return all the decoded PDUs we can.
      *
      * @param data a large buffer filled with possible multiple PDUs
      * @param length the size of the multiple PDU buffer
@@ -1853,79 +1818,7 @@ public class PduFactory
 
         // All the PDUs in this bundle we were able to decode
         List<Pdu> pdus = new ArrayList<>();
-
-        // The start point of a PDU in the data. We advance this by the size
-        // of each PDU as we read it.
-        int pduStartPointInData = 0;
-        byte remaining[];
-        Pdu pdu;
-        int pduLength;
-
-        while (true) {
-            // This is inefficient, but screw it. Give the GC a workout. Create a new
-            // data array from where the last PDU left off to the end of the original
-            // data array. This lets us reuse a bunch of old code.
-
-            remaining = Arrays.copyOfRange(data, pduStartPointInData, length);
-
-            try {
-                // first check remaining byte array for PDU bundle, might simply consist of additional padding
-                if (remaining.length <= 16)
-                {
-                    // remaining byte array is too short, smallest PDU is DisPduType 48 ARTICULATED_PARTS, size 17 bytes
-                    // TODO trace capability
-//                    System.out.println("pduBundle remaining byte array is too short for another PDU, length=" + remaining.length);
-                    break;
-                }
-                else
-                {
-                    boolean remainingNonZeroDataFound = false;
-                    for (byte nextByte : remaining)
-                    {
-                        if (nextByte != 0)
-                        {
-                            remainingNonZeroDataFound = true;
-//                            continue;
-                        }
-                    }
-                    if (!remainingNonZeroDataFound)
-                    {
-                    // TODO trace capability
-//                        System.out.println("pduBundle remaining byte array (length=" + remaining.length + ") is all zeros, ignored");
-                        break;
-                    }
-                }
-                // Decode one PDU
-                pdu = this.createPdu(remaining);
-
-                // If the read is muffed somehow, give up on decoding the rest of
-                // the data
-                if (pdu == null) {
-                    //System.out.println("Stopped reading bundled PDU due to bad PDU");
-                    break;
-                } else // otherwise add it to the list of PDUs we have decoded from this UDP packet
-                {
-                    pdus.add(pdu);
-                }
-
-                // Advance the index to the start of the next PDU
-                pduLength = pdu.getMarshalledSize();
-
-                pduStartPointInData = pduStartPointInData + pduLength;
-
-                //System.out.println("PDUStartPoint:" + pduStartPointInData + " data: " + length);
-                // Have we read all the data?
-                if (pduStartPointInData >= length) {
-                    //System.out.println("Out of data to read" + pduStartPointInData + " data length:" + length);
-                    break;
-                }
-
-            } catch (Exception e) {
-                System.err.println("Problems decoding multiple PDUs in datagram; decoded as may as possible");
-                break;
-            }
-        } // end while
-
+        decodeBundle(ByteBuffer.wrap(data, 0, length), pdus::add);
         return pdus;
     }
     /**
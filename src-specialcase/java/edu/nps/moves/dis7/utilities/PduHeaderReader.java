@@ -0,0 +1,388 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+package edu.nps.moves.dis7.utilities;
+
+import edu.nps.moves.dis7.enumerations.*;
+import edu.nps.moves.dis7.pdus.*;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Static utility reading PDU header fields, and the identifier of the entity issuing or described by a PDU,
+ * directly from serialized data without constructing a PDU.  Intended for gateways and filters that route or
+ * drop PDUs before (or instead of) decoding them with PduFactory.
+ * <p>
+ * Every method takes the data holding the PDU together with the offset of the first PDU byte, reads absolute
+ * positions in network byte order and allocates nothing.  ByteBuffer methods ignore the buffer position and
+ * byte order and leave both unchanged, so that many threads may read the same data concurrently.
+ * Bounds are not checked beyond the checks performed by the array or buffer itself; use
+ * {@link #hasHeader(byte[], int, int)} first when data may be truncated.
+ * <p>
+ * Header offsets are those of the generated {@link Pdu} and {@link PduBase} classes.
+ *
+ * @see PduFactory
+ * @see PduView
+ */
+public final class PduHeaderReader
+{
+  /** size in bytes of the PDU header common to all PDU families except Live Entity */
+  public static final int HEADER_SIZE = PduBase.FIXED_SIZE;
+
+  /** byte offset from start of PDU of the EntityID record following the header, for PDU types where {@link #hasEntityID(int)} */
+  public static final int ENTITY_ID_OFFSET = PduBase.FIXED_SIZE;
+
+  /** Whether a PDU type begins with an EntityID record immediately after the header, indexed by unsigned PDU type value.
+   *  Immutable after class initialization, so lookups are thread safe without locking. */
+  private static final boolean[] ENTITY_ID_PRESENT = new boolean[256];
+
+  static
+  {
+      // entity issuing the PDU, or described by it
+      registerEntityID(DisPduType.ENTITY_STATE);
+      registerEntityID(DisPduType.ENTITY_STATE_UPDATE);
+      registerEntityID(DisPduType.FIRE);
+      registerEntityID(DisPduType.DETONATION);
+      registerEntityID(DisPduType.COLLISION);
+      registerEntityID(DisPduType.COLLISION_ELASTIC);
+      registerEntityID(DisPduType.DIRECTED_ENERGY_FIRE);
+      registerEntityID(DisPduType.ENTITY_DAMAGE_STATUS);
+      registerEntityID(DisPduType.SERVICE_REQUEST);
+      registerEntityID(DisPduType.ELECTROMAGNETIC_EMISSION);
+      registerEntityID(DisPduType.DESIGNATOR);
+      registerEntityID(DisPduType.IDENTIFICATION_FRIEND_OR_FOE);
+      registerEntityID(DisPduType.UNDERWATER_ACOUSTIC);
+      registerEntityID(DisPduType.SUPPLEMENTAL_EMISSION_ENTITY_STATE);
+      registerEntityID(DisPduType.ISGROUPOF);
+      registerEntityID(DisPduType.ISPARTOF);
+      registerEntityID(DisPduType.TRANSFER_OWNERSHIP);
+      // radio or intercom reference, identifying the entity to which the radio is attached
+      registerEntityID(DisPduType.TRANSMITTER);
+      registerEntityID(DisPduType.SIGNAL);
+      registerEntityID(DisPduType.RECEIVER);
+      registerEntityID(DisPduType.INTERCOM_SIGNAL);
+  }
+
+  private static void registerEntityID(DisPduType pduType)
+  {
+      ENTITY_ID_PRESENT[pduType.getValue()] = true;
+  }
+
+  private PduHeaderReader()
+  {
+  }
+
+  /**
+   * Whether PDUs of a given type begin with an EntityID record at {@link #ENTITY_ID_OFFSET}.
+   * Logistics and Information Operations PDUs, which begin with the receiving entity, are excluded.
+   * @param pduTypeValue unsigned PDU type value
+   * @return whether entity accessors apply
+   */
+  public static boolean hasEntityID(int pduTypeValue)
+  {
+      return (pduTypeValue >= 0) && (pduTypeValue < ENTITY_ID_PRESENT.length) && ENTITY_ID_PRESENT[pduTypeValue];
+  }
+
+  // byte[] accessors
+
+  /**
+   * Whether enough data is available for a complete header, and for the complete PDU as given by its length field
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @param available number of bytes available from offset onwards
+   * @return whether header and length field are consistent with available data
+   */
+  public static boolean hasHeader(byte[] data, int offset, int available)
+  {
+      if ((offset < 0) || (available < HEADER_SIZE) || (offset + available > data.length))
+          return false;
+      int length = getLength(data, offset);
+      return (length >= HEADER_SIZE) && (length <= available);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned protocol version value
+   */
+  public static int getProtocolVersionValue(byte[] data, int offset)
+  {
+      return unsignedByte(data, offset + Pdu.PROTOCOL_VERSION_OFFSET);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned exercise ID
+   */
+  public static int getExerciseID(byte[] data, int offset)
+  {
+      return unsignedByte(data, offset + Pdu.EXERCISE_ID_OFFSET);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned PDU type value
+   */
+  public static int getPduTypeValue(byte[] data, int offset)
+  {
+      return unsignedByte(data, offset + Pdu.PDU_TYPE_OFFSET);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return PDU type, or null if value is not defined for DisPduType
+   */
+  public static DisPduType getPduType(byte[] data, int offset)
+  {
+      return DisPduType.getEnumForValue(getPduTypeValue(data, offset));
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned protocol family value
+   */
+  public static int getProtocolFamilyValue(byte[] data, int offset)
+  {
+      return unsignedByte(data, offset + Pdu.PROTOCOL_FAMILY_OFFSET);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return timestamp bit pattern, see DisTime for conversion
+   */
+  public static int getTimestamp(byte[] data, int offset)
+  {
+      int index = offset + Pdu.TIMESTAMP_OFFSET;
+      return (unsignedShort(data, index) << 16) | unsignedShort(data, index + 2);
+  }
+
+  /**
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned PDU length in bytes, as given in the header
+   */
+  public static int getLength(byte[] data, int offset)
+  {
+      return unsignedShort(data, offset + Pdu.LENGTH_OFFSET);
+  }
+
+  /**
+   * Site of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned site ID
+   */
+  public static int getEntitySiteID(byte[] data, int offset)
+  {
+      return unsignedShort(data, offset + ENTITY_ID_OFFSET + EntityID.SITE_ID_OFFSET);
+  }
+
+  /**
+   * Application of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned application ID
+   */
+  public static int getEntityApplicationID(byte[] data, int offset)
+  {
+      return unsignedShort(data, offset + ENTITY_ID_OFFSET + EntityID.APPLICATION_ID_OFFSET);
+  }
+
+  /**
+   * Entity number of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return unsigned entity ID
+   */
+  public static int getEntityID(byte[] data, int offset)
+  {
+      return unsignedShort(data, offset + ENTITY_ID_OFFSET + EntityID.ENTITY_ID_OFFSET);
+  }
+
+  /**
+   * Site, application and entity number of the entity identifier following the header, packed into one value
+   * suitable as key of a routing table
+   * @param data serialized data
+   * @param offset index of first PDU byte
+   * @return site &lt;&lt; 32 | application &lt;&lt; 16 | entity, or -1 if this PDU type has no EntityID after the header
+   */
+  public static long getEntityKey(byte[] data, int offset)
+  {
+      if (!hasEntityID(getPduTypeValue(data, offset)))
+          return -1L;
+      return entityKey(getEntitySiteID(data, offset), getEntityApplicationID(data, offset), getEntityID(data, offset));
+  }
+
+  // ByteBuffer accessors
+
+  /**
+   * Whether enough data is available for a complete header, and for the complete PDU as given by its length field
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return whether header and length field are consistent with data up to the buffer limit
+   */
+  public static boolean hasHeader(ByteBuffer byteBuffer, int offset)
+  {
+      int available = byteBuffer.limit() - offset;
+      if ((offset < 0) || (available < HEADER_SIZE))
+          return false;
+      int length = getLength(byteBuffer, offset);
+      return (length >= HEADER_SIZE) && (length <= available);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned protocol version value
+   */
+  public static int getProtocolVersionValue(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedByte(byteBuffer, offset + Pdu.PROTOCOL_VERSION_OFFSET);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned exercise ID
+   */
+  public static int getExerciseID(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedByte(byteBuffer, offset + Pdu.EXERCISE_ID_OFFSET);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned PDU type value
+   */
+  public static int getPduTypeValue(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedByte(byteBuffer, offset + Pdu.PDU_TYPE_OFFSET);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return PDU type, or null if value is not defined for DisPduType
+   */
+  public static DisPduType getPduType(ByteBuffer byteBuffer, int offset)
+  {
+      return DisPduType.getEnumForValue(getPduTypeValue(byteBuffer, offset));
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned protocol family value
+   */
+  public static int getProtocolFamilyValue(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedByte(byteBuffer, offset + Pdu.PROTOCOL_FAMILY_OFFSET);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return timestamp bit pattern, see DisTime for conversion
+   */
+  public static int getTimestamp(ByteBuffer byteBuffer, int offset)
+  {
+      int index = offset + Pdu.TIMESTAMP_OFFSET;
+      return (unsignedShort(byteBuffer, index) << 16) | unsignedShort(byteBuffer, index + 2);
+  }
+
+  /**
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned PDU length in bytes, as given in the header
+   */
+  public static int getLength(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedShort(byteBuffer, offset + Pdu.LENGTH_OFFSET);
+  }
+
+  /**
+   * Site of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned site ID
+   */
+  public static int getEntitySiteID(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedShort(byteBuffer, offset + ENTITY_ID_OFFSET + EntityID.SITE_ID_OFFSET);
+  }
+
+  /**
+   * Application of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned application ID
+   */
+  public static int getEntityApplicationID(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedShort(byteBuffer, offset + ENTITY_ID_OFFSET + EntityID.APPLICATION_ID_OFFSET);
+  }
+
+  /**
+   * Entity number of the entity identifier following the header, valid only if {@link #hasEntityID(int)}
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return unsigned entity ID
+   */
+  public static int getEntityID(ByteBuffer byteBuffer, int offset)
+  {
+      return unsignedShort(byteBuffer, offset + ENTITY_ID_OFFSET + EntityID.ENTITY_ID_OFFSET);
+  }
+
+  /**
+   * Site, application and entity number of the entity identifier following the header, packed into one value
+   * suitable as key of a routing table
+   * @param byteBuffer serialized data
+   * @param offset absolute index of first PDU byte
+   * @return site &lt;&lt; 32 | application &lt;&lt; 16 | entity, or -1 if this PDU type has no EntityID after the header
+   */
+  public static long getEntityKey(ByteBuffer byteBuffer, int offset)
+  {
+      if (!hasEntityID(getPduTypeValue(byteBuffer, offset)))
+          return -1L;
+      return entityKey(getEntitySiteID(byteBuffer, offset), getEntityApplicationID(byteBuffer, offset), getEntityID(byteBuffer, offset));
+  }
+
+  /**
+   * Pack an entity identifier into one value, matching {@link #getEntityKey(byte[], int)}
+   * @param siteID unsigned site ID
+   * @param applicationID unsigned application ID
+   * @param entityID unsigned entity ID
+   * @return site &lt;&lt; 32 | application &lt;&lt; 16 | entity
+   */
+  public static long entityKey(int siteID, int applicationID, int entityID)
+  {
+      return ((long) (siteID & 0xFFFF) << 32) | ((long) (applicationID & 0xFFFF) << 16) | (entityID & 0xFFFF);
+  }
+
+  private static int unsignedByte(byte[] data, int index)
+  {
+      return data[index] & 0xFF;
+  }
+
+  private static int unsignedShort(byte[] data, int index)
+  {
+      return ((data[index] & 0xFF) << 8) | (data[index + 1] & 0xFF);
+  }
+
+  private static int unsignedByte(ByteBuffer byteBuffer, int index)
+  {
+      return byteBuffer.get(index) & 0xFF;
+  }
+
+  private static int unsignedShort(ByteBuffer byteBuffer, int index)
+  {
+      return ((byteBuffer.get(index) & 0xFF) << 8) | (byteBuffer.get(index + 1) & 0xFF);
+  }
+}
@@ -9,10 +9,11 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 
 /**
  * Align is a class with methods to marshal and unmarshal variable length padding.
+ * ByteBuffer alignment is computed from the buffer position, so a PDU should begin at position 0,
+ * for example in a slice of a larger datagram buffer as used by PduFactory.
  *
  * @author Mike Bailey, jmbailey@nps.edu
  * @version $Id$
@@ -23,6 +24,21 @@ public class Align
         public Align()
         {
         }
+
+  /** shared zero-filled padding arrays, indexed by length */
+  private static final byte[][] PADDING = { new byte[0], new byte[1], new byte[2], new byte[3],
+                                            new byte[4], new byte[5], new byte[6], new byte[7] };
+
+  /** Provide a zero-filled padding array of given length, shared rather than allocated
+   * so that repeated marshal and unmarshal of padded records creates no garbage.
+   * Padding arrays only record a length and must not be modified.
+   * @param length number of padding bytes, as returned by the alignment methods
+   * @return zero-filled array of given length
+  */
+  static public byte[] padding(int length)
+  {
+      return (length < PADDING.length) ? PADDING[length] : new byte[length];
+  }
   /** Align bits to byteBuffer
    * @param byteBuffer output
    * @return padded integer
@@ -30,7 +46,8 @@ public class Align
   static public int to16bits(ByteBuffer byteBuffer)
   {
       int pad = (2 - byteBuffer.position() % 2) % 2;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.put((byte)0));
+      for (int i = 0; i < pad; i++)
+          byteBuffer.put((byte)0);
       return pad;
   }
 
@@ -41,7 +58,8 @@ public class Align
   static public int to16bits(DataOutputStream dos)
   {
       int pad = (2 - dos.size() % 2) % 2;
-      Arrays.stream(new int[pad]).forEach(x->dosWrite(dos));
+      for (int i = 0; i < pad; i++)
+          dosWrite(dos);
       return pad;
   }
 
@@ -52,7 +70,8 @@ public class Align
   static public int to32bits(ByteBuffer byteBuffer)
   {
       int pad = (4 - byteBuffer.position() % 4) % 4;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.put((byte)0));
+      for (int i = 0; i < pad; i++)
+          byteBuffer.put((byte)0);
       return pad;
   }
 
@@ -63,7 +82,8 @@ public class Align
   static public int to32bits(DataOutputStream dos)
   {
       int pad = (4 - dos.size() % 4) % 4;
-      Arrays.stream(new int[pad]).forEach(x->dosWrite(dos));
+      for (int i = 0; i < pad; i++)
+          dosWrite(dos);
       return pad;
   }
 
@@ -74,7 +94,8 @@ public class Align
   static public int to64bits(ByteBuffer byteBuffer)
   {
       int pad = (8 - byteBuffer.position() % 8) % 8;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.put((byte)0));
+      for (int i = 0; i < pad; i++)
+          byteBuffer.put((byte)0);
       return pad;
   }
 
@@ -85,7 +106,8 @@ public class Align
   static public int to64bits(DataOutputStream dos)
   {
       int pad = (8 - dos.size() % 8) % 8;
-      Arrays.stream(new int[pad]).forEach(x->dosWrite(dos));
+      for (int i = 0; i < pad; i++)
+          dosWrite(dos);
       return pad;
   }
   
@@ -97,7 +119,8 @@ public class Align
   static public int from16bits(ByteBuffer byteBuffer)
   {
       int pad = (2 - byteBuffer.position() % 2) % 2;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.get());
+      for (int i = 0; i < pad; i++)
+          byteBuffer.get();
       return pad;
   }
   
@@ -109,7 +132,8 @@ public class Align
   static public int from16bits(int position, DataInputStream dis)
   {
       int pad = (2 - position % 2) % 2;
-      Arrays.stream(new int[pad]).forEach(x->disRead(dis));
+      for (int i = 0; i < pad; i++)
+          disRead(dis);
       return pad;
   }
   
@@ -120,7 +144,8 @@ public class Align
   static public int from32bits(ByteBuffer byteBuffer)
   {
       int pad = (4 - byteBuffer.position() % 4) % 4;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.get());
+      for (int i = 0; i < pad; i++)
+          byteBuffer.get();
       return pad;
   }
   
@@ -132,7 +157,8 @@ public class Align
   static public int from32bits(int position, DataInputStream dis)
   {
       int pad = (4 - position % 4) % 4;
-      Arrays.stream(new int[pad]).forEach(x->disRead(dis));
+      for (int i = 0; i < pad; i++)
+          disRead(dis);
       return pad;
   }
   
@@ -143,7 +169,8 @@ public class Align
   static public int from64bits(ByteBuffer byteBuffer)
   {
       int pad = (8 - byteBuffer.position() % 8) % 8;
-      Arrays.stream(new int[pad]).forEach(x->byteBuffer.get());
+      for (int i = 0; i < pad; i++)
+          byteBuffer.get();
       return pad;
   }
   
@@ -155,7 +182,8 @@ public class Align
   static public int from64bits(int position, DataInputStream dis)
   {
       int pad = (8 - position % 8) % 8;
-      Arrays.stream(new int[pad]).forEach(x->disRead(dis));
+      for (int i = 0; i < pad; i++)
+          disRead(dis);
       return pad;
   }
 
@@ -8,31 +8,62 @@ package edu.nps.moves.dis7.pdus;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.Serializable;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
-import java.util.BitSet;
 
 /**
-  * This class is backed by a Java library class, {@link java.util.BitSet}.  That class exports its
-  * byte array contents in little-endian order (least significant byte first).  The DIS spec requires
-  * the opposite, which is the default for "network byte order".
+  * Base class of generated bit field records, backed by a single primitive long rather than a {@link java.util.BitSet}.
+  * Bit 0 is the least significant bit of the value, which is marshalled as one big-endian integer of the bit field size,
+  * as required by the DIS spec for "network byte order".  Accessors shift and mask the value, so that neither
+  * marshalling nor unmarshalling allocates.
 */
-public abstract class DisBitSet extends BitSet implements Marshaller
+public abstract class DisBitSet implements Marshaller, Cloneable, Serializable
 {
     /** size parameter */
     private final int  bitLength;
     /** size parameter */
     private final int byteLength;
+    /** mask of bits within bitLength */
+    private final long lengthMask;
+    /** bit values, bit 0 least significant */
+    private long bits;
 
     /**
      * Constructor
-     * @param length number of bits
+     * @param length number of bits, at most 64
      */
     public DisBitSet(int length)
     {
-        super(length); // length from bitfield element
-        bitLength = length;
+        bitLength = length; // length from bitfield element
         byteLength = (bitLength + Byte.SIZE - 1) / Byte.SIZE;
+        lengthMask = (bitLength >= Long.SIZE) ? -1L : (1L << bitLength) - 1;
+    }
+
+    /**
+     * Deep copy of a bit field, which may be declared through an interface such as {@link EntityCapabilities}
+     * @param <T> declared bit field type, implemented by a DisBitSet subclass
+     * @param bitField bit field of interest, may be null
+     * @return independent copy of same class, or null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copyOf(T bitField)
+    {
+        return (bitField == null) ? null : (T) ((DisBitSet) bitField).clone();
+    }
+
+    /**
+     * Deep copy of a bit field, reusing an existing instance of the same class without allocation
+     * @param <T> declared bit field type, implemented by a DisBitSet subclass
+     * @param bitField bit field of interest, may be null
+     * @param reuse instance to overwrite if of same class, may be null
+     * @return reuse holding copied bits, otherwise independent copy, or null
+     */
+    public static <T> T copyOf(T bitField, T reuse)
+    {
+        if ((bitField == null) || (reuse == null) || (reuse.getClass() != bitField.getClass()))
+            return copyOf(bitField);
+        ((DisBitSet) reuse).bits = ((DisBitSet) bitField).bits;
+        return reuse;
     }
 
     /**
@@ -43,11 +74,7 @@ public abstract class DisBitSet extends BitSet implements Marshaller
      */
     protected static int calculateMask(int position, int length)
     {
-        int result = 0;
-        for (int i = position; i < position + length; i++) {
-            result |= (1 << i);
-        }
-        return result;
+        return calculateMask(length) << position;
     }
 
     /**
@@ -57,11 +84,7 @@ public abstract class DisBitSet extends BitSet implements Marshaller
      */
     protected static int calculateMask(int length)
     {
-        int ret = 0;
-        for (int i = 0; i < length; i++) {
-            ret |= 1 << i;
-        }
-        return ret;
+        return (int) ((1L << length) - 1);
     }
 
     /**
@@ -72,15 +95,95 @@ public abstract class DisBitSet extends BitSet implements Marshaller
      */
     protected void setbits(int position, int length, int value)
     {
-        try {
-            for (int i = position, j = 0; i < position + length; i++, j++) {
-                boolean isset = (value & (1 << j)) != 0;
-                set(i, i + 1, isset); // BitSet class
-            }
-        }
-        catch (Throwable t) {
-            showError(t);
-        }
+        long mask = (((1L << length) - 1) << position) & lengthMask;
+        bits = (bits & ~mask) | (((long) value << position) & mask);
+    }
+
+    /**
+     * Accessor method to get bits
+     * @param position in this DisBitSet
+     * @param length number of bits
+     * @return unsigned value of bits
+     */
+    protected int getbits(int position, int length)
+    {
+        return (int) ((bits >>> position) & ((1L << length) - 1));
+    }
+
+    /**
+     * Accessor method to get all bits as one unsigned value
+     * @return bit values, bit 0 least significant
+     */
+    public long getBitValue()
+    {
+        return bits;
+    }
+
+    /**
+     * Accessor method to set all bits from one value, ignoring bits beyond the bit field size
+     * @param value bit values, bit 0 least significant
+     * @return this object
+     */
+    public DisBitSet setBitValue(long value)
+    {
+        bits = value & lengthMask;
+        return this;
+    }
+
+    /**
+     * Value of a single bit
+     * @param bitIndex bit of interest, 0 least significant
+     * @return whether bit is set
+     */
+    public boolean get(int bitIndex)
+    {
+        return (bitIndex < bitLength) && ((bits >>> bitIndex) & 1L) != 0;
+    }
+
+    /**
+     * Set a single bit
+     * @param bitIndex bit of interest, 0 least significant
+     */
+    public void set(int bitIndex)
+    {
+        set(bitIndex, true);
+    }
+
+    /**
+     * Set or clear a single bit
+     * @param bitIndex bit of interest, 0 least significant
+     * @param value whether bit is set
+     */
+    public void set(int bitIndex, boolean value)
+    {
+        setbits(bitIndex, 1, value ? 1 : 0);
+    }
+
+    /**
+     * Clear a single bit
+     * @param bitIndex bit of interest, 0 least significant
+     */
+    public void clear(int bitIndex)
+    {
+        set(bitIndex, false);
+    }
+
+    /** Clear all bits */
+    public void clear()
+    {
+        bits = 0;
+    }
+
+    /** @return whether no bits are set */
+    public boolean isEmpty()
+    {
+        return bits == 0;
+    }
+
+    /** @return number of bits set */
+    public int cardinality()
+    {
+        return Long.bitCount(bits);
     }
 
   /**
@@ -101,7 +204,15 @@ public abstract class DisBitSet extends BitSet implements Marshaller
     public void marshal(DataOutputStream dos)
     {
         try {
-            dos.write(marshallCommon());
+            switch (byteLength) {
+                case 1:  dos.writeByte((int) bits);    break;
+                case 2:  dos.writeShort((int) bits);   break;
+                case 4:  dos.writeInt((int) bits);     break;
+                case 8:  dos.writeLong(bits);          break;
+                default:
+                    for (int i = byteLength - 1; i >= 0; i--)
+                        dos.writeByte((int) (bits >>> (i * Byte.SIZE)));
+            }
         }
         catch (IOException ex) {
             System.out.println(ex.getClass().getSimpleName() + ": " + ex.getMessage());
@@ -114,22 +225,65 @@ public abstract class DisBitSet extends BitSet implements Marshaller
     @Override
     public void marshal(ByteBuffer byteBuffer)
     {
-        byteBuffer.put(marshallCommon());
+        switch (byteLength) {
+            case 1:  byteBuffer.put((byte) bits);       break;
+            case 2:  byteBuffer.putShort((short) bits); break;
+            case 4:  byteBuffer.putInt((int) bits);     break;
+            case 8:  byteBuffer.putLong(bits);          break;
+            default:
+                for (int i = byteLength - 1; i >= 0; i--)
+                    byteBuffer.put((byte) (bits >>> (i * Byte.SIZE)));
+        }
     }
 
-    /** Marshal value to ByteBuffer
+    /** Marshal value to a byte array in network byte order
+     * @param dst array for output
+     * @param offset index of first byte written
+     * @return marshalled serialized size in bytes */
+    @Override
+    public int marshal(byte[] dst, int offset)
+    {
+        switch (byteLength) {
+            case 1:  dst[offset] = (byte) bits;                         break;
+            case 2:  DisByteArrays.SHORT.set(dst, offset, (short) bits); break;
+            case 4:  DisByteArrays.INT.set(dst, offset, (int) bits);     break;
+            case 8:  DisByteArrays.LONG.set(dst, offset, bits);          break;
+            default:
+                for (int i = 0; i < byteLength; i++)
+                    dst[offset + i] = (byte) (bits >>> ((byteLength - 1 - i) * Byte.SIZE));
+        }
+        return byteLength;
+    }
+
+    /** Marshal value to a big-endian ByteBuffer at an absolute index, leaving position unchanged
+     * @param dst buffer for output, for example direct or mapped
+     * @param offset index of first byte written
+     * @return marshalled serialized size in bytes */
+    @Override
+    public int marshal(ByteBuffer dst, int offset)
+    {
+        switch (byteLength) {
+            case 1:  dst.put(offset, (byte) bits);        break;
+            case 2:  dst.putShort(offset, (short) bits);  break;
+            case 4:  dst.putInt(offset, (int) bits);      break;
+            case 8:  dst.putLong(offset, bits);           break;
+            default:
+                for (int i = 0; i < byteLength; i++)
+                    dst.put(offset + i, (byte) (bits >>> ((byteLength - 1 - i) * Byte.SIZE)));
+        }
+        return byteLength;
+    }
+
+    /** Marshal value to a new byte array
      * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
      * @see <a href="https://en.wikipedia.org/wiki/Endianness" target="_blank">https://en.wikipedia.org/wiki/Endianness</a>
-     * @return Little-Endian byte array, network byte order requires reverse */
+     * @return byte array in network byte order */
     public byte[] marshallCommon()
     {
-        byte[] byteArray = toByteArray();
-        // BitSet does not return an array equal in size to that passed to the constructor--it may be smaller.
-        // This will put 0's at the end
-        if (byteArray.length < byteLength)
-            byteArray = Arrays.copyOf(byteArray, byteLength);
-
-        return reverse(byteArray); // BitSet will return Little-Endian array, network byte order requires reverse
+        byte[] byteArray = new byte[byteLength];
+        for (int i = 0; i < byteLength; i++)
+            byteArray[i] = (byte) (bits >>> ((byteLength - 1 - i) * Byte.SIZE));
+        return byteArray;
     }
 
     /**
@@ -143,9 +297,18 @@ public abstract class DisBitSet extends BitSet implements Marshaller
     public int unmarshal(DataInputStream dis)
     {
         try {
-            byte[] ba = new byte[byteLength];
-            dis.readFully(ba);
-            unmarshalCommon(ba);
+            switch (byteLength) {
+                case 1:  bits = dis.readUnsignedByte();              break;
+                case 2:  bits = dis.readUnsignedShort();             break;
+                case 4:  bits = dis.readInt() & 0xFFFF_FFFFL;        break;
+                case 8:  bits = dis.readLong();                      break;
+                default:
+                    long value = 0;
+                    for (int i = 0; i < byteLength; i++)
+                        value = (value << Byte.SIZE) | dis.readUnsignedByte();
+                    bits = value;
+            }
+            bits &= lengthMask;
         }
         catch (IOException ex) {
             showError(ex);
@@ -162,43 +325,117 @@ public abstract class DisBitSet extends BitSet implements Marshaller
     @Override
     public int unmarshal(ByteBuffer byteBuffer)
     {
-        byte[] ba = new byte[byteLength];
-        byteBuffer.get(ba);
-        unmarshalCommon(ba);
-        
+        switch (byteLength) {
+            case 1:  bits = Byte.toUnsignedLong(byteBuffer.get());         break;
+            case 2:  bits = Short.toUnsignedLong(byteBuffer.getShort());   break;
+            case 4:  bits = Integer.toUnsignedLong(byteBuffer.getInt());   break;
+            case 8:  bits = byteBuffer.getLong();                          break;
+            default:
+                long value = 0;
+                for (int i = 0; i < byteLength; i++)
+                    value = (value << Byte.SIZE) | Byte.toUnsignedLong(byteBuffer.get());
+                bits = value;
+        }
+        bits &= lengthMask;
         return getMarshalledSize();
     }
 
-    /** Deserializes an object from a byte array
-     * @see <a href="https://en.wikipedia.org/wiki/Marshalling_(computer_science)" target="_blank">https://en.wikipedia.org/wiki/Marshalling_(computer_science)</a>
-     * @see <a href="https://en.wikipedia.org/wiki/Endianness" target="_blank">https://en.wikipedia.org/wiki/Endianness</a>
-     * @param ba byte array of interest */
-    private void unmarshalCommon(byte[] ba)
+    /**
+     * Deserializes an object from a byte array in network byte order.
+     * @param src array holding serialized data
+     * @param offset index of first byte read
+     * @return marshalled serialized size in bytes
+     */
+    @Override
+    public int unmarshal(byte[] src, int offset)
     {
-        reverse(ba); // big endian to little
+        switch (byteLength) {
+            case 1:  bits = Byte.toUnsignedLong(src[offset]);                                break;
+            case 2:  bits = Short.toUnsignedLong((short) DisByteArrays.SHORT.get(src, offset)); break;
+            case 4:  bits = Integer.toUnsignedLong((int) DisByteArrays.INT.get(src, offset));   break;
+            case 8:  bits = (long) DisByteArrays.LONG.get(src, offset);                         break;
+            default:
+                long value = 0;
+                for (int i = 0; i < byteLength; i++)
+                    value = (value << Byte.SIZE) | Byte.toUnsignedLong(src[offset + i]);
+                bits = value;
+        }
+        bits &= lengthMask;
+        return byteLength;
+    }
 
-        int bitnum = 0;
-        for (int i = 0; i < ba.length; i++) {
-            for (int j = 0; j < Byte.SIZE; j++) {
-                set(bitnum++, isBitSet(ba[i], j));
-            }
+    /**
+     * Deserializes an object from a big-endian ByteBuffer at an absolute index, leaving position unchanged.
+     * @param src buffer holding serialized data, for example direct or mapped
+     * @param offset index of first byte read
+     * @return marshalled serialized size in bytes
+     */
+    @Override
+    public int unmarshal(ByteBuffer src, int offset)
+    {
+        switch (byteLength) {
+            case 1:  bits = Byte.toUnsignedLong(src.get(offset));          break;
+            case 2:  bits = Short.toUnsignedLong(src.getShort(offset));    break;
+            case 4:  bits = Integer.toUnsignedLong(src.getInt(offset));    break;
+            case 8:  bits = src.getLong(offset);                           break;
+            default:
+                long value = 0;
+                for (int i = 0; i < byteLength; i++)
+                    value = (value << Byte.SIZE) | Byte.toUnsignedLong(src.get(offset + i));
+                bits = value;
+        }
+        bits &= lengthMask;
+        return byteLength;
+    }
+
+    /**
+     * Copy of this bit field
+     * @return independent copy of same class
+     */
+    @Override
+    public DisBitSet clone()
+    {
+        try {
+            return (DisBitSet) super.clone();
+        }
+        catch (CloneNotSupportedException ex) {
+            throw new InternalError(ex);
         }
     }
 
-    private boolean isBitSet(byte b, int bit)
+    /**
+     * Compare bit values of bit fields of the same class
+     * @param obj the object to compare to
+     * @return true if the objects are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if ((obj == null) || (getClass() != obj.getClass()))
+            return false;
+        return bits == ((DisBitSet) obj).bits;
+    }
+
+    @Override
+    public int hashCode()
     {
-        return (b & (1 << bit)) != 0;
+        return Long.hashCode(bits);
     }
 
-    private byte[] reverse(byte[] ba)
+    /** Provide string representation listing indices of set bits, for example {0, 3}
+     * @return string representation */
+    @Override
+    public String toString()
     {
-        int len = ba.length;
-        for (int i = 0; i < len / 2; i++) {
-            byte b = ba[i];
-            ba[i] = ba[len - 1 - i];
-            ba[len - 1 - i] = b;
+        StringBuilder sb = new StringBuilder("{");
+        for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            if (sb.length() > 1)
+                sb.append(", ");
+            sb.append(Long.numberOfTrailingZeros(remaining));
         }
-        return ba;
+        return sb.append('}').toString();
     }
 
     private void showError(Throwable ex)
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.pdus;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * DisByteArrays provides big-endian (network byte order) views of byte arrays, as used by the generated
+ * marshal(byte[], int) and unmarshal(byte[], int) methods.  Each VarHandle reads or writes one primitive at any
+ * byte index of an array, for example <code>int timestamp = (int) DisByteArrays.INT.get(data, offset + 4);</code>
+ * Since the handles are constants, the JIT compiles each access to a plain load or store with a byte swap on
+ * little-endian hardware, without the position bookkeeping of a ByteBuffer or the per-byte calls of a DataOutputStream.
+ * Single bytes need no handle and are accessed as array elements.
+ */
+public final class DisByteArrays
+{
+    /** 16-bit access, get returns short and set expects short */
+    public static final VarHandle SHORT  = MethodHandles.byteArrayViewVarHandle(short[].class,  ByteOrder.BIG_ENDIAN);
+
+    /** 32-bit access, get returns int and set expects int */
+    public static final VarHandle INT    = MethodHandles.byteArrayViewVarHandle(int[].class,    ByteOrder.BIG_ENDIAN);
+
+    /** 64-bit access, get returns long and set expects long */
+    public static final VarHandle LONG   = MethodHandles.byteArrayViewVarHandle(long[].class,   ByteOrder.BIG_ENDIAN);
+
+    /** 32-bit IEEE 754 access, get returns float and set expects float */
+    public static final VarHandle FLOAT  = MethodHandles.byteArrayViewVarHandle(float[].class,  ByteOrder.BIG_ENDIAN);
+
+    /** 64-bit IEEE 754 access, get returns double and set expects double */
+    public static final VarHandle DOUBLE = MethodHandles.byteArrayViewVarHandle(double[].class, ByteOrder.BIG_ENDIAN);
+
+    private DisByteArrays()
+    {
+    }
+}
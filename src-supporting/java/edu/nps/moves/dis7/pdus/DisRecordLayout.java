@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.pdus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * DisRecordLayout is the superclass of generated static patchers, such as EntityStatePduLayout,
+ * which read and overwrite fields at fixed offsets of a serialized PDU or record directly in a ByteBuffer.
+ * A relay that only changes the timestamp, exercise ID or entity site of received PDUs can thus forward each
+ * datagram after a few stores, rather than unmarshalling and marshalling it again.
+ * Patchers use absolute ByteBuffer accessors, leaving position, limit and byte order of the buffer unchanged.
+ * Buffers are expected in network (big-endian) byte order, as produced by marshal().
+ * No validation occurs: the caller provides the offset of a PDU or record of the matching type, and a field
+ * beyond the buffer limit throws IndexOutOfBoundsException.
+ * Fields following variable-length data have no fixed offset and no patcher, use the corresponding view to locate them.
+ * @see DisRecordView
+ */
+public abstract class DisRecordLayout
+{
+    /** no instances, subclasses provide static methods only */
+    protected DisRecordLayout()
+    {
+    }
+
+    /**
+     * Read an unsigned value of one, two or four bytes, as used for SISO enumerations and bitfields
+     * @param byteBuffer buffer holding serialized data
+     * @param index absolute index within buffer
+     * @param size number of bytes
+     * @return unsigned value, four-byte values beyond Integer.MAX_VALUE are returned negative
+     */
+    protected static int unsignedValue(ByteBuffer byteBuffer, int index, int size)
+    {
+        switch (size)
+        {
+            case 1:
+                return Byte.toUnsignedInt(byteBuffer.get(index));
+            case 2:
+                return Short.toUnsignedInt(byteBuffer.getShort(index));
+            default:
+                return byteBuffer.getInt(index);
+        }
+    }
+
+    /**
+     * Overwrite an unsigned value of one, two or four bytes, as used for SISO enumerations and bitfields
+     * @param byteBuffer buffer holding serialized data
+     * @param index absolute index within buffer
+     * @param size number of bytes
+     * @param value unsigned value, bits beyond size are ignored
+     */
+    protected static void putUnsignedValue(ByteBuffer byteBuffer, int index, int size, int value)
+    {
+        switch (size)
+        {
+            case 1:
+                byteBuffer.put(index, (byte) value);
+                break;
+            case 2:
+                byteBuffer.putShort(index, (short) value);
+                break;
+            default:
+                byteBuffer.putInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.pdus;
+
+import java.nio.ByteBuffer;
+
+/**
+ * DisRecordView is the superclass of generated read-only flyweight views, such as EntityStatePduView,
+ * which read fields of a serialized PDU or record in place from a ByteBuffer rather than creating objects.
+ * A view holds only a buffer reference and offsets, so one instance can be re-wrapped around each received
+ * datagram or each element of a record list without allocation.
+ * Reads use absolute ByteBuffer accessors, leaving position, limit and byte order of the buffer unchanged,
+ * so views work equally with heap, direct and read-only buffers.  Buffers are expected in network (big-endian)
+ * byte order, as produced by marshal().
+ * Views are not thread safe, but any number of views may share one buffer.
+ * No validation occurs on wrap: reading a field beyond the buffer limit throws IndexOutOfBoundsException.
+ */
+public abstract class DisRecordView
+{
+    /** buffer holding serialized data */
+    protected ByteBuffer buffer;
+
+    /** index of first byte of this record within buffer */
+    protected int offset;
+
+    /** index of first byte of the enclosing PDU within buffer, used as reference for padding to 16/32/64-bit boundaries */
+    protected int origin;
+
+    /** default constructor, view must be wrapped before use */
+    protected DisRecordView()
+    {
+    }
+
+    /**
+     * Position this view over a record starting at offset, which also serves as alignment origin for padding
+     * @param newBuffer buffer holding serialized data
+     * @param newOffset index of first byte of record
+     * @return this view
+     */
+    public DisRecordView wrap(ByteBuffer newBuffer, int newOffset)
+    {
+        return wrap(newBuffer, newOffset, newOffset);
+    }
+
+    /**
+     * Position this view over a record nested within an enclosing PDU
+     * @param newBuffer buffer holding serialized data
+     * @param newOffset index of first byte of record
+     * @param newOrigin index of first byte of enclosing PDU
+     * @return this view
+     */
+    public DisRecordView wrap(ByteBuffer newBuffer, int newOffset, int newOrigin)
+    {
+        buffer = newBuffer;
+        offset = newOffset;
+        origin = newOrigin;
+        return this;
+    }
+
+    /**
+     * Provide underlying buffer
+     * @return buffer holding serialized data
+     */
+    public ByteBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Provide index of first byte of this record within buffer
+     * @return offset
+     */
+    public int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Returns size of this serialized (marshalled) record in bytes, reading variable-length parts as needed
+     * @return serialized size in bytes
+     */
+    public abstract int getMarshalledSize();
+
+    /**
+     * Read an unsigned value of one, two or four bytes, as used for SISO enumerations and bitfields
+     * @param index absolute index within buffer
+     * @param size number of bytes
+     * @return unsigned value, four-byte values beyond Integer.MAX_VALUE are returned negative
+     */
+    protected final int unsignedValue(int index, int size)
+    {
+        switch (size)
+        {
+            case 1:
+                return Byte.toUnsignedInt(buffer.get(index));
+            case 2:
+                return Short.toUnsignedInt(buffer.getShort(index));
+            default:
+                return buffer.getInt(index);
+        }
+    }
+
+    /**
+     * Number of padding bytes needed at a given position
+     * @param position byte position relative to start of PDU
+     * @param boundary alignment boundary in bytes: 2, 4 or 8
+     * @return number of padding bytes
+     */
+    protected static int padding(int position, int boundary)
+    {
+        return (boundary - position % boundary) % boundary;
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.pdus;
+
+import java.util.Arrays;
+import java.util.function.ToIntFunction;
+
+/**
+ * EnumValueIndex provides constant-time lookup of a generated SISO enumeration constant from its numeric value.
+ * Built once in the static initializer of each generated enumeration, it is immutable and thus thread safe.
+ * Compact value ranges are indexed directly by a dense array, sparse value ranges use an open-addressing hash table keyed by primitive int.
+ * When several constants share one value, the first declared constant is returned, matching prior linear-scan behavior.
+ *
+ * @param <E> enumeration type of interest
+ */
+public final class EnumValueIndex<E extends Enum<E>>
+{
+    /** smallest dense table always accepted, regardless of how many constants are present */
+    private static final int MINIMUM_DENSE_LENGTH = 256;
+
+    /** maximum ratio of dense table length to number of constants */
+    private static final int MAXIMUM_DENSE_SPARSENESS = 4;
+
+    /** dense table indexed by value, null when the sparse table is used */
+    private final E[] denseTable;
+
+    /** sparse table keys, null when the dense table is used */
+    private final int[] sparseKeys;
+
+    /** sparse table constants corresponding to sparseKeys, null entries are empty slots */
+    private final E[] sparseValues;
+
+    /** sparse table length minus one, length is a power of two */
+    private final int sparseMask;
+
+    /**
+     * Constructor builds lookup tables
+     * @param constants all enumeration constants, typically values()
+     * @param valueOf function providing numeric value of a constant, typically getValue()
+     */
+    public EnumValueIndex(E[] constants, ToIntFunction<E> valueOf)
+    {
+        int minimum = Integer.MAX_VALUE;
+        int maximum = Integer.MIN_VALUE;
+        for (E constant : constants)
+        {
+            int value = valueOf.applyAsInt(constant);
+            minimum = Math.min(minimum, value);
+            maximum = Math.max(maximum, value);
+        }
+        boolean dense = (constants.length == 0) ||
+                        ((minimum >= 0) && (maximum < Math.max(MINIMUM_DENSE_LENGTH, MAXIMUM_DENSE_SPARSENESS * constants.length)));
+        if (dense)
+        {
+            int length = (constants.length == 0) ? 0 : maximum + 1;
+            denseTable = Arrays.copyOf(constants, length);
+            Arrays.fill(denseTable, null);
+            for (E constant : constants)
+            {
+                int value = valueOf.applyAsInt(constant);
+                if (denseTable[value] == null)
+                    denseTable[value] = constant;
+            }
+            sparseKeys   = null;
+            sparseValues = null;
+            sparseMask   = 0;
+        }
+        else
+        {
+            int length = Integer.highestOneBit(constants.length * 2 - 1) << 1; // load factor at most 0.5
+            denseTable   = null;
+            sparseKeys   = new int[length];
+            sparseValues = Arrays.copyOf(constants, length);
+            Arrays.fill(sparseValues, null);
+            sparseMask   = length - 1;
+            for (E constant : constants)
+            {
+                int value = valueOf.applyAsInt(constant);
+                int slot  = hash(value) & sparseMask;
+                while ((sparseValues[slot] != null) && (sparseKeys[slot] != value))
+                    slot = (slot + 1) & sparseMask;
+                if (sparseValues[slot] == null)
+                {
+                    sparseKeys[slot]   = value;
+                    sparseValues[slot] = constant;
+                }
+            }
+        }
+    }
+
+    /**
+     * Provide enumeration constant for a given value
+     * @param value numeric value of interest
+     * @return corresponding enumeration constant, or null if value is not defined
+     */
+    public E get(int value)
+    {
+        if (denseTable != null)
+            return ((value >= 0) && (value < denseTable.length)) ? denseTable[value] : null;
+
+        int slot = hash(value) & sparseMask;
+        E constant;
+        while ((constant = sparseValues[slot]) != null)
+        {
+            if (sparseKeys[slot] == value)
+                return constant;
+            slot = (slot + 1) & sparseMask;
+        }
+        return null;
+    }
+
+    /** Spread value bits so that clustered values distribute across sparse table slots */
+    private static int hash(int value)
+    {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
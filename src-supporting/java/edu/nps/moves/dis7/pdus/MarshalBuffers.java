@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2008-2023, MOVES Institute, Naval Postgraduate School (NPS). All rights reserved.
+ * This work is provided under a BSD open-source license, see project license.html and license.txt
+ */
+
+package edu.nps.moves.dis7.pdus;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * MarshalBuffers provides one reusable heap ByteBuffer per thread for marshalling, so that senders emitting
+ * thousands of PDUs per second need not allocate a buffer for each PDU.
+ * A buffer obtained here remains valid only until the next use of MarshalBuffers on the same thread,
+ * so hand its contents to a socket (or copy them) before marshalling the next PDU.
+ */
+public final class MarshalBuffers
+{
+    /** initial capacity of each per-thread buffer, one Ethernet MTU */
+    public static final int DEFAULT_CAPACITY = 1500;
+
+    /** largest capacity attempted, beyond the 16-bit PDU length limit */
+    private static final int MAXIMUM_CAPACITY = 1 << 17;
+
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocate(DEFAULT_CAPACITY));
+
+    private MarshalBuffers()
+    {
+    }
+
+    /**
+     * Provide the cleared buffer of the current thread, grown if needed
+     * @param minimumCapacity number of bytes required
+     * @return per-thread buffer with position 0 and limit equal to capacity
+     */
+    public static ByteBuffer forCurrentThread(int minimumCapacity)
+    {
+        ByteBuffer byteBuffer = BUFFERS.get();
+        if (byteBuffer.capacity() < minimumCapacity)
+        {
+            byteBuffer = ByteBuffer.allocate(Integer.highestOneBit(minimumCapacity - 1) << 1);
+            BUFFERS.set(byteBuffer);
+        }
+        return byteBuffer.clear();
+    }
+
+    /**
+     * Marshal into the buffer of the current thread.  The buffer grows and marshalling is repeated if
+     * getMarshalledSize() underestimates, as happens for padded records not marshalled before.
+     * @param marshaller PDU or record of interest
+     * @return per-thread buffer flipped for reading, position 0 and limit equal to bytes written
+     * @throws Exception if marshalling fails
+     */
+    public static ByteBuffer marshal(Marshaller marshaller) throws Exception
+    {
+        ByteBuffer byteBuffer = forCurrentThread(marshaller.getMarshalledSize());
+        while (true)
+        {
+            try
+            {
+                marshaller.marshal(byteBuffer);
+                return byteBuffer.flip();
+            }
+            catch (BufferOverflowException boe)
+            {
+                if (byteBuffer.capacity() >= MAXIMUM_CAPACITY)
+                    throw boe;
+                byteBuffer = forCurrentThread(byteBuffer.capacity() * 2);
+            }
+        }
+    }
+}
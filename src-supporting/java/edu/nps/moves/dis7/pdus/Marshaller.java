@@ -52,4 +52,66 @@ public interface Marshaller
      * @param byteBuffer The ByteBuffer at the position to begin reading
      */
     int unmarshal(ByteBuffer byteBuffer) throws Exception;
+
+    /**
+     * Packs into a byte array in network byte order.  Generated classes override this default,
+     * which marshals through a ByteBuffer slice so that padding is computed from offset.
+     * @param dst destination array
+     * @param offset index of first byte written
+     * @return number of bytes written
+     * @throws Exception error during marshaling, including insufficient space in dst
+     */
+    default int marshal(byte[] dst, int offset) throws Exception
+    {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(dst, offset, dst.length - offset).slice();
+        marshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Unpacks from a byte array in network byte order.  Generated classes override this default,
+     * which unmarshals through a ByteBuffer slice so that padding is computed from offset.
+     * @param src source array
+     * @param offset index of first byte read
+     * @return number of bytes read
+     * @throws Exception error during unmarshalling
+     */
+    default int unmarshal(byte[] src, int offset) throws Exception
+    {
+        ByteBuffer byteBuffer = ByteBuffer.wrap(src, offset, src.length - offset).slice();
+        unmarshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Packs into a big-endian ByteBuffer at an absolute index, leaving its position unchanged, so that
+     * direct buffers, memory-mapped files and shared-memory rings are written in place without copying onto the heap.
+     * Generated classes override this default, which marshals through a slice so that padding is computed from offset.
+     * @param dst destination buffer
+     * @param offset index of first byte written
+     * @return number of bytes written
+     * @throws Exception error during marshaling, including insufficient space in dst
+     */
+    default int marshal(ByteBuffer dst, int offset) throws Exception
+    {
+        ByteBuffer byteBuffer = dst.slice(offset, dst.limit() - offset);
+        marshal(byteBuffer);
+        return byteBuffer.position();
+    }
+
+    /**
+     * Unpacks from a big-endian ByteBuffer at an absolute index, leaving its position unchanged, so that
+     * direct buffers, memory-mapped files and shared-memory rings are read in place without copying onto the heap.
+     * Generated classes override this default, which unmarshals through a slice so that padding is computed from offset.
+     * @param src source buffer
+     * @param offset index of first byte read
+     * @return number of bytes read
+     * @throws Exception error during unmarshalling
+     */
+    default int unmarshal(ByteBuffer src, int offset) throws Exception
+    {
+        ByteBuffer byteBuffer = src.slice(offset, src.limit() - offset);
+        unmarshal(byteBuffer);
+        return byteBuffer.position();
+    }
 }
@@ -96,6 +96,34 @@ public class PduStatus
       value = byteValue;
     }
 
+    /**
+     * Copy constructor
+     * @param source instance to copy
+     */
+    public PduStatus(PduStatus source)
+    {
+      value = source.value;
+    }
+
+    /**
+     * Copy value of the source instance into this instance
+     * @param source instance to copy
+     * @return same object to permit progressive setters
+     */
+    public PduStatus copyFrom(PduStatus source)
+    {
+      value = source.value;
+      return this;
+    }
+
+    /**
+     * Return this instance to its newly constructed state
+     */
+    public void reset()
+    {
+      value = 0;
+    }
+
     /**
      * Accessor method to set value
      * @param byteValue byte value of interest
@@ -181,6 +209,50 @@ public class PduStatus
       return 1;
     }
 
+    /** Marshal value to byte array
+     * @param dst array to receive result
+     * @param offset index of byte to write
+     * @return marshalled serialized size in bytes */
+    public int marshal(byte[] dst, int offset)
+    {
+      dst[offset] = value;
+      return 1;
+    }
+
+    /**
+     * Unpacks value from byte array
+     * @param src array holding serialized data
+     * @param offset index of byte to read
+     * @return marshalled serialized size in bytes
+     */
+    public int unmarshal(byte[] src, int offset)
+    {
+      value = src[offset];
+      return 1;
+    }
+
+    /** Marshal value to ByteBuffer at an absolute index, leaving position unchanged
+     * @param dst buffer to receive result, for example direct or mapped
+     * @param offset index of byte to write
+     * @return marshalled serialized size in bytes */
+    public int marshal(ByteBuffer dst, int offset)
+    {
+      dst.put(offset, value);
+      return 1;
+    }
+
+    /**
+     * Unpacks value from ByteBuffer at an absolute index, leaving position unchanged
+     * @param src buffer holding serialized data, for example direct or mapped
+     * @param offset index of byte to read
+     * @return marshalled serialized size in bytes
+     */
+    public int unmarshal(ByteBuffer src, int offset)
+    {
+      value = src.get(offset);
+      return 1;
+    }
+
     /**
      * Object equality comparison
      * @param obj object to compare